@@ -0,0 +1,181 @@
+package com.example.chat.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 유휴 연결 하나가 핸들러 쪽에 남기는 힙 크기 비교 (문자열 키 맵 세 개 vs ConnectionRegistry)
+ *
+ * 세션 객체는 미리 만들어 두고 빼므로, 등록부/구독 구조 + (선택) 송신 큐만 잰다.
+ * - legacy : sessionId→세션, sessionId→송신 큐, userId(String)→세션, 채팅방 구독자 Set<String>
+ * - compact: 연결당 Connection 하나 + long 키 userId 해시, 채팅방 구독자는 Connection 참조
+ *
+ * 실행: ./gradlew connectionMemoryBenchmark -Dbench.connections=100000 -Dbench.roomsPerConnection=1
+ * 각 방식을 같은 JVM 에서 차례로 재므로 -Xms 를 넉넉히 (GC 후 사용량 차이로 계산)
+ */
+@Slf4j
+public class ConnectionMemoryBenchmark {
+
+    private static final int CONNECTIONS = Integer.getInteger("bench.connections", 100_000);
+    private static final int ROOMS_PER_CONNECTION = Integer.getInteger("bench.roomsPerConnection", 1);
+    private static final boolean OUTBOX = Boolean.parseBoolean(System.getProperty("bench.outbox", "true"));
+    private static final int SHARDS = Runtime.getRuntime().availableProcessors();
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    // 송신 큐가 공유하는 밀린 세션 집합 (핸들러처럼 하나)
+    private static final Set<SessionOutbox> BACKLOGGED = ConcurrentHashMap.newKeySet();
+
+    public static void main(String[] args) {
+        List<WebSocketSession> sessions = new ArrayList<>(CONNECTIONS);
+        for (int i = 0; i < CONNECTIONS; i++) {
+            sessions.add(stubSession(Integer.toHexString(0x10000000 + i)));
+        }
+        log.info("Connection memory benchmark: connections={}, rooms/connection={}, outbox={}, shards={}",
+                CONNECTIONS, ROOMS_PER_CONNECTION, OUTBOX, SHARDS);
+
+        long legacy = measure(() -> legacy(sessions));
+        long compact = measure(() -> compact(sessions));
+
+        log.info(String.format("legacy  : %,d bytes total, %.1f bytes/connection", legacy, (double) legacy / CONNECTIONS));
+        log.info(String.format("compact : %,d bytes total, %.1f bytes/connection", compact, (double) compact / CONNECTIONS));
+        log.info(String.format("saved   : %.1f bytes/connection (%.0f%%)",
+                (double) (legacy - compact) / CONNECTIONS, 100.0 * (legacy - compact) / Math.max(1, legacy)));
+    }
+
+    // 만든 구조가 살아 있는 동안의 힙 증가량
+    private static long measure(Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object layout = build.get();
+        long after = usedAfterGc();
+        disposeOutboxes(layout);
+        return after - before;
+    }
+
+    // 예전 구조: 문자열 키 ConcurrentHashMap 세 개 + 채팅방별 Set<String> 조각
+    private static Object legacy(List<WebSocketSession> sessions) {
+        Map<String, WebSocketSession> connections = new ConcurrentHashMap<>();
+        Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+        Map<String, WebSocketSession> users = new ConcurrentHashMap<>();
+        Map<String, Set<String>[]> rooms = new ConcurrentHashMap<>();
+
+        for (int i = 0; i < sessions.size(); i++) {
+            WebSocketSession session = sessions.get(i);
+            connections.put(session.getId(), session);
+            if (OUTBOX) {
+                outboxes.put(session.getId(), newOutbox(session));
+            }
+            // SUBSCRIBE 프레임마다 새로 파싱된 문자열
+            String userId = String.valueOf(userId(i));
+            users.put(userId, session);
+            for (int r = 0; r < ROOMS_PER_CONNECTION; r++) {
+                Set<String>[] shards = rooms.computeIfAbsent(roomId(i, r), key -> newShards());
+                shards[Math.floorMod(userId.hashCode(), SHARDS)].add(userId);
+            }
+        }
+        return List.of(connections, outboxes, users, rooms);
+    }
+
+    // 지금 구조: ConnectionRegistry + Connection 참조 조각
+    private static Object compact(List<WebSocketSession> sessions) {
+        ConnectionRegistry registry = new ConnectionRegistry();
+        Map<String, RoomSubscribers> rooms = new ConcurrentHashMap<>();
+
+        for (int i = 0; i < sessions.size(); i++) {
+            WebSocketSession session = sessions.get(i);
+            Connection connection = registry.open(session, OUTBOX ? newOutbox(session) : null, userId(i));
+            registry.bindUser(connection);
+            for (int r = 0; r < ROOMS_PER_CONNECTION; r++) {
+                rooms.compute(roomId(i, r), (key, subscribers) -> {
+                    if (subscribers == null) {
+                        subscribers = new RoomSubscribers(key, SHARDS);
+                    }
+                    if (subscribers.add(connection)) {
+                        connection.addRoom(subscribers);
+                    }
+                    return subscribers;
+                });
+            }
+        }
+        return List.of(registry, rooms);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String>[] newShards() {
+        Set<String>[] shards = new Set[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = ConcurrentHashMap.newKeySet();
+        }
+        return shards;
+    }
+
+    private static SessionOutbox newOutbox(WebSocketSession session) {
+        return new SessionOutbox(session.getId(), 1, BACKLOGGED, Integer.MAX_VALUE, Integer.MAX_VALUE, () -> { });
+    }
+
+    // 송신 큐의 워커를 돌려줌 (다음 측정에 영향 없도록)
+    @SuppressWarnings("unchecked")
+    private static void disposeOutboxes(Object layout) {
+        for (Object part : (List<Object>) layout) {
+            if (part instanceof ConnectionRegistry registry) {
+                registry.connections().stream()
+                        .map(Connection::outbox)
+                        .filter(outbox -> outbox != null)
+                        .forEach(SessionOutbox::dispose);
+            } else if (part instanceof Map<?, ?> map) {
+                map.values().forEach(value -> {
+                    if (value instanceof SessionOutbox outbox) {
+                        outbox.dispose();
+                    }
+                });
+            }
+        }
+    }
+
+    // 1:1 채팅방처럼 두 연결이 한 채팅방을 공유
+    private static String roomId(int connection, int room) {
+        return "room-" + ((connection / 2) * ROOMS_PER_CONNECTION + room);
+    }
+
+    private static long userId(int connection) {
+        return 1_000_000L + connection;
+    }
+
+    // getId / isOpen 만 답하는 세션 (측정 전에 만들어 두므로 결과에 포함되지 않음)
+    private static WebSocketSession stubSession(String id) {
+        return (WebSocketSession) Proxy.newProxyInstance(
+                ConnectionMemoryBenchmark.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getId" -> id;
+                    case "isOpen" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "stub-session-" + id;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static long usedAfterGc() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+}
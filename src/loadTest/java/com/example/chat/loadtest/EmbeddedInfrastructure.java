@@ -0,0 +1,77 @@
+package com.example.chat.loadtest;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import lombok.extern.slf4j.Slf4j;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+/**
+ * 컨테이너 없이 로컬에서 띄우는 MongoDB / Redis 대역
+ *
+ * - MongoDB: mongo-java-server (JVM 내 in-memory, 와이어 프로토콜 호환)
+ * - Redis: embedded-redis 에 포함된 redis-server 바이너리 실행
+ *
+ * Mongo 쪽은 실제 디스크 쓰기가 없으므로, 저장 지연까지 포함한 수치가 필요하면
+ * 외부 모드(-Dloadtest.target)로 실제 MongoDB 에 붙은 노드를 측정한다.
+ */
+@Slf4j
+public class EmbeddedInfrastructure implements AutoCloseable {
+
+    private final MongoServer mongoServer;
+    private final InetSocketAddress mongoAddress;
+    private final RedisServer redisServer;
+    private final int redisPort;
+
+    private EmbeddedInfrastructure(MongoServer mongoServer, InetSocketAddress mongoAddress,
+                                   RedisServer redisServer, int redisPort) {
+        this.mongoServer = mongoServer;
+        this.mongoAddress = mongoAddress;
+        this.redisServer = redisServer;
+        this.redisPort = redisPort;
+    }
+
+    public static EmbeddedInfrastructure start() throws IOException {
+        MongoServer mongoServer = new MongoServer(new MemoryBackend());
+        InetSocketAddress mongoAddress = mongoServer.bind();
+        log.info("Embedded MongoDB started: {}", mongoAddress);
+
+        int redisPort = freePort();
+        RedisServer redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        log.info("Embedded Redis started: port={}", redisPort);
+
+        return new EmbeddedInfrastructure(mongoServer, mongoAddress, redisServer, redisPort);
+    }
+
+    public String mongoUri() {
+        return "mongodb://" + mongoAddress.getHostString() + ":" + mongoAddress.getPort() + "/chat_loadtest";
+    }
+
+    public String redisHost() {
+        return "localhost";
+    }
+
+    public int redisPort() {
+        return redisPort;
+    }
+
+    @Override
+    public void close() {
+        try {
+            redisServer.stop();
+        } catch (IOException e) {
+            log.warn("Failed to stop embedded Redis", e);
+        }
+        mongoServer.shutdownNow();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.chat.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 송신 → 수신 지연시간 히스토그램과 처리량 카운터
+ *
+ * 워밍업 동안의 샘플은 카운트만 하고 히스토그램에는 넣지 않는다.
+ */
+public class LatencyStats {
+
+    private static final long MAX_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Histogram deliveryLatency = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+    private final Histogram echoLatency = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+    private final Histogram persistedLatency = new ConcurrentHistogram(MAX_TRACKABLE_NANOS, 3);
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder echoed = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private volatile boolean measuring;
+
+    public void startMeasuring() {
+        sent.reset();
+        delivered.reset();
+        echoed.reset();
+        persisted.reset();
+        duplicates.reset();
+        errors.reset();
+        deliveryLatency.reset();
+        echoLatency.reset();
+        persistedLatency.reset();
+        measuring = true;
+    }
+
+    public void stopMeasuring() {
+        measuring = false;
+    }
+
+    public boolean isMeasuring() {
+        return measuring;
+    }
+
+    public void recordSent() {
+        if (measuring) {
+            sent.increment();
+        }
+    }
+
+    public void recordDelivered(long latencyNanos) {
+        if (measuring) {
+            delivered.increment();
+            deliveryLatency.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        }
+    }
+
+    public void recordEcho(long latencyNanos) {
+        if (measuring) {
+            echoed.increment();
+            echoLatency.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        }
+    }
+
+    public void recordPersisted(long latencyNanos) {
+        if (measuring) {
+            persisted.increment();
+            persistedLatency.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_NANOS));
+        }
+    }
+
+    public void recordDuplicate() {
+        if (measuring) {
+            duplicates.increment();
+        }
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public long sent() {
+        return sent.sum();
+    }
+
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    public long echoed() {
+        return echoed.sum();
+    }
+
+    public long persisted() {
+        return persisted.sum();
+    }
+
+    public long duplicates() {
+        return duplicates.sum();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Histogram deliveryLatency() {
+        return deliveryLatency;
+    }
+
+    public Histogram echoLatency() {
+        return echoLatency;
+    }
+
+    public Histogram persistedLatency() {
+        return persistedLatency;
+    }
+}
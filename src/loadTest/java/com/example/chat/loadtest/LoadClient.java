@@ -0,0 +1,170 @@
+package com.example.chat.loadtest;
+
+import com.example.chat.model.AckStatus;
+import com.example.chat.model.MessageType;
+import com.example.chat.model.WebSocketMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.socket.WebSocketMessage.Type;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 부하 테스트용 WebSocket 클라이언트 1개 (= 사용자 1명)
+ *
+ * CHAT content / clientMessageId 에 송신 시각(System.nanoTime)을 실어 보내고,
+ * 상대방 수신, 발신자 echo, 저장 완료 ACK 시점과의 차이를 각각 기록한다.
+ */
+@Slf4j
+public class LoadClient {
+
+    static final String PAYLOAD_PREFIX = "lt|";
+
+    private final long userId;
+    private final String chatRoomId;
+    private final URI uri;
+    private final WebSocketClient client;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+
+    private final Sinks.Many<String> outbound = Sinks.many().unicast().onBackpressureBuffer();
+    private final Sinks.Empty<Void> connected = Sinks.empty();
+
+    // 수신한 메시지 ID (중복 전달 검출용)
+    private final Set<String> receivedIds = ConcurrentHashMap.newKeySet();
+
+    private volatile Disposable connection;
+    private volatile boolean open;
+
+    public LoadClient(long userId, String chatRoomId, URI uri, WebSocketClient client,
+                      ObjectMapper objectMapper, LatencyStats stats) {
+        this.userId = userId;
+        this.chatRoomId = chatRoomId;
+        this.uri = uri;
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+    }
+
+    /**
+     * 핸드셰이크 + SUBSCRIBE 전송, 연결이 열리면 완료
+     */
+    public Mono<Void> connect() {
+        connection = client.execute(uri, session -> {
+                    open = true;
+                    connected.tryEmitEmpty();
+                    send(WebSocketMessage.builder()
+                            .type(MessageType.SUBSCRIBE)
+                            .userId(String.valueOf(userId))
+                            .chatRoomId(chatRoomId)
+                            .build());
+
+                    Mono<Void> output = session.send(outbound.asFlux().map(session::textMessage));
+                    Mono<Void> input = session.receive()
+                            .filter(message -> message.getType() == Type.TEXT)
+                            .doOnNext(message -> onFrame(message.getPayloadAsText()))
+                            .then();
+                    return Mono.zip(input, output).then();
+                })
+                .doFinally(signal -> open = false)
+                .subscribe(null, error -> {
+                    stats.recordError();
+                    connected.tryEmitError(error);
+                });
+        return connected.asMono();
+    }
+
+    public void sendChat() {
+        if (!open) {
+            return;
+        }
+        stats.recordSent();
+        long sentAt = System.nanoTime();
+        send(WebSocketMessage.builder()
+                .type(MessageType.CHAT)
+                .chatRoomId(chatRoomId)
+                .senderId(String.valueOf(userId))
+                .senderName("lt-" + userId)
+                .content(PAYLOAD_PREFIX + sentAt)
+                .clientMessageId(userId + ":" + sentAt)
+                .build());
+    }
+
+    public void close() {
+        outbound.tryEmitComplete();
+        Disposable current = connection;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    private void send(WebSocketMessage message) {
+        try {
+            outbound.emitNext(objectMapper.writeValueAsString(message),
+                    Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        } catch (Exception e) {
+            stats.recordError();
+        }
+    }
+
+    private void onFrame(String payload) {
+        long receivedAt = System.nanoTime();
+        WebSocketMessage message;
+        try {
+            message = objectMapper.readValue(payload, WebSocketMessage.class);
+        } catch (Exception e) {
+            stats.recordError();
+            return;
+        }
+
+        if (message.getType() == MessageType.BATCH) {
+            if (message.getMessages() != null) {
+                message.getMessages().forEach(batched -> onMessage(batched, receivedAt));
+            }
+            return;
+        }
+        onMessage(message, receivedAt);
+    }
+
+    private void onMessage(WebSocketMessage message, long receivedAt) {
+        if (message.getType() == MessageType.ERROR) {
+            stats.recordError();
+            log.debug("Server error frame: userId={}, message={}", userId, message.getMessage());
+            return;
+        }
+        if (message.getType() == MessageType.ACK) {
+            if (message.getStatus() == AckStatus.PERSISTED && message.getClientMessageId() != null) {
+                String clientMessageId = message.getClientMessageId();
+                long sentAt = Long.parseLong(clientMessageId.substring(clientMessageId.indexOf(':') + 1));
+                stats.recordPersisted(receivedAt - sentAt);
+            } else if (message.getStatus() == AckStatus.FAILED) {
+                stats.recordError();
+            }
+            return;
+        }
+        if (message.getType() != MessageType.CHAT || message.getContent() == null
+                || !message.getContent().startsWith(PAYLOAD_PREFIX)) {
+            return;
+        }
+
+        long sentAt = Long.parseLong(message.getContent().substring(PAYLOAD_PREFIX.length()));
+        if (String.valueOf(userId).equals(message.getSenderId())) {
+            stats.recordEcho(receivedAt - sentAt);
+        } else if (message.getId() != null && !receivedIds.add(message.getId())) {
+            stats.recordDuplicate();
+        } else {
+            stats.recordDelivered(receivedAt - sentAt);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.chat.loadtest;
+
+import com.example.chat.controller.ChatController.CreateChatRoomRequest;
+import com.example.chat.controller.ChatController.CreateGroupRoomRequest;
+import com.example.chat.model.RoomCreationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 채팅방 생성 → 연결 램프업 → SUBSCRIBE → CHAT 트래픽 → 리포트
+ *
+ * 연속된 roomSize 개 연결이 채팅방 하나를 공유한다 (2 면 1:1, 그 이상이면 그룹 채팅방).
+ * 노드가 여러 개면 참여자를 노드에 돌아가며 붙인다 (1:1 이면 모든 전달이 노드 간 경로를 탐).
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final long USER_ID_BASE = 900_000_000L;
+
+    private final LoadTestOptions options;
+    private final List<String> httpBases;
+    private final TestTokenFactory tokenFactory;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats = new LatencyStats();
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    public LoadGenerator(LoadTestOptions options, List<String> httpBases, ObjectMapper objectMapper) {
+        this.options = options;
+        this.httpBases = httpBases;
+        this.tokenFactory = new TestTokenFactory(options.getJwtSecret());
+        this.objectMapper = objectMapper;
+    }
+
+    public LoadReport run() {
+        int rooms = options.getRooms();
+        int roomSize = options.getRoomSize();
+        log.info("Load test {}: {} connections, {} rooms of {}, {} msg/s per room, {} node(s)",
+                runId, rooms * roomSize, rooms, roomSize, options.getMessagesPerSecondPerRoom(), httpBases.size());
+
+        createRooms(rooms);
+
+        // 핸드셰이크마다 새 TCP 연결 (기본 커넥션 풀 크기에 막히지 않도록)
+        WebSocketClient wsClient = new ReactorNettyWebSocketClient(
+                HttpClient.create(ConnectionProvider.newConnection()),
+                () -> WebsocketClientSpec.builder().compress(options.isCompress()));
+        List<LoadClient> clients = new ArrayList<>(rooms * roomSize);
+        for (int room = 0; room < rooms; room++) {
+            for (int member = 0; member < roomSize; member++) {
+                long userId = userId(room, member);
+                clients.add(new LoadClient(userId, roomId(room), wsUri(userId, member), wsClient, objectMapper, stats));
+            }
+        }
+
+        long connectStart = System.nanoTime();
+        Long connected = Flux.fromIterable(clients)
+                .flatMap(client -> client.connect().thenReturn(1L).onErrorReturn(0L),
+                        options.getConnectConcurrency())
+                .reduce(0L, Long::sum)
+                .block();
+        Duration connectTime = Duration.ofNanos(System.nanoTime() - connectStart);
+        log.info("Connected {}/{} sessions in {} ms", connected, clients.size(), connectTime.toMillis());
+
+        // 참여자들이 나눠 보내므로 사용자당 주기는 방 주기의 roomSize 배
+        Duration period = Duration.ofNanos((long) (roomSize * 1_000_000_000L / options.getMessagesPerSecondPerRoom()));
+        List<Disposable> tickers = new ArrayList<>(clients.size());
+        for (LoadClient client : clients) {
+            Duration jitter = Duration.ofNanos(ThreadLocalRandom.current().nextLong(period.toNanos()));
+            tickers.add(Flux.interval(jitter, period).subscribe(tick -> client.sendChat()));
+        }
+
+        sleep(options.getWarmup());
+        stats.startMeasuring();
+        long measureStart = System.nanoTime();
+        sleep(options.getDuration());
+
+        tickers.forEach(Disposable::dispose);
+        sleep(options.getDrain());
+        stats.stopMeasuring();
+        Duration measured = Duration.ofNanos(System.nanoTime() - measureStart);
+
+        long open = clients.stream().filter(LoadClient::isOpen).count();
+        clients.forEach(LoadClient::close);
+
+        return LoadReport.of(clients.size(), connected == null ? 0 : connected, open,
+                connectTime, options.getDuration(), measured, roomSize - 1, stats);
+    }
+
+    // 매칭 작업과 같은 방식으로 일괄 생성 엔드포인트 한 번에 요청
+    private void createRooms(int rooms) {
+        WebClient webClient = WebClient.create(httpBases.get(0));
+        if (options.getRoomSize() > 2) {
+            createGroupRooms(webClient, rooms);
+            return;
+        }
+        long start = System.nanoTime();
+        Flux<CreateChatRoomRequest> requests = Flux.range(0, rooms)
+                .map(room -> new CreateChatRoomRequest(roomId(room),
+                        String.valueOf(userId(room, 0)),
+                        String.valueOf(userId(room, 1)),
+                        (long) room,
+                        "LOAD_TEST"));
+
+        Map<RoomCreationResult.Status, Long> results = webClient.post()
+                .uri("/api/chat/rooms/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(requests, CreateChatRoomRequest.class)
+                .retrieve()
+                .bodyToFlux(RoomCreationResult.class)
+                .collect(Collectors.groupingBy(RoomCreationResult::getStatus, Collectors.counting()))
+                .block();
+
+        log.info("Created {} rooms in {} ms: {}",
+                rooms, Duration.ofNanos(System.nanoTime() - start).toMillis(), results);
+    }
+
+    // 그룹 채팅방은 채팅방마다 생성 요청 (참여자 목록 포함)
+    private void createGroupRooms(WebClient webClient, int rooms) {
+        long start = System.nanoTime();
+        Long created = Flux.range(0, rooms)
+                .flatMap(room -> webClient.post()
+                        .uri("/api/chat/rooms/groups")
+                        .bodyValue(new CreateGroupRoomRequest(roomId(room), "load test " + room,
+                                IntStream.range(0, options.getRoomSize())
+                                        .mapToObj(member -> String.valueOf(userId(room, member)))
+                                        .toList(),
+                                "LOAD_TEST"))
+                        .retrieve()
+                        .toBodilessEntity()
+                        .thenReturn(1L), 16)
+                .reduce(0L, Long::sum)
+                .block();
+
+        log.info("Created {}/{} group rooms of {} in {} ms",
+                created, rooms, options.getRoomSize(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private String roomId(int room) {
+        return "lt-" + runId + "-" + room;
+    }
+
+    private long userId(int room, int member) {
+        return USER_ID_BASE + (long) room * options.getRoomSize() + member;
+    }
+
+    private URI wsUri(long userId, int member) {
+        String wsBase = httpBases.get(member % httpBases.size()).replaceFirst("^http", "ws");
+        return URI.create(wsBase + "/ws?accessToken=" + tokenFactory.accessToken(userId)
+                + (options.isBatch() ? "&batch=true" : ""));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.chat.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * 부하 테스트 결과 (연결 수, 처리량, 지연시간 퍼센타일)
+ */
+public record LoadReport(
+        int attempted,
+        long connected,
+        long openAtEnd,
+        Duration connectTime,
+        long sent,
+        long delivered,
+        long echoed,
+        long persisted,
+        long duplicates,
+        long errors,
+        int recipientsPerMessage,  // 메시지 하나를 받아야 하는 참여자 수 (채팅방 인원 - 1)
+        double sendRate,
+        double deliveryRate,
+        Histogram deliveryLatency,
+        Histogram echoLatency,
+        Histogram persistedLatency
+) {
+
+    static LoadReport of(int attempted, long connected, long openAtEnd, Duration connectTime,
+                         Duration sendWindow, Duration measured, int recipientsPerMessage, LatencyStats stats) {
+        double sendSeconds = sendWindow.toNanos() / 1e9;
+        double measuredSeconds = measured.toNanos() / 1e9;
+        return new LoadReport(attempted, connected, openAtEnd, connectTime,
+                stats.sent(), stats.delivered(), stats.echoed(), stats.persisted(), stats.duplicates(), stats.errors(),
+                recipientsPerMessage,
+                stats.sent() / sendSeconds,
+                stats.delivered() / measuredSeconds,
+                stats.deliveryLatency().copy(),
+                stats.echoLatency().copy(),
+                stats.persistedLatency().copy());
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('\n');
+        sb.append("==================== WebSocket Load Test ====================\n");
+        sb.append(String.format("connections   : %d/%d connected (%d open at end), ramp %d ms%n",
+                connected, attempted, openAtEnd, connectTime.toMillis()));
+        sb.append(String.format("messages      : sent=%d delivered=%d duplicates=%d echoed=%d persisted=%d errors=%d (delivery %.2f%%)%n",
+                sent, delivered, duplicates, echoed, persisted, errors, sent == 0 ? 0.0 : delivered * 100.0 / (sent * recipientsPerMessage)));
+        sb.append(String.format("throughput    : send %.1f msg/s, delivery %.1f msg/s%n", sendRate, deliveryRate));
+        sb.append(latencyLine("send->receive", deliveryLatency));
+        sb.append(latencyLine("send->echo", echoLatency));
+        sb.append(latencyLine("send->durable", persistedLatency));
+        sb.append("=============================================================\n");
+        return sb.toString();
+    }
+
+    private static String latencyLine(String label, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return String.format("%-14s: no samples%n", label);
+        }
+        return String.format("%-14s: p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms (n=%d)%n",
+                label,
+                millis(histogram.getValueAtPercentile(50.0)),
+                millis(histogram.getValueAtPercentile(99.0)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                histogram.getTotalCount());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
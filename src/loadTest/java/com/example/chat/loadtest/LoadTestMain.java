@@ -0,0 +1,193 @@
+package com.example.chat.loadtest;
+
+import com.example.chat.DemoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.search.Search;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 부하 테스트 진입점
+ *
+ * 임베디드 모드: MongoDB/Redis 프로세스 + 채팅 서버를 같은 머신에서 띄우고 부하를 건다.
+ * 외부 모드:    -Dloadtest.target=http://host:8080 -Dloadtest.jwtSecret=... 로 이미 떠 있는 노드에 부하를 건다.
+ * -Dloadtest.nodes=2 (임베디드) 또는 target 을 쉼표로 여러 개 주면 채팅방 두 참여자가 서로 다른 노드에 붙는다.
+ */
+@Slf4j
+public class LoadTestMain {
+
+    private static final String SERVER_PROPERTY_PREFIX = "loadtest.server.";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        LoadReport report;
+        if (options.isEmbedded()) {
+            List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+            try (EmbeddedInfrastructure infra = EmbeddedInfrastructure.start()) {
+                for (int node = 0; node < options.getNodes(); node++) {
+                    nodes.add(startServer(infra, options, node));
+                }
+                List<String> httpBases = nodes.stream()
+                        .map(context -> "http://localhost:" + context.getEnvironment().getProperty("local.server.port"))
+                        .toList();
+                long started = System.nanoTime();
+                report = new LoadGenerator(options, httpBases, objectMapper).run();
+                double seconds = (System.nanoTime() - started) / 1e9;
+                if (options.isCompress()) {
+                    log.info(compressionSummary(nodes.get(0).getBean(MeterRegistry.class)));
+                }
+                log.info(outboundSummary(nodes.get(0).getBean(MeterRegistry.class)));
+                log.info(publishSummary(nodes.get(0).getBean(MeterRegistry.class), seconds));
+                if (nodes.size() > 1) {
+                    log.info(remoteDeliverySummary(nodes));
+                }
+            } finally {
+                nodes.forEach(ConfigurableApplicationContext::close);
+            }
+        } else {
+            report = new LoadGenerator(options, options.getTargets(), objectMapper).run();
+        }
+
+        log.info(report.format());
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startServer(EmbeddedInfrastructure infra, LoadTestOptions options,
+                                                              int node) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.data.mongodb.uri", infra.mongoUri());
+        properties.put("spring.data.redis.host", infra.redisHost());
+        properties.put("spring.data.redis.port", infra.redisPort());
+        // embedded-redis 가 끌고 오는 commons-pool2 때문에 Lettuce 풀링이 켜지지 않도록 (운영 클래스패스와 동일하게)
+        properties.put("spring.data.redis.lettuce.pool.enabled", false);
+
+        // -Dloadtest.server.<key>=<value> 는 서버 프로퍼티로 전달 (예: loadtest.server.chat.inbound.chat.session-rate=100)
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(SERVER_PROPERTY_PREFIX))
+                .forEach(name -> properties.put(name.substring(SERVER_PROPERTY_PREFIX.length()),
+                        System.getProperty(name)));
+        properties.put("spring.jwt.secret", options.getJwtSecret());
+        properties.put("chat.delivery.change-stream.node-id", "loadtest-node-" + node);
+
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * 서버 송신 프레임 요약 (chat.ws.outbound.* - 메시지당 프레임 수가 작을수록 많이 묶임)
+     */
+    private static String outboundSummary(MeterRegistry registry) {
+        double messages = Search.in(registry).name("chat.ws.outbound.messages")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        double single = Search.in(registry).name("chat.ws.outbound.frames").tag("type", "single")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        double batch = Search.in(registry).name("chat.ws.outbound.frames").tag("type", "batch")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        DistributionSummary size = registry.find("chat.ws.outbound.batch").summary();
+        return String.format("ws outbound   : messages=%.0f frames=%.0f (single=%.0f batch=%.0f), "
+                        + "frames/message=%.3f, batch mean=%.1f max=%.0f",
+                messages, single + batch, single, batch, messages == 0 ? 0 : (single + batch) / messages,
+                size == null ? 0 : size.mean(), size == null ? 0 : size.max());
+    }
+
+    /**
+     * Redis 발행 묶음 지표 요약 (chat.redis.publish.* - 첫 번째 노드, 파티션별 발행/수신 처리량 포함)
+     */
+    private static String publishSummary(MeterRegistry registry, double seconds) {
+        List<DistributionSummary> batches = new ArrayList<>(Search.in(registry).name("chat.redis.publish.batch").summaries());
+        long flushes = batches.stream().mapToLong(DistributionSummary::count).sum();
+        if (flushes == 0) {
+            return "redis publish : no batched publishes";
+        }
+        double commands = batches.stream().mapToDouble(DistributionSummary::totalAmount).sum();
+        double maxBatch = batches.stream().mapToDouble(DistributionSummary::max).max().orElse(0);
+        Collection<Timer> queues = Search.in(registry).name("chat.redis.publish.queue").timers();
+        double queueMean = queues.stream().mapToDouble(t -> t.totalTime(TimeUnit.MILLISECONDS)).sum()
+                / Math.max(1, queues.stream().mapToLong(Timer::count).sum());
+        double queueMax = queues.stream().mapToDouble(t -> t.max(TimeUnit.MILLISECONDS)).max().orElse(0);
+
+        StringBuilder summary = new StringBuilder(String.format("redis publish : flushes=%d commands=%.0f, "
+                        + "batch mean=%.1f max=%.0f, queue delay mean=%.3f ms max=%.3f ms",
+                flushes, commands, commands / flushes, maxBatch, queueMean, queueMax));
+        if (batches.size() > 1) {
+            batches.sort(Comparator.comparing(batch -> Integer.parseInt(batch.getId().getTag("partition"))));
+            for (DistributionSummary batch : batches) {
+                String partition = batch.getId().getTag("partition");
+                Counter received = registry.find("chat.redis.pubsub.received").tag("partition", partition).counter();
+                double in = received == null ? 0 : received.count();
+                summary.append(String.format("%n  partition %s: published=%.0f (%.1f/s, %.1f%%) batch mean=%.1f, "
+                                + "received=%.0f (%.1f/s)",
+                        partition, batch.totalAmount(), batch.totalAmount() / seconds,
+                        batch.totalAmount() * 100 / commands, batch.mean(), in, in / seconds));
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * 노드 간 전달 지연 요약 (chat.delivery.remote.lag - 수신 노드 기준, 전달 경로별)
+     */
+    private static String remoteDeliverySummary(List<ConfigurableApplicationContext> nodes) {
+        StringBuilder summary = new StringBuilder("remote delivery (receipt on sender node -> arrival on receiver node):");
+        for (int node = 0; node < nodes.size(); node++) {
+            for (Timer timer : Search.in(nodes.get(node).getBean(MeterRegistry.class))
+                    .name("chat.delivery.remote.lag").timers()) {
+                if (timer.count() == 0) {
+                    continue;
+                }
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                summary.append(String.format("%n  node %d %-13s: count=%d mean=%.2f ms", node,
+                        timer.getId().getTag("path"), timer.count(), timer.mean(TimeUnit.MILLISECONDS)));
+                for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                    summary.append(String.format(" p%s=%.2f ms",
+                            String.format("%.1f", percentile.percentile() * 100).replace(".0", ""),
+                            percentile.value(TimeUnit.MILLISECONDS)));
+                }
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * 서버 측 압축 지표 요약 (chat.ws.compression.*)
+     */
+    private static String compressionSummary(MeterRegistry registry) {
+        double compressed = Search.in(registry).name("chat.ws.compression.frames").tag("result", "compressed")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        double skipped = Search.in(registry).name("chat.ws.compression.frames").tag("result", "skipped")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        double raw = Search.in(registry).name("chat.ws.compression.bytes").tag("stage", "raw")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        double out = Search.in(registry).name("chat.ws.compression.bytes").tag("stage", "compressed")
+                .counters().stream().mapToDouble(c -> c.count()).sum();
+        var time = registry.find("chat.ws.compression.time").timer();
+        return String.format("compression   : frames compressed=%.0f skipped=%.0f, bytes %.0f -> %.0f (ratio %.2f), "
+                        + "mean %.1f us/frame",
+                compressed, skipped, raw, out, raw == 0 ? 0 : out / raw,
+                time == null ? 0 : time.mean(TimeUnit.MICROSECONDS));
+    }
+}
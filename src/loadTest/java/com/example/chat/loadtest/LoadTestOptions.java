@@ -0,0 +1,81 @@
+package com.example.chat.loadtest;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 부하 테스트 설정
+ *
+ * 모든 값은 -Dloadtest.* 시스템 프로퍼티로 덮어쓸 수 있다.
+ * target 이 비어 있으면 임베디드 MongoDB/Redis + 애플리케이션을 같은 JVM에서 띄운다.
+ */
+@Value
+@Builder
+public class LoadTestOptions {
+
+    // 외부 서버 주소 (예: http://10.0.0.5:8080, 쉼표로 여러 노드), 비어 있으면 임베디드 모드
+    String target;
+
+    // 임베디드 모드에서 띄울 서버 노드 수 (2 이상이면 채팅방 두 참여자를 서로 다른 노드에 붙여 노드 간 전달 경로 측정)
+    int nodes;
+
+    // 서버와 동일한 spring.jwt.secret (테스트 토큰 서명용)
+    String jwtSecret;
+
+    // 전체 WebSocket 연결 수 (2명씩 1:1 채팅방으로 묶임)
+    int connections;
+
+    // 채팅방 인원 (2: 1:1 채팅방, 3 이상: 그룹 채팅방)
+    int roomSize;
+
+    // 채팅방당 초당 메시지 수 (참여자들이 번갈아 전송)
+    double messagesPerSecondPerRoom;
+
+    // 동시에 진행할 핸드셰이크 수
+    int connectConcurrency;
+
+    // permessage-deflate 압축 제안 (서버 chat.websocket.compression.enabled 와 함께 사용)
+    boolean compress;
+
+    // BATCH 프레임 수신 선언 (핸드셰이크 쿼리 batch=true)
+    boolean batch;
+
+    Duration warmup;
+    Duration duration;
+    Duration drain;
+
+    public boolean isEmbedded() {
+        return target == null || target.isBlank();
+    }
+
+    public List<String> getTargets() {
+        return Arrays.stream(target.split(",")).map(String::trim).filter(t -> !t.isEmpty()).toList();
+    }
+
+    public int getRooms() {
+        return connections / roomSize;
+    }
+
+    public static LoadTestOptions fromSystemProperties() {
+        return LoadTestOptions.builder()
+                .target(System.getProperty("loadtest.target", ""))
+                .nodes(Integer.getInteger("loadtest.nodes", 1))
+                .jwtSecret(System.getProperty("loadtest.jwtSecret",
+                        "load-test-secret-key-which-is-long-enough-for-hs256"))
+                .connections(Integer.getInteger("loadtest.connections", 2000))
+                .roomSize(Math.max(2, Integer.getInteger("loadtest.roomSize", 2)))
+                .messagesPerSecondPerRoom(Double.parseDouble(
+                        System.getProperty("loadtest.messagesPerSecondPerRoom", "1.0")))
+                .connectConcurrency(Integer.getInteger("loadtest.connectConcurrency", 200))
+                .compress(Boolean.getBoolean("loadtest.compress"))
+                .batch(Boolean.getBoolean("loadtest.batch"))
+                .warmup(Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5L)))
+                .duration(Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 30L)))
+                .drain(Duration.ofSeconds(Long.getLong("loadtest.drainSeconds", 3L)))
+                .build();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.chat.loadtest;
+
+import com.example.chat.config.ArchiveProperties;
+import com.example.chat.config.MessageStorageProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.MessageBucket;
+import com.example.chat.model.MessageType;
+import com.example.chat.repository.BucketMessageStore;
+import com.example.chat.repository.ChatMessageRepository;
+import com.example.chat.repository.DocumentMessageStore;
+import com.example.chat.repository.MessageArchive;
+import com.example.chat.repository.MessageStore;
+import com.example.chat.service.MessageArchiveJob;
+import com.example.chat.service.MessageBucketMigration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 메시지 저장 방식 비교 (document vs bucket): 쓰기/읽기 지연, 이관 시간, 컬렉션/인덱스 크기
+ * 외부 MongoDB 로 실행하면 채팅방 안 텍스트 검색 지연도 잰다 (-Dbench.rooms=1 이면 한 채팅방에 전부).
+ * 마지막에 문서 방식 메시지를 로컬 세그먼트로 보관하고 보관본 읽기 지연도 잰다.
+ *
+ * 실행: ./gradlew storageBenchmark -Dbench.mongoUri=mongodb://localhost:27017/chat_bench -Dbench.messages=200000
+ * mongoUri 가 없으면 in-memory 서버로 돌리며, 이 경우 크기 지표(collStats)는 의미가 없다.
+ */
+@Slf4j
+public class StorageBenchmark {
+
+    private static final int MESSAGES = Integer.getInteger("bench.messages", 100_000);
+    private static final int ROOMS = Integer.getInteger("bench.rooms", 500);
+    private static final int READS = Integer.getInteger("bench.reads", 5_000);
+    private static final int PAGE_SIZE = Integer.getInteger("bench.pageSize", 50);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 64);
+
+    // 같은 채팅방 안에서 메시지 사이 간격 (버킷이 개수/시간 중 무엇으로 잘리는지에 영향)
+    private static final Duration MESSAGE_GAP = Duration.ofSeconds(Long.getLong("bench.messageGapSeconds", 5L));
+
+    public static void main(String[] args) {
+        String mongoUri = System.getProperty("bench.mongoUri", "");
+        MongoServer embedded = null;
+        if (mongoUri.isBlank()) {
+            embedded = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = embedded.bind();
+            mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/chat_bench";
+            log.warn("bench.mongoUri not set, using in-memory MongoDB (collStats sizes are not meaningful)");
+        }
+
+        try (MongoClient client = MongoClients.create(mongoUri)) {
+            String database = mongoUri.substring(mongoUri.lastIndexOf('/') + 1);
+            ReactiveMongoTemplate template = new ReactiveMongoTemplate(client, database.isBlank() ? "chat_bench" : database);
+            new StorageBenchmark(template, embedded == null).run();
+        } finally {
+            if (embedded != null) {
+                embedded.shutdownNow();
+            }
+        }
+        System.exit(0);
+    }
+
+    private final ReactiveMongoTemplate template;
+    private final MessageStorageProperties properties = new MessageStorageProperties();
+
+    private final boolean textSearch;  // in-memory 서버는 $text 미지원
+
+    private StorageBenchmark(ReactiveMongoTemplate template, boolean textSearch) {
+        this.template = template;
+        this.textSearch = textSearch;
+    }
+
+    private void run() {
+        template.dropCollection(ChatMessage.class).block();
+        template.dropCollection(MessageBucket.class).block();
+        ensureIndexes(ChatMessage.class);
+        ensureIndexes(MessageBucket.class);
+
+        Instant base = Instant.now().minus(MESSAGE_GAP.multipliedBy((long) MESSAGES / ROOMS + 1));
+        StringBuilder report = new StringBuilder("\n==================== Message Storage Benchmark ====================\n");
+        report.append(String.format("messages=%d rooms=%d reads=%d (page %d) concurrency=%d bucket=%d msgs/%s%n",
+                MESSAGES, ROOMS, READS, PAGE_SIZE, CONCURRENCY,
+                properties.getBucket().getMaxMessages(), properties.getBucket().getMaxSpan()));
+
+        // 1) 문서 방식 쓰기/읽기
+        MessageStore documents = new DocumentMessageStore(
+                new ReactiveMongoRepositoryFactory(template).getRepository(ChatMessageRepository.class), template);
+        report.append(measureWrites("document", documents, base));
+        report.append(measureReads("document", documents));
+        report.append(collectionStats("messages"));
+        if (textSearch) {
+            report.append(measureSearches("document", documents));
+        }
+
+        // 2) 기존 messages → 버킷 이관
+        long start = System.nanoTime();
+        Long migrated = new MessageBucketMigration(template, properties).migrate().block();
+        report.append(String.format("%-9s migrate : %d messages in %d ms%n", "bucket", migrated,
+                Duration.ofNanos(System.nanoTime() - start).toMillis()));
+        MessageStore buckets = new BucketMessageStore(template, properties);
+        report.append(measureReads("bucket*", buckets));
+
+        // 3) 버킷 방식 쓰기 (이관 데이터 지우고 새로)
+        template.remove(new Query(), MessageBucket.class).block();
+        report.append(measureWrites("bucket", buckets, base));
+        report.append(measureReads("bucket", buckets));
+        report.append(collectionStats("message_buckets"));
+        if (textSearch) {
+            report.append(measureSearches("bucket", buckets));
+        }
+
+        // 4) 문서 방식 메시지를 전부 로컬 세그먼트로 보관 후 읽기
+        report.append(measureArchive(documents));
+        report.append("(bucket* = reads on migrated buckets)\n");
+        report.append("===================================================================\n");
+
+        log.info(report.toString());
+    }
+
+    private String measureWrites(String label, MessageStore store, Instant base) {
+        Histogram latency = new ConcurrentHistogram(3);
+        long start = System.nanoTime();
+        Flux.range(0, MESSAGES)
+                .flatMap(i -> timed(latency, () -> store.insert(message(i, base))), CONCURRENCY)
+                .blockLast();
+        return line(label, "write", latency, System.nanoTime() - start);
+    }
+
+    private String measureReads(String label, MessageStore store) {
+        return measureReads(label, room -> store.findLatest(room, null, PAGE_SIZE));
+    }
+
+    private String measureReads(String label, Function<String, Flux<ChatMessage>> latest) {
+        Histogram latency = new ConcurrentHistogram(3);
+        long start = System.nanoTime();
+        Flux.range(0, READS)
+                .flatMap(i -> timed(latency, () -> latest
+                        .apply(roomId(ThreadLocalRandom.current().nextInt(ROOMS)))
+                        .count()), CONCURRENCY)
+                .blockLast();
+        return line(label, "read", latency, System.nanoTime() - start);
+    }
+
+    // 메시지마다 고유한 번호 + 공통 단어로 검색 (번호가 맞는 메시지가 관련도 1위)
+    private String measureSearches(String label, MessageStore store) {
+        Histogram latency = new ConcurrentHistogram(3);
+        long start = System.nanoTime();
+        Flux.range(0, READS)
+                .flatMap(i -> timed(latency, () -> {
+                    int message = ThreadLocalRandom.current().nextInt(MESSAGES);
+                    return store.search(roomId(message % ROOMS), "lorem " + message, PAGE_SIZE).count();
+                }), CONCURRENCY)
+                .blockLast();
+        return line(label, "search", latency, System.nanoTime() - start);
+    }
+
+    private String measureArchive(MessageStore store) {
+        ArchiveProperties archiveProperties = new ArchiveProperties();
+        archiveProperties.setOlderThan(Duration.ZERO);
+        try {
+            archiveProperties.setDirectory(Files.createTempDirectory("chat-archive-bench").toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        MessageArchive archive = new MessageArchive(archiveProperties, new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        long start = System.nanoTime();
+        Long deleted = new MessageArchiveJob(store, archive, archiveProperties).archive().block();
+        String result = String.format("%-9s archive : %d messages in %d ms, %s on disk%n", "archive", deleted,
+                Duration.ofNanos(System.nanoTime() - start).toMillis(), bytes(directorySize(archiveProperties.getDirectory())));
+
+        return result + measureReads("archive", room -> archive.findLatest(room, null, PAGE_SIZE));
+    }
+
+    private static long directorySize(String directory) {
+        try (Stream<Path> files = Files.walk(Path.of(directory))) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> Mono<T> timed(Histogram latency, Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return operation.get().doOnSuccess(result -> latency.recordValue(System.nanoTime() - start));
+        });
+    }
+
+    private static String line(String label, String operation, Histogram latency, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        return String.format("%-9s %-7s : %.0f ops/s, p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                label, operation, latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50.0) / 1e6,
+                latency.getValueAtPercentile(99.0) / 1e6,
+                latency.getMaxValue() / 1e6);
+    }
+
+    private String collectionStats(String collection) {
+        try {
+            Document stats = template.executeCommand(new Document("collStats", collection)).block();
+            return String.format("%-9s size    : docs=%s data=%s storage=%s indexes=%s (%s)%n",
+                    collection, stats.get("count"), bytes(stats.get("size")), bytes(stats.get("storageSize")),
+                    bytes(stats.get("totalIndexSize")), stats.get("nindexes"));
+        } catch (Exception e) {
+            return String.format("%-9s size    : n/a (%s)%n", collection, e.getMessage());
+        }
+    }
+
+    private void ensureIndexes(Class<?> type) {
+        new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext())
+                .resolveIndexFor(type)
+                .forEach(index -> template.indexOps(type).ensureIndex(index).block());
+    }
+
+    private static ChatMessage message(int i, Instant base) {
+        int room = i % ROOMS;
+        long seq = i / ROOMS + 1;
+        return ChatMessage.builder()
+                .id(new ObjectId().toHexString())
+                .clientMessageId("bench-" + i)
+                .chatRoomId(roomId(room))
+                .seq(seq)
+                .senderId(String.valueOf(room * 2 + (int) (seq % 2)))
+                .type(MessageType.CHAT)
+                .content("benchmark message " + i + " - lorem ipsum dolor sit amet")
+                .timestamp(base.plus(MESSAGE_GAP.multipliedBy(seq)))
+                .deleted(false)
+                .build();
+    }
+
+    private static String roomId(int room) {
+        return "bench-room-" + room;
+    }
+
+    private static String bytes(Object value) {
+        if (!(value instanceof Number number)) {
+            return String.valueOf(value);
+        }
+        return String.format("%.1f MB", number.doubleValue() / (1024 * 1024));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.chat.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * 테스트용 accessToken 발급 (JWTUtil.validateToken 이 요구하는 클레임 그대로)
+ */
+public class TestTokenFactory {
+
+    private final SecretKey secretKey;
+
+    public TestTokenFactory(String secret) {
+        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String accessToken(long userId) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .claim("userId", userId)
+                .claim("email", "loadtest-" + userId + "@example.com")
+                .claim("role", "USER")
+                .claim("category", "accessToken")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofHours(6))))
+                .signWith(secretKey)
+                .compact();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 오래된 메시지 보관 설정 (chat.archive.*)
+ *
+ * 예) chat.archive.enabled=true, chat.archive.older-than=90d, chat.archive.cron=0 30 4 * * *
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.archive")
+public class ArchiveProperties {
+
+    // 보관 작업 실행 여부 (읽기는 설정과 관계없이 디렉터리에 세그먼트가 있으면 사용)
+    private boolean enabled = false;
+
+    // 세그먼트 파일을 둘 디렉터리 (채팅방별 하위 디렉터리)
+    private String directory = "./data/archive";
+
+    // 이 시간보다 오래된 메시지를 Mongo 에서 세그먼트로 옮김
+    private Duration olderThan = Duration.ofDays(90);
+
+    // 압축 블록 하나에 담을 메시지 수 (희소 인덱스 항목 1개 = 블록 1개)
+    private int blockMessages = 128;
+
+    // 동시에 보관할 채팅방 수
+    private int concurrency = 2;
+
+    // 세그먼트 목록(과 매핑)을 들고 있을 최근 읽은 채팅방 수 (넘으면 가장 오래 안 읽은 채팅방부터 해제)
+    private int cachedRooms = 1_000;
+}
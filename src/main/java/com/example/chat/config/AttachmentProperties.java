@@ -0,0 +1,34 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * 첨부 파일 저장 설정 (chat.attachment.*)
+ *
+ * 예) chat.attachment.directory=/var/lib/chat/attachments, chat.attachment.max-size=50MB
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.attachment")
+public class AttachmentProperties {
+
+    // 내용 해시 기반 파일 저장 디렉터리
+    private String directory = "./data/attachments";
+
+    // 업로드 최대 크기 (초과 시 413)
+    private DataSize maxSize = DataSize.ofMegabytes(25);
+
+    // CHAT 메시지 하나에 붙일 수 있는 최대 첨부 수
+    private int maxPerMessage = 10;
+
+    // 업로드한 Content-Type 을 그대로 저장/응답할 형식 (그 외는 application/octet-stream)
+    // text/html, image/svg+xml 처럼 브라우저가 스크립트를 실행할 수 있는 형식은 넣지 않는다
+    private List<String> allowedContentTypes = List.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp",
+            "video/mp4", "audio/mpeg", "audio/mp4", "application/pdf");
+}
@@ -0,0 +1,118 @@
+package com.example.chat.config;
+
+import com.example.chat.handler.CompressionMetrics;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.socket.HandshakeInfo;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.NettyPipeline;
+import reactor.netty.http.server.HttpServerRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * permessage-deflate 를 크기 기준으로 적용하는 업그레이드 전략
+ *
+ * Reactor Netty 의 compress(true) 는 모든 프레임을 압축하므로,
+ * 같은 확장 핸들러를 직접 설치하되 threshold 미만 프레임은 건너뛰게 한다.
+ */
+@Slf4j
+public class CompressingUpgradeStrategy extends ReactorNettyRequestUpgradeStrategy {
+
+    private static final String COMPRESSION_HANDLER = "chat.wsCompressionHandler";
+
+    private final WebSocketCompressionProperties properties;
+    private final CompressionMetrics compressionMetrics;
+    private final WebSocketExtensionFilterProvider filterProvider;
+
+    public CompressingUpgradeStrategy(WebSocketCompressionProperties properties,
+                                      CompressionMetrics compressionMetrics) {
+        this.properties = properties;
+        this.compressionMetrics = compressionMetrics;
+
+        int threshold = properties.getThreshold();
+        WebSocketExtensionFilter encoderFilter = frame -> frame.content().readableBytes() < threshold;
+        this.filterProvider = new WebSocketExtensionFilterProvider() {
+            @Override
+            public WebSocketExtensionFilter encoderFilter() {
+                return encoderFilter;
+            }
+
+            @Override
+            public WebSocketExtensionFilter decoderFilter() {
+                return WebSocketExtensionFilter.NEVER_SKIP;
+            }
+        };
+    }
+
+    @Override
+    public Mono<Void> upgrade(ServerWebExchange exchange, WebSocketHandler handler,
+                              @Nullable String subProtocol, Supplier<HandshakeInfo> handshakeInfoFactory) {
+        HttpServerRequest request = ServerHttpRequestDecorator.getNativeRequest(exchange.getRequest());
+        Channel channel = ((Connection) request).channel();
+
+        installExtensionHandler(channel, request);
+        return super.upgrade(exchange, handler, subProtocol, handshakeInfoFactory);
+    }
+
+    /**
+     * 업그레이드 요청의 Sec-WebSocket-Extensions 를 읽고, 101 응답에 협상 결과를 붙일 핸들러 설치
+     */
+    private void installExtensionHandler(Channel channel, HttpServerRequest request) {
+        ChannelPipeline pipeline = channel.pipeline();
+        String codecName = pipeline.get(NettyPipeline.HttpCodec) != null
+                ? NettyPipeline.HttpCodec
+                : contextName(pipeline);
+        if (codecName == null) {
+            return;
+        }
+
+        WebSocketServerExtensionHandler extensionHandler = new WebSocketServerExtensionHandler(
+                new PerMessageDeflateServerExtensionHandshaker(properties.getLevel(), false,
+                        PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE, false, false, filterProvider)) {
+            @Override
+            protected void onHttpResponseWrite(ChannelHandlerContext ctx, HttpResponse response,
+                                               ChannelPromise promise) throws Exception {
+                super.onHttpResponseWrite(ctx, response, promise);
+                // 101 응답 전송 후 인코더가 설치되고 나면 그 양쪽에 지표 핸들러 설치
+                promise.addListener(future -> {
+                    if (future.isSuccess()) {
+                        compressionMetrics.instrument(ctx.channel());
+                    }
+                });
+            }
+        };
+        try {
+            // Reactor Netty 와 같은 방식: 이미 읽힌 요청을 핸들러에 다시 보여준 뒤 코덱 바로 뒤에 설치
+            extensionHandler.channelRead(pipeline.context(NettyPipeline.ReactiveBridge),
+                    new DefaultHttpRequest(HttpVersion.HTTP_1_1, request.method(), request.uri(),
+                            request.requestHeaders()));
+            pipeline.addAfter(codecName, COMPRESSION_HANDLER, extensionHandler);
+        } catch (Exception e) {
+            log.warn("Failed to install WebSocket compression handler, continuing uncompressed", e);
+        }
+    }
+
+    @Nullable
+    private static String contextName(ChannelPipeline pipeline) {
+        HttpServerCodec codec = pipeline.get(HttpServerCodec.class);
+        return codec != null ? pipeline.context(codec).name() : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 노드 간 채팅 메시지 전달 방식 설정 (chat.delivery.*)
+ *
+ * 예) chat.delivery.mode=change-stream, chat.delivery.change-stream.batch-size=256
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.delivery")
+public class DeliveryProperties {
+
+    // redis: 저장과 별도로 Redis Pub/Sub 발행 / change-stream: messages 컬렉션 변경 스트림을 따라 전달
+    private Mode mode = Mode.REDIS;
+
+    private ChangeStream changeStream = new ChangeStream();
+
+    @Data
+    public static class ChangeStream {
+        // 한 번에 처리할 최대 이벤트 수
+        private int batchSize = 128;
+
+        // 배치를 채우기 위해 기다리는 최대 시간
+        private Duration batchWindow = Duration.ofMillis(5);
+
+        // resume token 저장 주기 (delivery_checkpoints 컬렉션)
+        private Duration checkpointInterval = Duration.ofSeconds(1);
+
+        // 시작 시 이보다 오래된 체크포인트는 버리고 현재 시점부터 (재시작 후 오래된 메시지 재전달 방지)
+        private Duration checkpointMaxAge = Duration.ofMinutes(1);
+
+        // 체크포인트 키 (비어 있으면 호스트 이름)
+        private String nodeId = "";
+    }
+
+    public enum Mode {
+        REDIS,
+        CHANGE_STREAM
+    }
+}
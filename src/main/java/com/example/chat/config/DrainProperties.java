@@ -0,0 +1,34 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 종료 시 WebSocket 연결 드레인 설정 (chat.drain.*)
+ *
+ * 예) chat.drain.wave-size=200, chat.drain.reconnect-delay-max=30s
+ *
+ * 웨이브 간격은 spring.lifecycle.timeout-per-shutdown-phase (기본 30s) 에서 flush-timeout 을 뺀 시간을
+ * 웨이브 수로 나눠 정하므로, 전체 소요 시간(웨이브 수 × 간격 + flush-timeout)이 종료 예산 안에 들어온다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.drain")
+public class DrainProperties {
+
+    // 한 번에 종료할 세션 수
+    private int waveSize = 500;
+
+    // 웨이브 사이 간격 상한 (비워 두면 종료 예산 / 웨이브 수)
+    private Duration waveInterval;
+
+    // 클라이언트에게 줄 재접속 대기 시간 힌트 (이 범위에서 무작위)
+    private Duration reconnectDelayMin = Duration.ofSeconds(1);
+    private Duration reconnectDelayMax = Duration.ofSeconds(15);
+
+    // 마지막 웨이브 후 송신 큐가 비워지길 기다리는 시간 (초과 시 강제 종료)
+    private Duration flushTimeout = Duration.ofSeconds(5);
+}
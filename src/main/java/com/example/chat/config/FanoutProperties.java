@@ -0,0 +1,19 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 그룹 채팅방 전달 분할 설정 (chat.fanout.*)
+ *
+ * 예) chat.fanout.shards=8
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.fanout")
+public class FanoutProperties {
+
+    // 채팅방 구독자를 나눌 조각 수 = 전달 워커 수 (0 이면 CPU 코어 수)
+    private int shards = 0;
+}
@@ -0,0 +1,45 @@
+package com.example.chat.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket 수신 프레임 제한 설정 (chat.inbound.*)
+ *
+ * 예) chat.inbound.chat.session-rate=5, chat.inbound.violation-action=CLOSE
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.inbound")
+public class InboundRateLimitProperties {
+
+    // 세션당 동시에 처리할 수신 프레임 수 (초과분은 TCP 레벨에서 대기)
+    private int maxConcurrency = 16;
+
+    // 제한 초과 시 처리 방식
+    private ViolationAction violationAction = ViolationAction.ERROR;
+
+    // 메시지 타입별 토큰 버킷 (초당 충전량 / 버스트 크기)
+    private Limit chat = new Limit(10, 20, 20, 40);
+    private Limit subscribe = new Limit(20, 100, 40, 200);
+    private Limit other = new Limit(5, 10, 10, 20);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private double sessionRate;
+        private int sessionBurst;
+        private double userRate;   // 같은 사용자의 모든 세션 합산
+        private int userBurst;
+    }
+
+    public enum ViolationAction {
+        DROP,    // 조용히 버림
+        ERROR,   // ERROR 프레임 응답
+        CLOSE    // 연결 종료 (1008 Policy Violation)
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 노드 내부 상태 조회(/api/admin/introspection) 설정 (chat.introspection.*)
+ *
+ * 예) chat.introspection.tracked-rooms=256, chat.introspection.backlog-threshold=16
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.introspection")
+public class IntrospectionProperties {
+
+    // 메시지 수를 세는 채팅방 수 상한 (상위 채팅방 근사 집계, 메모리 고정)
+    private int trackedRooms = 256;
+
+    // 채팅방 메시지 비율 집계 구간
+    private Duration rateWindow = Duration.ofSeconds(60);
+
+    // 이만큼 밀린 세션부터 느린 소비자 목록에 올림
+    private int backlogThreshold = 16;
+}
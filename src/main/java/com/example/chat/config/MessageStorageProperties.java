@@ -0,0 +1,51 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 메시지 저장 방식 설정 (chat.storage.*)
+ *
+ * 예) chat.storage.mode=bucket, chat.storage.bucket.max-messages=200
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.storage")
+public class MessageStorageProperties {
+
+    // document: 메시지 1건 = 문서 1개 (messages) / bucket: 채팅방별 묶음 문서 (message_buckets)
+    private Mode mode = Mode.DOCUMENT;
+
+    private Bucket bucket = new Bucket();
+
+    private Migration migration = new Migration();
+
+    @Data
+    public static class Bucket {
+        // 버킷 하나에 담을 최대 메시지 수
+        private int maxMessages = 200;
+
+        // 버킷 첫 메시지 이후 이 시간이 지나면 새 버킷
+        private Duration maxSpan = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Migration {
+        // 시작 시 messages → message_buckets 이관 실행
+        private boolean enabled = false;
+
+        // 이관한 원본 문서 삭제 여부
+        private boolean deleteSource = false;
+
+        // 동시에 이관할 채팅방 수
+        private int concurrency = 4;
+    }
+
+    public enum Mode {
+        DOCUMENT,
+        BUCKET
+    }
+}
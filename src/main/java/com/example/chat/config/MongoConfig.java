@@ -1,5 +1,7 @@
 package com.example.chat.config;
 
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
 
@@ -7,4 +9,16 @@ import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
 @EnableReactiveMongoAuditing
 public class MongoConfig {
     // MongoDB 설정은 application.properties에서 자동으로 처리됨
-}
\ No newline at end of file
+
+    /**
+     * 커넥션 풀 최소 크기 - 첫 요청들이 연결 수립(TCP/TLS/인증)을 기다리지 않도록 미리 열어 둠
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(WarmupProperties warmupProperties) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> {
+            if (warmupProperties.isEnabled()) {
+                pool.minSize(warmupProperties.getMongoMinConnections());
+            }
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.chat.config;
+
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.ChatRoom;
+import com.example.chat.model.MessageBucket;
+import com.example.chat.model.RoomMember;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 시작 시 Mongo 인덱스 생성 (준비 전에 끝남)
+ *
+ * Boot 는 spring.data.mongodb.auto-index-creation 이 기본 꺼져 있어 엔티티의 @Indexed / @CompoundIndex 가
+ * 만들어지지 않는다. 전달/저장 경로가 기대는 인덱스를 여기서 createIndex 로 만든다 (이미 있으면 그대로).
+ * - messages: sender_client_msg_idx (멱등성 unique), room_seq_idx (순번 조회)
+ * - message_buckets: room_start_idx (열린 버킷 찾기), room_end_idx (최근 버킷 조회)
+ * - room_members: room_user_idx, userId
+ * - chat_rooms: user1_user2_idx, lastMessageAt (워밍업의 최근 활동 채팅방)
+ *
+ * 텍스트 인덱스(room_content_text_idx, 검색용)는 기존 메시지 양에 비례해 오래 걸리므로 기다리지 않고
+ * 백그라운드로 만든다 (chat.mongo.ensure-text-index=false 면 건너뜀 - 운영 DB 에 직접 만들 때).
+ * 다 만들어지기 전의 검색 요청은 503 으로 응답한다.
+ * 실패해도 시작은 계속한다 (unique 인덱스가 기존 중복 데이터에 막힌 경우 등은 로그 확인).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class MongoIndexInitializer implements ApplicationRunner {
+
+    private static final List<Class<?>> ENTITIES =
+            List.of(ChatMessage.class, MessageBucket.class, RoomMember.class, ChatRoom.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final boolean textIndex;
+    private final Duration timeout;
+
+    public MongoIndexInitializer(
+            ReactiveMongoTemplate mongoTemplate,
+            @Value("${chat.mongo.ensure-indexes:true}") boolean enabled,
+            @Value("${chat.mongo.ensure-text-index:true}") boolean textIndex,
+            @Value("${chat.mongo.ensure-indexes-timeout:60s}") Duration timeout
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.textIndex = textIndex;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        try {
+            Long created = createIndexes(resolver, false)
+                    .count()
+                    .block(timeout);
+            log.info("Mongo indexes ensured: {}", created);
+        } catch (Exception e) {
+            log.warn("Mongo index creation did not finish within {}, continuing startup", timeout, e);
+        }
+
+        if (textIndex) {
+            // 준비 상태를 막지 않음 (빌드가 끝날 때까지 검색은 503)
+            createIndexes(resolver, true)
+                    .subscribe(name -> log.info("Mongo text index ready: {}", name));
+        }
+    }
+
+    private Flux<String> createIndexes(MongoPersistentEntityIndexResolver resolver, boolean text) {
+        return Flux.fromIterable(ENTITIES)
+                .concatMap(type -> Flux.fromIterable(resolver.resolveIndexFor(type))
+                        .filter(index -> isText(index) == text)
+                        .concatMap(index -> mongoTemplate.indexOps(type).createIndex(index)
+                                .doOnNext(name -> log.debug("Index ensured: {}.{}", type.getSimpleName(), name))
+                                .onErrorResume(error -> {
+                                    log.error("Failed to create index on {}: {}",
+                                            type.getSimpleName(), index.getIndexKeys(), error);
+                                    return Mono.empty();
+                                })));
+    }
+
+    private static boolean isText(IndexDefinition index) {
+        return index.getIndexKeys().containsValue("text");
+    }
+}
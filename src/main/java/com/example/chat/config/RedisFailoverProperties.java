@@ -0,0 +1,37 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Redis 장애 시 로컬 전달 + 재생 버퍼 설정 (chat.redis.failover.*)
+ *
+ * 예) chat.redis.failover.failure-threshold=3, chat.redis.failover.replay-buffer-size=20000
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.redis.failover")
+public class RedisFailoverProperties {
+
+    // false 면 예전처럼 발행 실패를 로그만 남기고 버림
+    private boolean enabled = true;
+
+    // 연속 발행 실패가 이만큼 쌓이면 차단기를 엶
+    private int failureThreshold = 3;
+
+    // 차단기가 열린 뒤 PING 으로 복구를 확인하기까지 기다리는 시간
+    private Duration openDuration = Duration.ofSeconds(5);
+
+    // 발행 하나의 응답 대기 한도 (넘기면 실패로 셈)
+    private Duration publishTimeout = Duration.ofSeconds(2);
+
+    // 복구 후 다시 발행할 CHAT 메시지 최대 수 (넘치면 오래된 것부터 버림)
+    private int replayBufferSize = 10_000;
+
+    // 이보다 오래 묵은 메시지는 재생하지 않음 (다른 노드는 기록 조회로 따라잡음)
+    // LocalDeliveryCache 보관 시간(60초)보다 길면 재생된 사본이 이 노드에서 중복 전달될 수 있음
+    private Duration replayMaxAge = Duration.ofSeconds(60);
+}
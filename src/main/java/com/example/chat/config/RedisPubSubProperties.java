@@ -0,0 +1,25 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis Pub/Sub 연결 분할 설정 (chat.redis.pubsub.*)
+ *
+ * 예) chat.redis.pubsub.partitions=4, chat.redis.pubsub.sharded=true
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.redis.pubsub")
+public class RedisPubSubProperties {
+
+    // 발행/구독 연결 수 - 채팅방 채널은 일관 해싱으로 이 중 하나에 고정됨
+    private int partitions = 1;
+
+    // 파티션 하나가 해시 링에 올리는 가상 노드 수 (많을수록 채널이 고르게 퍼짐)
+    private int virtualNodes = 160;
+
+    // 클러스터에서 Redis 7 샤드 Pub/Sub(SPUBLISH/SSUBSCRIBE) 사용 - 단일 노드에서는 무시
+    private boolean sharded = false;
+}
@@ -6,6 +6,7 @@ import com.example.chat.jwt.JWTWebSocketInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
@@ -25,8 +26,11 @@ import reactor.core.publisher.Mono;
  * 2. WebSocket (/ws)
  *    → JWT 인증 필요 (JWTWebSocketInterceptor)
  * 
- * 3. 내부 API (/api/chat/rooms)
+ * 3. 내부 API (/api/chat/rooms, /api/chat/rooms/batch)
  *    → 인증 불필요 (기존 백엔드 내부 호출)
+ *
+ * 4. 운영 API (/api/admin/**)
+ *    → JWT role=ADMIN 필요
  */
 @Configuration
 @EnableWebFluxSecurity
@@ -62,6 +66,9 @@ public class SecurityConfig {
                 
                 // 내부 API (기존 백엔드 → 채팅 서비스)
                 .pathMatchers("/api/chat/rooms").permitAll()
+                .pathMatchers(HttpMethod.POST, "/api/chat/rooms/batch").permitAll()
+                .pathMatchers(HttpMethod.POST, "/api/chat/rooms/groups", "/api/chat/rooms/*/members").permitAll()
+                .pathMatchers(HttpMethod.DELETE, "/api/chat/rooms/*/members/*").permitAll()
                 
                 // Health check
                 .pathMatchers("/actuator/health").permitAll()
@@ -74,6 +81,9 @@ public class SecurityConfig {
                 .pathMatchers("/ws").permitAll()
                 
                 // === 인증 필요 (Authenticated) ===
+
+                // 노드 내부 상태 조회 (운영자 전용)
+                .pathMatchers("/api/admin/**").hasRole("ADMIN")
                 
                 // 채팅방 목록 조회
                 .pathMatchers("/api/chat/my-rooms").authenticated()
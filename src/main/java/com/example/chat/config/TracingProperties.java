@@ -0,0 +1,32 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 메시지 구간 추적 설정 (chat.tracing.*)
+ *
+ * 예) chat.tracing.sample-rate=0.01, chat.tracing.force-user-ids=123,456
+ *
+ * 샘플링되지 않은 메시지는 추적 컨텍스트 없이 지나가므로 비용이 없다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+
+    // 추적할 CHAT 메시지 비율 (0.0 ~ 1.0)
+    private double sampleRate = 0.01;
+
+    // 비율과 상관없이 항상 추적할 발신자 (지연 신고가 들어온 사용자 조사용)
+    private Set<String> forceUserIds = new HashSet<>();
+
+    // 기록에 남길 노드 이름 (비우면 호스트 이름)
+    private String nodeId = "";
+}
@@ -0,0 +1,35 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 시작 시 준비(readiness) 전 워밍업 설정 (chat.warmup.*)
+ *
+ * 예) chat.warmup.enabled=true, chat.warmup.timeout=30s, chat.warmup.recent-rooms=5000
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    // 전체 워밍업 제한 시간 (넘으면 남은 단계는 건너뛰고 준비 상태로 전환)
+    private Duration timeout = Duration.ofSeconds(30);
+
+    // Mongo 커넥션 풀 최소 크기 (워밍업에서 이만큼 동시에 열어 둠)
+    private int mongoMinConnections = 10;
+
+    // 미리 캐시에 올릴 최근 활동 채팅방 수
+    private int recentRooms = 1000;
+
+    // JSON 직렬화/역직렬화 반복 횟수 (JIT 컴파일 유도)
+    private int codecIterations = 5000;
+
+    // JWT 검증 반복 횟수
+    private int jwtIterations = 2000;
+}
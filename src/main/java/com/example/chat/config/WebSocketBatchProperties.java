@@ -0,0 +1,24 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket 송신 묶음(BATCH 프레임) 설정 (chat.websocket.batch.*)
+ *
+ * 예) chat.websocket.batch.enabled=true, chat.websocket.batch.max-messages=64
+ *
+ * 클라이언트가 핸드셰이크 쿼리에 batch=true 를 붙인 세션에만 적용된다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.websocket.batch")
+public class WebSocketBatchProperties {
+
+    // batch=true 요청을 받아들일지
+    private boolean enabled = true;
+
+    // BATCH 프레임 하나에 담을 최대 메시지 수
+    private int maxMessages = 64;
+}
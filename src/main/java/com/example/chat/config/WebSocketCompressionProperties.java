@@ -0,0 +1,25 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket permessage-deflate 압축 설정 (chat.websocket.compression.*)
+ *
+ * 예) chat.websocket.compression.enabled=true, chat.websocket.compression.threshold=512
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.websocket.compression")
+public class WebSocketCompressionProperties {
+
+    // 클라이언트가 permessage-deflate 를 제안했을 때 수락할지
+    private boolean enabled = false;
+
+    // 이 크기(바이트) 미만 프레임은 압축하지 않음 (PRESENCE, ACK 같은 작은 프레임)
+    private int threshold = 256;
+
+    // zlib 압축 레벨 (1: 빠름 ~ 9: 작게)
+    private int level = 6;
+}
@@ -1,23 +1,39 @@
 package com.example.chat.config;
 
 import com.example.chat.handler.ChatWebSocketHandler;
+import com.example.chat.handler.CompressionMetrics;
+import com.example.chat.handler.ConnectionDrainer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.server.RequestUpgradeStrategy;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
 import org.springframework.web.reactive.socket.server.support.WebSocketHandlerAdapter;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @RequiredArgsConstructor
 public class WebSocketConfig {
 
+    private static final Set<String> HANDSHAKE_ATTRIBUTES = Set.of("userId", "email", "role");
+
     private final ChatWebSocketHandler chatWebSocketHandler;
+    private final DrainProperties drainProperties;
+    private final ConnectionDrainer connectionDrainer;
+    private final WebSocketCompressionProperties compressionProperties;
+    private final CompressionMetrics compressionMetrics;
 
     @Bean
     public HandlerMapping webSocketHandlerMapping() {
@@ -44,6 +60,26 @@ public class WebSocketConfig {
 
     @Bean
     public WebSocketHandlerAdapter handlerAdapter() {
-        return new WebSocketHandlerAdapter();
+        // JWTWebSocketInterceptor 가 exchange 에 넣은 인증 정보를 세션 속성으로 전달
+        // chat.websocket.compression.enabled=true 이면 일정 크기 이상 프레임만 permessage-deflate 압축
+        RequestUpgradeStrategy upgradeStrategy = compressionProperties.isEnabled()
+                ? new CompressingUpgradeStrategy(compressionProperties, compressionMetrics)
+                : new ReactorNettyRequestUpgradeStrategy();
+
+        HandshakeWebSocketService webSocketService = new HandshakeWebSocketService(upgradeStrategy) {
+            @Override
+            public Mono<Void> handleRequest(ServerWebExchange exchange, WebSocketHandler handler) {
+                // 드레인 중에는 새 연결 거절 → 클라이언트는 다른 서버로 재접속
+                if (connectionDrainer.isDraining()) {
+                    exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                    exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                            String.valueOf(drainProperties.getReconnectDelayMin().toSeconds()));
+                    return exchange.getResponse().setComplete();
+                }
+                return super.handleRequest(exchange, handler);
+            }
+        };
+        webSocketService.setSessionAttributePredicate(HANDSHAKE_ATTRIBUTES::contains);
+        return new WebSocketHandlerAdapter(webSocketService);
     }
 }
\ No newline at end of file
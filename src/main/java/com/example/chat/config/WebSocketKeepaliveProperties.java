@@ -0,0 +1,31 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * WebSocket 서버 주도 keepalive 설정 (chat.websocket.keepalive.*)
+ *
+ * 예) chat.websocket.keepalive.ping-interval=30s, chat.websocket.keepalive.pong-timeout=10s
+ *
+ * 수신이 ping-interval 동안 없으면 ping 프레임을 보내고, 그 뒤 pong-timeout 안에도 아무것도 오지 않으면 연결을 끊는다.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.websocket.keepalive")
+public class WebSocketKeepaliveProperties {
+
+    private boolean enabled = true;
+
+    // 마지막 수신 후 ping 을 보내기까지
+    private Duration pingInterval = Duration.ofSeconds(30);
+
+    // ping 후 응답(pong 또는 아무 프레임)을 기다리는 시간
+    private Duration pongTimeout = Duration.ofSeconds(10);
+
+    // 타이머 휠 한 칸의 시간 (검사 정밀도)
+    private Duration tick = Duration.ofSeconds(1);
+}
@@ -0,0 +1,21 @@
+package com.example.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 세션별 송신 큐 설정 (chat.websocket.outbox.*)
+ *
+ * 예) chat.websocket.outbox.max-queued=2048
+ *
+ * 소켓이 따라오지 못해 큐가 상한을 넘으면 그 세션을 닫는다 (클라이언트는 재접속 후 누락분을 조회).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.websocket.outbox")
+public class WebSocketOutboxProperties {
+
+    // 세션 하나에 쌓아 둘 수 있는 최대 메시지 수
+    private int maxQueued = 1024;
+}
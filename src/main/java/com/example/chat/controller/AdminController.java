@@ -0,0 +1,60 @@
+package com.example.chat.controller;
+
+import com.example.chat.handler.ChatWebSocketHandler;
+import com.example.chat.handler.EventLoopLagMonitor;
+import com.example.chat.handler.RoomRateTracker;
+import com.example.chat.service.RedisMessageSubscriber;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 운영자용 노드 내부 상태 조회 (role=ADMIN)
+ *
+ * 모든 값은 평소에 갱신해 둔 카운터/집합에서 읽으므로 장애 중에 호출해도 맵 전체를 훑지 않는다.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private static final int MAX_TOP = 100;
+
+    private final ChatWebSocketHandler webSocketHandler;
+    private final RedisMessageSubscriber redisSubscriber;
+    private final RoomRateTracker roomRates;
+    private final EventLoopLagMonitor eventLoopLag;
+
+    /**
+     * 연결/구독 수, 메시지가 많은 채팅방, 송신이 밀린 세션, 이벤트 루프 지연
+     *
+     * GET /api/admin/introspection?top=10
+     */
+    @GetMapping("/introspection")
+    public Mono<Map<String, Object>> introspect(@RequestParam(defaultValue = "10") int top) {
+        int limit = Math.max(1, Math.min(top, MAX_TOP));
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("connections", webSocketHandler.getConnectionCount());
+        counts.put("sessions", webSocketHandler.getSessionCount());
+        counts.put("subscribedRooms", webSocketHandler.getSubscribedRoomCount());
+        counts.put("outboxes", webSocketHandler.getOutboxCount());
+        counts.put("redisChannels", redisSubscriber.getChannelCount());
+        counts.put("redisChannelsLingering", redisSubscriber.getLingeringCount());
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("timestamp", Instant.now());
+        snapshot.put("counts", counts);
+        snapshot.put("hotRooms", roomRates.top(limit));
+        snapshot.put("slowConsumers", webSocketHandler.getTopBacklogs(limit));
+        snapshot.put("eventLoops", eventLoopLag.snapshot());
+        return Mono.just(snapshot);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.chat.controller;
+
+import com.example.chat.model.Attachment;
+import com.example.chat.repository.AttachmentStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/chat/attachments")
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentController {
+
+    private final AttachmentStore attachmentStore;
+
+    /**
+     * 첨부 업로드 (본문 = 파일 내용 그대로, Content-Type 유지)
+     * 201: 새로 저장 / 200: 같은 내용이 이미 있음 → 응답의 id(SHA-256)를 CHAT 메시지 attachments 에 넣어 보냄
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Attachment>> upload(
+            @RequestBody Flux<DataBuffer> body,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            @AuthenticationPrincipal String userId
+    ) {
+        return attachmentStore.store(body, contentType, userId)
+                .map(stored -> ResponseEntity.status(stored.created() ? HttpStatus.CREATED : HttpStatus.OK)
+                        .body(stored.attachment()))
+                .onErrorResume(DataBufferLimitException.class, e -> {
+                    log.warn("Attachment rejected: userId={}, {}", userId, e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build());
+                });
+    }
+
+    /**
+     * 첨부 다운로드 (Range 요청 지원, 파일 전송은 zero-copy)
+     * 내용이 바뀌지 않으므로 해시를 ETag 로 쓰고 오래 캐시
+     *
+     * 업로더가 정한 형식을 그대로 인라인으로 열면 저장형 XSS 가 되므로
+     * 항상 attachment 로 내려주고, 허용 목록 밖의 형식(이전에 저장된 것 포함)은 octet-stream 으로 보낸다.
+     */
+    @GetMapping("/{attachmentId}")
+    public Mono<ResponseEntity<Resource>> download(@PathVariable String attachmentId) {
+        return attachmentStore.find(attachmentId)
+                .map(attachment -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(attachmentStore.safeContentType(attachment.getContentType())))
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(attachment.getId()).build().toString())
+                        .header("X-Content-Type-Options", "nosniff")
+                        .eTag(attachment.getId())
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                        .body((Resource) new FileSystemResource(attachmentStore.path(attachment.getId()))))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
@@ -2,15 +2,24 @@ package com.example.chat.controller;
 
 import com.example.chat.model.ChatMessage;
 import com.example.chat.model.ChatRoom;
+import com.example.chat.model.RoomCreationResult;
+import com.example.chat.model.RoomMember;
 import com.example.chat.service.ChatService;
 import com.example.chat.service.PresenceService;
+import com.example.chat.service.RoomMembershipService;
+import com.mongodb.MongoException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,8 +28,12 @@ import java.util.Map;
 @Slf4j
 public class ChatController {
 
+    // Mongo 에러 코드 IndexNotFound
+    private static final int INDEX_NOT_FOUND = 27;
+
     private final ChatService chatService;
     private final PresenceService presenceService;
+    private final RoomMembershipService membershipService;
 
     /**
      * 채팅방 생성
@@ -65,6 +78,22 @@ public class ChatController {
             });
     }
 
+    /**
+     * 채팅방 일괄 생성 (매칭 작업에서 한 번에 호출)
+     * 요청: JSON 배열 또는 NDJSON / 응답: 요청 순서대로 채팅방별 결과 NDJSON 스트림
+     * 같은 요청을 다시 보내도 이미 있는 채팅방은 EXISTING 으로 돌려줌
+     */
+    @PostMapping(value = "/rooms/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RoomCreationResult> createChatRooms(@RequestBody Flux<CreateChatRoomRequest> requests) {
+        return chatService.createChatRooms(requests.map(request -> ChatRoom.builder()
+                .id(request.getChatRoomId())
+                .user1Id(request.getUser1Id())
+                .user2Id(request.getUser2Id())
+                .matchId(request.getMatchId())
+                .matchType(request.getMatchType())
+                .build()));
+    }
+
     // DTO for chat room creation
     @lombok.Data
     @lombok.NoArgsConstructor
@@ -77,15 +106,105 @@ public class ChatController {
         private String matchType; // "SWIPE" or "RANDOM_AI"
     }
 
+    /**
+     * 그룹 채팅방 생성 (그룹 데이트/이벤트)
+     * 같은 ID 로 다시 호출하면 채팅방은 그대로 두고 참여자만 추가
+     */
+    @PostMapping("/rooms/groups")
+    public Mono<ResponseEntity<ChatRoom>> createGroupRoom(@RequestBody CreateGroupRoomRequest request) {
+        if (request.getChatRoomId() == null || request.getChatRoomId().isBlank()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        List<String> memberIds = request.getMemberIds() != null ? request.getMemberIds() : List.of();
+        log.info("Creating group chat room: chatRoomId={}, members={}", request.getChatRoomId(), memberIds.size());
+
+        return chatService.createGroupRoom(request.getChatRoomId(), request.getName(), memberIds, request.getMatchType())
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalStateException.class, e -> Mono.just(ResponseEntity.status(409).build()))
+                .onErrorResume(e -> {
+                    log.error("Failed to create group chat room", e);
+                    return Mono.just(ResponseEntity.internalServerError().build());
+                });
+    }
+
+    @lombok.Data
+    @lombok.NoArgsConstructor
+    @lombok.AllArgsConstructor
+    public static class CreateGroupRoomRequest {
+        private String chatRoomId;
+        private String name;
+        private List<String> memberIds;
+        private String matchType;  // "GROUP_DATE", "EVENT" 등
+    }
+
+    /**
+     * 그룹 채팅방 참여자 추가 - 새로 추가된 수 반환
+     */
+    @PostMapping("/rooms/{chatRoomId}/members")
+    public Mono<ResponseEntity<Map<String, Long>>> addMembers(
+            @PathVariable String chatRoomId,
+            @RequestBody List<String> userIds
+    ) {
+        return chatService.getChatRoom(chatRoomId)
+                .flatMap(room -> room.isGroup()
+                        ? membershipService.addMembers(chatRoomId, userIds)
+                                .map(added -> ResponseEntity.ok(Map.of("added", added)))
+                        : Mono.just(ResponseEntity.status(409).<Map<String, Long>>build()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 그룹 채팅방 참여자 삭제
+     */
+    @DeleteMapping("/rooms/{chatRoomId}/members/{userId}")
+    public Mono<ResponseEntity<Void>> removeMember(@PathVariable String chatRoomId, @PathVariable String userId) {
+        return membershipService.removeMember(chatRoomId, userId)
+                .map(removed -> removed
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    /**
+     * 그룹 채팅방 참여자 목록
+     */
+    @GetMapping("/rooms/{chatRoomId}/members")
+    public Flux<RoomMember> getMembers(@PathVariable String chatRoomId) {
+        return membershipService.getMembers(chatRoomId);
+    }
+
     /**
      * 채팅방의 메시지 조회
+     * afterSeq 지정 시 해당 순번 이후 메시지만 오름차순으로 (누락 구간 채우기)
+     * before 지정 시 그 시각 이전 페이지 (보관된 오래된 메시지까지 이어서 조회)
      */
     @GetMapping("/rooms/{chatRoomId}/messages")
     public Flux<ChatMessage> getMessages(
             @PathVariable String chatRoomId,
-            @RequestParam(defaultValue = "50") int limit
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long afterSeq,
+            @RequestParam(required = false) Instant before
     ) {
-        return chatService.getMessages(chatRoomId, limit);
+        if (afterSeq != null) {
+            return chatService.getMessagesAfterSeq(chatRoomId, afterSeq, limit);
+        }
+        return chatService.getMessages(chatRoomId, before, limit);
+    }
+
+    /**
+     * 채팅방 안 메시지 검색 (관련도순, 최대 100건)
+     * 텍스트 인덱스가 아직 없으면 (시작 직후 빌드 중 / 생성 꺼둠) 503
+     */
+    @GetMapping("/rooms/{chatRoomId}/search")
+    public Flux<ChatMessage> searchMessages(
+            @PathVariable String chatRoomId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return chatService.searchMessages(chatRoomId, q, limit)
+                .onErrorMap(ChatController::isMissingTextIndex, error -> {
+                    log.warn("Search rejected, text index not ready: chatRoomId={}", chatRoomId);
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Search index is not ready", error);
+                });
     }
 
     /**
@@ -98,4 +217,14 @@ public class ChatController {
         return presenceService.isOnline(userId)
                 .map(online -> ResponseEntity.ok(Map.of("online", online)));
     }
-}
\ No newline at end of file
+
+    // $text 조회에 쓸 텍스트 인덱스가 없음 (Mongo IndexNotFound)
+    private static boolean isMissingTextIndex(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoException && mongoException.getCode() == INDEX_NOT_FOUND) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
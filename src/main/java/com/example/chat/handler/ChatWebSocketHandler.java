@@ -1,63 +1,173 @@
 package com.example.chat.handler;
 
+import com.example.chat.config.IntrospectionProperties;
+import com.example.chat.config.WebSocketBatchProperties;
+import com.example.chat.config.WebSocketOutboxProperties;
+import com.example.chat.model.AckStatus;
 import com.example.chat.model.ChatMessage;
+import com.example.chat.model.ChatRoom;
 import com.example.chat.model.MessageType;
+import com.example.chat.model.TraceContext;
 import com.example.chat.model.WebSocketMessage;
+import com.example.chat.service.ChangeStreamDelivery;
 import com.example.chat.service.ChatService;
+import com.example.chat.service.MessageTracer;
 import com.example.chat.service.PresenceService;
+import com.example.chat.service.RoomMembershipService;
+import com.example.chat.service.RedisMessagePublisher;
 import com.example.chat.service.RedisMessageSubscriber;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
 import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage.Type;
 import org.springframework.web.reactive.socket.WebSocketSession;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class ChatWebSocketHandler implements WebSocketHandler {
 
+    private static final byte[] PING_PAYLOAD = "ping".getBytes(StandardCharsets.US_ASCII);
+    private static final CloseStatus IDLE_TIMEOUT = CloseStatus.GOING_AWAY.withReason("Idle timeout");
+    private static final CloseStatus OUTBOX_OVERFLOW = CloseStatus.POLICY_VIOLATION.withReason("Send queue overflow");
+    private static final Duration EXPIRE_CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    // SUBSCRIBE 한 번에 담을 수 있는 채팅방 수
+    private static final int MAX_SUBSCRIBE_ROOMS = 1000;
+
     private final ChatService chatService;
     private final PresenceService presenceService;
+    private final RoomMembershipService membershipService;
     private final RedisMessageSubscriber redisSubscriber;
+    private final RedisMessagePublisher redisPublisher;
+    private final ChangeStreamDelivery changeStreamDelivery;
+    private final LocalDeliveryCache localDeliveryCache;
+    private final InboundRateLimiter rateLimiter;
+    private final RoomOrderedExecutor roomExecutor;
+    private final RoomFanout fanout;
     private final ObjectMapper objectMapper;
 
-    // 세션 관리: userId -> WebSocketSession
-    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    // 클라이언트 프레임용 직렬화 (추적 컨텍스트 제외 - Redis 발행본에만 실림)
+    private final ObjectWriter clientWriter;
+    private final WebSocketBatchProperties batchProperties;
+    private final WebSocketOutboxProperties outboxProperties;
+    private final KeepaliveWheel keepalive;
+    private final MessageTracer tracer;
+    private final RoomRateTracker roomRates;
+    private final IntrospectionProperties introspectionProperties;
+
+    // 송신 지표: 메시지 수 대비 프레임 수 (BATCH 로 묶일수록 작아짐)
+    private final Counter outboundMessages;
+    private final Counter singleFrames;
+    private final Counter batchFrames;
+    private final DistributionSummary batchSize;
+    private final Counter outboxOverflows;
+
+    // 열린 연결 전체 (SUBSCRIBE 전 연결 포함): 세션 ID / userId 로 조회, 연결마다 세션 + 송신 큐 + 구독 채팅방
+    private final ConnectionRegistry registry = new ConnectionRegistry();
 
-    // 채팅방 구독 관리: chatRoomId -> Set<userId>
-    private final Map<String, Set<String>> roomSubscriptions = new ConcurrentHashMap<>();
+    // 채팅방 구독 관리: chatRoomId -> 이 노드의 구독 연결 (userId 해시로 조각)
+    private final Map<String, RoomSubscribers> roomSubscriptions = new ConcurrentHashMap<>();
 
-    // 각 세션의 메시지 Sink
-    private final Map<String, Sinks.Many<WebSocketMessage>> sessionSinks = new ConcurrentHashMap<>();
+    // 송신이 밀린 세션 (SessionOutbox 가 직접 넣고 뺌 → 느린 소비자 조회 시 전체를 훑지 않음)
+    private final Set<SessionOutbox> backlogged = ConcurrentHashMap.newKeySet();
 
     public ChatWebSocketHandler(
             ChatService chatService,
             PresenceService presenceService,
+            RoomMembershipService membershipService,
             RedisMessageSubscriber redisSubscriber,
-            ObjectMapper objectMapper
+            RedisMessagePublisher redisPublisher,
+            ChangeStreamDelivery changeStreamDelivery,
+            LocalDeliveryCache localDeliveryCache,
+            InboundRateLimiter rateLimiter,
+            RoomOrderedExecutor roomExecutor,
+            RoomFanout fanout,
+            ObjectMapper objectMapper,
+            WebSocketBatchProperties batchProperties,
+            WebSocketOutboxProperties outboxProperties,
+            KeepaliveWheel keepalive,
+            MessageTracer tracer,
+            RoomRateTracker roomRates,
+            IntrospectionProperties introspectionProperties,
+            MeterRegistry meterRegistry
     ) {
         this.chatService = chatService;
         this.presenceService = presenceService;
+        this.membershipService = membershipService;
         this.redisSubscriber = redisSubscriber;
+        this.redisPublisher = redisPublisher;
+        this.changeStreamDelivery = changeStreamDelivery;
+        this.localDeliveryCache = localDeliveryCache;
+        this.rateLimiter = rateLimiter;
+        this.roomExecutor = roomExecutor;
+        this.fanout = fanout;
         this.objectMapper = objectMapper;
+        this.clientWriter = objectMapper.copy()
+                .addMixIn(WebSocketMessage.class, ClientFrame.class)
+                .writer();
+        this.batchProperties = batchProperties;
+        this.outboxProperties = outboxProperties;
+        this.keepalive = keepalive;
+        this.tracer = tracer;
+        this.roomRates = roomRates;
+        this.introspectionProperties = introspectionProperties;
+
+        this.outboundMessages = Counter.builder("chat.ws.outbound.messages")
+                .description("Messages written to WebSocket sessions")
+                .register(meterRegistry);
+        this.singleFrames = Counter.builder("chat.ws.outbound.frames")
+                .tag("type", "single")
+                .description("Frames carrying one message")
+                .register(meterRegistry);
+        this.batchFrames = Counter.builder("chat.ws.outbound.frames")
+                .tag("type", "batch")
+                .description("BATCH frames carrying a session backlog")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("chat.ws.outbound.batch")
+                .description("Messages per BATCH frame")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.outboxOverflows = Counter.builder("chat.ws.outbox.overflow")
+                .description("Sessions closed because their send queue exceeded chat.websocket.outbox.max-queued")
+                .register(meterRegistry);
     }
 
     /**
-     *  Redis 메시지 핸들러 등록
+     *  Redis 메시지 핸들러 등록 (변경 스트림 모드면 CHAT 은 변경 스트림에서, PRESENCE 는 계속 Redis 에서)
      */
     @PostConstruct
     public void init() {
         redisSubscriber.setMessageHandler(this::handleRedisMessage);
+        redisPublisher.setLocalHandler(this::deliverDegraded);
         log.info("Redis message handler registered");
+
+        if (changeStreamDelivery.isEnabled()) {
+            changeStreamDelivery.setMessageHandler(roomSubscriptions::containsKey, this::handleRedisMessage);
+            log.info("Change stream message handler registered");
+        }
     }
 
     @Override
@@ -65,53 +175,154 @@ public class ChatWebSocketHandler implements WebSocketHandler {
         String sessionId = session.getId();
         log.info("WebSocket connected: sessionId={}", sessionId);
 
-        // 세션별 Sink 생성 (메시지 전송용)
-        Sinks.Many<WebSocketMessage> sink = Sinks.many().multicast().onBackpressureBuffer();
-        sessionSinks.put(sessionId, sink);
+        // 세션별 송신 큐 생성 (batch=true 로 요청했으면 밀린 메시지를 BATCH 프레임으로 묶음)
+        boolean batching = batchProperties.isEnabled() && acceptsBatch(session);
+        // 큐가 상한을 넘으면 (소켓이 따라오지 못함) 연결 종료 → 클라이언트가 재접속 후 누락분 조회
+        SessionOutbox outbox = new SessionOutbox(sessionId, batching ? batchProperties.getMaxMessages() : 1,
+                backlogged, introspectionProperties.getBacklogThreshold(),
+                outboxProperties.getMaxQueued(), () -> overflow(session));
+        registry.open(session, outbox, authenticatedUserId(session));
+
+        // 유휴 감시: 수신이 끊기면 ping, 그래도 응답이 없으면 반쯤 끊긴 연결로 보고 종료
+        KeepaliveWheel.Handle liveness = keepalive.register(outbox::ping, () -> expire(session));
 
-        // 메시지 수신 처리
+        // 메시지 수신 처리 (동시 처리 수 제한 → 초과분은 읽기 중단으로 TCP 백프레셔)
         Mono<Void> input = session.receive()
-                .flatMap(message -> handleIncomingMessage(session, message.getPayloadAsText()))
+                .doOnNext(message -> liveness.touch())
+                // pong 프레임은 살아 있다는 신호로만 사용
+                .filter(message -> message.getType() == Type.TEXT)
+                .map(message -> message.getPayloadAsText())
+                .flatMap(payload -> handleIncomingMessage(session, payload), rateLimiter.getMaxConcurrency())
                 .doOnError(error -> log.error("Error receiving message: sessionId={}", sessionId, error))
                 .then();
 
         // 메시지 송신 처리
         Mono<Void> output = session.send(
-                sink.asFlux()
-                        .map(msg -> {
+                outbox.frames()
+                        .map(messages -> {
+                            if (messages == SessionOutbox.PING) {
+                                return session.pingMessage(factory -> factory.wrap(PING_PAYLOAD));
+                            }
                             try {
-                                String json = objectMapper.writeValueAsString(msg);
+                                String json = clientWriter.writeValueAsString(toFrame(messages));
+                                messages.forEach(message -> tracer.record(message, MessageTracer.WRITTEN, sessionId));
                                 return session.textMessage(json);
                             } catch (Exception e) {
                                 log.error("Failed to serialize message", e);
                                 return session.textMessage("{\"type\":\"ERROR\",\"message\":\"Serialization error\"}");
                             }
                         })
-        );
+        )
+                // 송신 큐가 끝까지 비워졌으면 (드레인) 연결 종료
+                .then(Mono.defer(() -> session.isOpen()
+                        ? session.close(CloseStatus.SERVICE_RESTARTED)
+                        : Mono.empty()));
 
         // 연결 종료 처리
         return Mono.zip(input, output)
                 .doFinally(signalType -> {
                     log.info("WebSocket disconnected: sessionId={}, signal={}", sessionId, signalType);
+                    liveness.cancel();
                     handleDisconnect(sessionId);
                 })
                 .then();
     }
 
+    /**
+     * ping 에 응답이 없는 세션 종료
+     */
+    private void expire(WebSocketSession session) {
+        log.info("Closing unresponsive WebSocket: sessionId={}", session.getId());
+        closeSession(session, IDLE_TIMEOUT);
+    }
+
+    /**
+     * 송신 큐 상한 초과 세션 종료 (이후 메시지는 버려짐)
+     */
+    private void overflow(WebSocketSession session) {
+        log.warn("Closing WebSocket with overflowing send queue: sessionId={}, limit={}",
+                session.getId(), outboxProperties.getMaxQueued());
+        outboxOverflows.increment();
+        closeSession(session, OUTBOX_OVERFLOW);
+    }
+
+    /**
+     * 정상 종료 경로(doFinally)로 정리되며, close 프레임조차 나가지 않으면(송신 버퍼가 막힌 경우) 직접 정리
+     */
+    private void closeSession(WebSocketSession session, CloseStatus status) {
+        session.close(status)
+                .timeout(EXPIRE_CLOSE_TIMEOUT)
+                .subscribe(null, error -> {
+                    log.warn("Close did not complete, cleaning up: sessionId={}", session.getId());
+                    handleDisconnect(session.getId());
+                });
+    }
+
+    // 핸드셰이크 쿼리 batch=true 면 BATCH 프레임을 해석할 수 있는 클라이언트
+    private static boolean acceptsBatch(WebSocketSession session) {
+        String batch = UriComponentsBuilder.fromUri(session.getHandshakeInfo().getUri())
+                .build()
+                .getQueryParams()
+                .getFirst("batch");
+        return Boolean.parseBoolean(batch);
+    }
+
+    // JWTWebSocketInterceptor 가 핸드셰이크 속성에 넣은 userId (없으면 -1)
+    private static long authenticatedUserId(WebSocketSession session) {
+        return session.getAttributes().get("userId") instanceof Long userId ? userId : -1;
+    }
+
+    // 1건이면 그대로, 여러 건이면 BATCH 프레임 하나로
+    private WebSocketMessage toFrame(List<WebSocketMessage> messages) {
+        outboundMessages.increment(messages.size());
+        if (messages.size() == 1) {
+            singleFrames.increment();
+            return messages.get(0);
+        }
+        batchFrames.increment();
+        batchSize.record(messages.size());
+        return WebSocketMessage.batch(messages);
+    }
+
     /**
      * 수신 메시지 처리
      */
     private Mono<Void> handleIncomingMessage(WebSocketSession session, String payload) {
+        // 샘플링되면 수신 시각을 담은 추적 컨텍스트 (CHAT 에만 사용)
+        TraceContext trace = tracer.start(session.getAttributes().get("userId"));
+
+        // 파싱 전에 먼저 차감 (해석되지 않는 프레임도 제한에 걸림), 타입별 분류는 파싱 뒤에
+        if (!rateLimiter.tryAcquireFrame(session.getId())) {
+            return handleThrottled(session, "frame");
+        }
+
         return Mono.fromCallable(() -> objectMapper.readValue(payload, WebSocketMessage.class))
                 .flatMap(wsMessage -> {
                     log.debug("Received message: type={}, chatRoomId={}, userId={}",
                             wsMessage.getType(), wsMessage.getChatRoomId(), wsMessage.getUserId());
 
+                    if (!rateLimiter.tryAcquire(session.getId(), session.getAttributes().get("userId"),
+                            wsMessage.getType())) {
+                        return handleThrottled(session, String.valueOf(wsMessage.getType()));
+                    }
+
                     switch (wsMessage.getType()) {
-                        case SUBSCRIBE:
-                            return handleSubscribe(session, wsMessage);
+                        case SUBSCRIBE: {
+                            // 종료 처리와 겹쳐 이미 정리된 연결이면 무시
+                            Connection connection = registry.connection(session.getId());
+                            if (connection == null) {
+                                return Mono.empty();
+                            }
+                            return wsMessage.getChatRoomIds() != null
+                                    ? handleBatchSubscribe(connection, wsMessage)
+                                    : handleSubscribe(connection, wsMessage);
+                        }
                         case CHAT:
-                            return handleChatMessage(session, wsMessage);
+                            return handleChatMessage(session, wsMessage, trace);
+                        case PING:
+                            return sendToSession(session.getId(), WebSocketMessage.pong());
+                        case PONG:
+                            return Mono.empty();
                         default:
                             return sendToSession(session.getId(),
                                     WebSocketMessage.error("Unknown message type"));
@@ -125,87 +336,380 @@ public class ChatWebSocketHandler implements WebSocketHandler {
                 .then();
     }
 
+    /**
+     * 수신 제한 초과 처리 (chat.inbound.violation-action)
+     */
+    private Mono<Void> handleThrottled(WebSocketSession session, String type) {
+        log.debug("Inbound frame throttled: sessionId={}, type={}", session.getId(), type);
+
+        switch (rateLimiter.getViolationAction()) {
+            case DROP:
+                return Mono.empty();
+            case CLOSE:
+                log.warn("Closing session for exceeding inbound rate limit: sessionId={}", session.getId());
+                return session.close(CloseStatus.POLICY_VIOLATION);
+            case ERROR:
+            default:
+                return sendToSession(session.getId(),
+                        WebSocketMessage.error("Rate limit exceeded: " + type));
+        }
+    }
+
     /**
      * 채팅방 구독 처리
      */
-    private Mono<Void> handleSubscribe(WebSocketSession session, WebSocketMessage wsMessage) {
-        String userId = wsMessage.getUserId();
+    private Mono<Void> handleSubscribe(Connection connection, WebSocketMessage wsMessage) {
+        String userId = subscriberId(connection, wsMessage);
         String chatRoomId = wsMessage.getChatRoomId();
-        String sessionId = session.getId();
-
-        // 세션 저장 (온라인 판단 기준)
-        sessions.put(userId, session);
-
-        // 채팅방 구독 저장
-        roomSubscriptions.computeIfAbsent(chatRoomId, k -> ConcurrentHashMap.newKeySet())
-                .add(userId);
+        String sessionId = connection.sessionId();
 
-        log.info("User subscribed: userId={}, chatRoomId={}, sessionId={}", userId, chatRoomId, sessionId);
-
-        // 1. 채팅방 존재 확인 (메인 백엔드에서 이미 생성되어 있어야 함)
-        return chatService.getChatRoom(chatRoomId)
+        // 1. 채팅방 존재 + 참여자 확인 (메인 백엔드에서 이미 생성되어 있어야 함) - 통과한 뒤에만 구독/Redis 채널 참조
+        return chatService.getRoutingRoom(chatRoomId)
                 .switchIfEmpty(
                     Mono.error(new RuntimeException("ChatRoom not found: " + chatRoomId + ". ChatRoom must be created by main backend first."))
                 )
-                .then(Mono.defer(() -> {
-                    // 2. Redis 채널 구독 (다중 서버 대비)
-                    return redisSubscriber.subscribe(chatRoomId);
-                }))
-                .then(Mono.defer(() -> {
-                    // 3. 채팅방의 다른 사용자에게 온라인 알림
-                    WebSocketMessage presenceMsg = WebSocketMessage.presence(userId, true);
-                    return broadcastToChatRoom(chatRoomId, presenceMsg, userId);
-                }))
+                .flatMap(chatRoom -> membershipService.isMember(chatRoom, userId)
+                        .flatMap(member -> {
+                            if (!member) {
+                                log.warn("Subscribe rejected, not a member: userId={}, chatRoomId={}", userId, chatRoomId);
+                                return sendToSession(sessionId,
+                                        WebSocketMessage.error("Not a member of chat room: " + chatRoomId));
+                            }
+
+                            // 사용자 연결로 등록 (온라인 판단 기준)
+                            registry.bindUser(connection);
+
+                            // 채팅방 구독 저장 + Redis 채널 참조 (같은 키 잠금 안에서 → 해제와 순서가 뒤바뀌지 않음)
+                            roomSubscriptions.compute(chatRoomId, (key, subscribers) -> {
+                                if (subscribers == null) {
+                                    subscribers = fanout.newSubscribers(key);
+                                }
+                                if (chatRoom.isGroup()) {
+                                    subscribers.markGroup();
+                                }
+                                if (join(subscribers, connection)) {
+                                    redisSubscriber.subscribe(chatRoomId);
+                                }
+                                return subscribers.isEmpty() ? null : subscribers;
+                            });
+
+                            log.info("User subscribed: userId={}, chatRoomId={}, sessionId={}", userId, chatRoomId, sessionId);
+
+                            // 그룹: 입장마다 전원에게 알리면 N² 이라 온라인 알림은 보내지 않음
+                            if (chatRoom.isGroup()) {
+                                return Mono.<Void>empty();
+                            }
+
+                            // 2. 채팅방의 다른 사용자에게 온라인 알림
+                            WebSocketMessage presenceMsg = WebSocketMessage.presence(userId, true);
+                            return broadcastToChatRoom(chatRoomId, presenceMsg, userId);
+                        }))
                 .then();
     }
 
+    /**
+     * 여러 채팅방 한 번에 구독 (앱 실행 시 대화 목록 전체)
+     *
+     * - 채팅방 확인: 캐시에 없는 것만 $in 쿼리 한 번, 그룹 참여자 확인도 $in 쿼리 한 번
+     * - Redis: 새로 여는 채널을 SUBSCRIBE 명령 하나로 등록
+     * - 응답: SUBSCRIBED 프레임 하나 (구독된 / 거절된 채팅방, 1:1 상대 중 접속 중인 사용자)
+     *
+     * 단건 SUBSCRIBE 와 달리 확인을 먼저 하고 통과한 채팅방만 등록한다.
+     */
+    private Mono<Void> handleBatchSubscribe(Connection connection, WebSocketMessage wsMessage) {
+        String userId = subscriberId(connection, wsMessage);
+        String sessionId = connection.sessionId();
+        List<String> requested = wsMessage.getChatRoomIds().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (requested.size() > MAX_SUBSCRIBE_ROOMS) {
+            return sendToSession(sessionId,
+                    WebSocketMessage.error("Too many chat rooms in one SUBSCRIBE (max " + MAX_SUBSCRIBE_ROOMS + ")"));
+        }
+
+        return chatService.getRoutingRooms(requested)
+                .flatMap(rooms -> membershipService.allowedRoomIds(rooms.values(), userId)
+                        .map(allowed -> subscribeAll(connection, userId, requested, rooms, allowed)))
+                .flatMap(subscribed -> sendToSession(sessionId, subscribed));
+    }
+
+    // 검증을 통과한 채팅방 등록 + 온라인 알림 → SUBSCRIBED 응답 (Redis 는 새 채널만 모아서 한 번에)
+    private WebSocketMessage subscribeAll(Connection connection, String userId, List<String> requested,
+                                          Map<String, ChatRoom> rooms, Set<String> allowed) {
+        registry.bindUser(connection);
+
+        List<String> accepted = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        List<String> opened = new ArrayList<>();
+        List<String> online = new ArrayList<>();
+        WebSocketMessage presenceMsg = WebSocketMessage.presence(userId, true);
+
+        for (String chatRoomId : requested) {
+            ChatRoom chatRoom = rooms.get(chatRoomId);
+            if (chatRoom == null || !allowed.contains(chatRoomId)) {
+                rejected.add(chatRoomId);
+                continue;
+            }
+            accepted.add(chatRoomId);
+
+            roomSubscriptions.compute(chatRoomId, (key, subscribers) -> {
+                if (subscribers == null) {
+                    subscribers = fanout.newSubscribers(key);
+                }
+                if (chatRoom.isGroup()) {
+                    subscribers.markGroup();
+                }
+                if (join(subscribers, connection) && redisSubscriber.retain(chatRoomId)) {
+                    opened.add(chatRoomId);
+                }
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+
+            if (!chatRoom.isGroup()) {
+                broadcastToChatRoom(chatRoomId, presenceMsg, userId).subscribe();
+                String otherUserId = chatRoom.getOtherUserId(userId);
+                Connection other = registry.user(otherUserId);
+                if (other != null && other.isOpen()) {
+                    online.add(otherUserId);
+                }
+            }
+        }
+        redisSubscriber.open(opened);
+
+        log.info("User subscribed to {} chat rooms ({} rejected): userId={}, sessionId={}",
+                accepted.size(), rejected.size(), userId, connection.sessionId());
+        return WebSocketMessage.subscribed(accepted, rejected, online);
+    }
+
+    // SUBSCRIBE 한 사용자 ID - 인증된 userId 가 있으면 그것을, 없으면 메시지의 userId
+    private static String subscriberId(Connection connection, WebSocketMessage wsMessage) {
+        return connection.userId() >= 0 ? Long.toString(connection.userId()) : wsMessage.getUserId();
+    }
+
+    // 채팅방에 연결 추가 + 연결의 구독 목록에 기록 (이미 정리된 연결이면 되돌림) - 새로 들어갔으면 true
+    private static boolean join(RoomSubscribers subscribers, Connection connection) {
+        if (!subscribers.add(connection)) {
+            return false;
+        }
+        if (!connection.addRoom(subscribers)) {
+            subscribers.remove(connection);
+            return false;
+        }
+        return true;
+    }
+
+    // 구독 해제 + Redis 채널 참조 해제 (빈 채팅방은 맵에서 제거) - 해제된 채팅방이 1:1 이면 true
+    private boolean unsubscribe(String chatRoomId, Connection connection) {
+        boolean[] direct = new boolean[1];
+        roomSubscriptions.computeIfPresent(chatRoomId, (key, subscribers) -> {
+            if (subscribers.remove(connection)) {
+                connection.removeRoom(subscribers);
+                redisSubscriber.unsubscribe(chatRoomId);
+                direct[0] = !subscribers.isGroup();
+            }
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        return direct[0];
+    }
+
     /**
      * 채팅 메시지 처리
+     *
+     * ID/타임스탬프를 수신 시점에 발급하고, 저장과 전달을 동시에 시작한다.
+     * - 발신자: 즉시 echo(CHAT) → 저장 완료 시 ACK(PERSISTED / FAILED)
+     * - 수신자: 저장 완료를 기다리지 않고 전달
+     *
+     * 순번 발급과 전달은 채팅방 단위로 순차 처리하고 (다른 채팅방끼리는 병렬),
+     * 저장은 그 바깥에서 병렬로 진행한다.
      */
-    private Mono<Void> handleChatMessage(WebSocketSession session, WebSocketMessage wsMessage) {
-        String chatRoomId = wsMessage.getChatRoomId();
-        String senderId = wsMessage.getSenderId();
+    private Mono<Void> handleChatMessage(WebSocketSession session, WebSocketMessage wsMessage, TraceContext trace) {
+        // 발신자는 인증된 userId (클라이언트가 보낸 senderId 는 인증 정보가 없을 때만)
+        long authenticated = authenticatedUserId(session);
+        if (authenticated >= 0) {
+            wsMessage.setSenderId(Long.toString(authenticated));
+        }
+        ChatMessage chatMessage = chatService.newMessage(wsMessage);
+        String chatRoomId = chatMessage.getChatRoomId();
+        tracer.record(trace, MessageTracer.INGRESS, chatRoomId, session.getId());
+        roomRates.record(chatRoomId);
+
+        // 수신자 확인용 채팅방 조회와 참여자 확인은 순서 대기와 겹치도록 미리 시작
+        // (채팅방 참여자만 발신 가능 - GROUP 은 캐시된 참여자 문서, DIRECT 는 두 사용자)
+        CompletableFuture<ChatRoom> chatRoom = chatService.getRoutingRoom(chatRoomId).toFuture();
+        CompletableFuture<Boolean> member = Mono.fromFuture(chatRoom)
+                .flatMap(room -> membershipService.isMember(room, chatMessage.getSenderId()))
+                .defaultIfEmpty(false)
+                .toFuture();
+
+        // 첨부가 있으면 업로드된 해시인지 확인 (없는 메시지는 대기 없음) - 이것도 미리 시작
+        CompletableFuture<Void> attachments = chatService.verifyAttachments(chatMessage).toFuture();
+
+        // 순서 자리는 도착 순서대로 잡고 (비동기 확인이 먼저 끝난 메시지가 앞지르지 않도록),
+        // 참여자/첨부 확인 결과는 순차 구간 안에서 기다림 - 거절도 순차 구간 안에서
+        return roomExecutor.submit(chatRoomId, () -> Mono.fromFuture(member)
+                        .flatMap(isMember -> isMember
+                                ? Mono.fromFuture(attachments).thenReturn(true)
+                                        .onErrorResume(IllegalArgumentException.class,
+                                                error -> rejectAttachments(session, error))
+                                        .flatMap(valid -> valid
+                                                ? admitAndDeliver(session, chatMessage, chatRoom, trace)
+                                                : Mono.just(Mono.<Void>empty()))
+                                : rejectNonMember(session, chatMessage)))
+                // 순차 구간을 벗어난 뒤 저장/발행 완료 대기
+                .flatMap(inFlight -> inFlight);
+    }
+
+    private Mono<Mono<Void>> rejectNonMember(WebSocketSession session, ChatMessage chatMessage) {
+        log.warn("Message rejected, not a member: senderId={}, chatRoomId={}",
+                chatMessage.getSenderId(), chatMessage.getChatRoomId());
+        return sendToSession(session.getId(),
+                        WebSocketMessage.error("Not a member of chat room: " + chatMessage.getChatRoomId()))
+                .thenReturn(Mono.<Void>empty());
+    }
 
-        // 1단계: MongoDB에 저장
-        return chatService.saveMessage(wsMessage)
-                .flatMap(savedMessage -> {
-                    // WebSocketMessage로 변환
-                    WebSocketMessage response = WebSocketMessage.fromChatMessage(savedMessage);
+    private Mono<Boolean> rejectAttachments(WebSocketSession session, IllegalArgumentException error) {
+        return sendToSession(session.getId(), WebSocketMessage.error(error.getMessage()))
+                .thenReturn(false);
+    }
 
-                    // 🔥 발신자에게 즉시 echo (Optimistic UI 확인용)
+    /**
+     * 0단계: 멱등성 키 선점 + 순번 발급 → echo, 수신자 전달, 저장 시작 (채팅방 내 순차 구간)
+     *
+     * @return 진행 중인 저장/발행 작업 (순차 구간 밖에서 기다림)
+     */
+    private Mono<Mono<Void>> admitAndDeliver(WebSocketSession session, ChatMessage chatMessage,
+                                             CompletableFuture<ChatRoom> chatRoom, TraceContext trace) {
+        return chatService.admitMessage(chatMessage)
+                .flatMap(claimedId -> {
+                    if (!claimedId.equals(chatMessage.getId())) {
+                        log.debug("Duplicate message ignored: clientMessageId={}, id={}",
+                                chatMessage.getClientMessageId(), claimedId);
+                        return sendToSession(session.getId(), WebSocketMessage.ack(claimedId,
+                                        chatMessage.getChatRoomId(), chatMessage.getClientMessageId(), AckStatus.DUPLICATE))
+                                .thenReturn(Mono.<Void>empty());
+                    }
+
+                    WebSocketMessage response = WebSocketMessage.fromChatMessage(chatMessage);
+                    response.setTrace(trace);
+                    tracer.record(response, MessageTracer.ADMITTED);
+
+                    // 🔥 발신자에게 즉시 echo (Optimistic UI 확인용, 서버 ID/순번 전달)
                     sendToSession(session.getId(), response).subscribe();
-                    log.debug("Message echoed to sender: {}", senderId);
-
-                    // 2단계: 채팅방 정보 조회하여 수신자 확인
-                    return chatService.getChatRoom(chatRoomId)
-                            .flatMap(chatRoom -> {
-                                String receiverId = chatRoom.getOtherUserId(senderId);
-                                
-                                // 3단계: 수신자 온라인 확인
-                                WebSocketSession receiverSession = sessions.get(receiverId);
-                                
-                                if (receiverSession == null || !receiverSession.isOpen()) {
-                                    // 🔔 오프라인 → 푸시 알림 전송
-                                    log.info("Receiver {} is offline, sending push notification", receiverId);
-                                    sendPushNotification(receiverId, response);
-                                }
-                                
-                                // 4단계: Redis Pub/Sub으로 발행 (온라인 수신자 & 다른 서버 대비)
-                                return chatService.publishMessage(chatRoomId, response)
-                                        .doOnSuccess(count -> 
-                                            log.debug("Message published to Redis: room={}", chatRoomId)
-                                        );
-                            });
+                    log.debug("Message echoed to sender: {}", chatMessage.getSenderId());
+
+                    // 1단계: 저장은 바로 시작만 하고 기다리지 않음
+                    CompletableFuture<Void> persisted = persistMessage(session.getId(), chatMessage, trace).toFuture();
+
+                    return Mono.fromFuture(chatRoom)
+                            .map(room -> deliverMessage(room, chatMessage.getSenderId(), response))
+                            .defaultIfEmpty(Mono.empty())
+                            .map(published -> Mono.when(Mono.fromFuture(persisted), published));
+                });
+    }
+
+    /**
+     * 1단계: MongoDB 저장 → 발신자에게 ACK
+     */
+    private Mono<Void> persistMessage(String sessionId, ChatMessage chatMessage, TraceContext trace) {
+        return chatService.saveMessage(chatMessage)
+                .doOnNext(saved -> tracer.record(trace, MessageTracer.PERSISTED, saved.getChatRoomId(), null))
+                .flatMap(saved -> sendToSession(sessionId, WebSocketMessage.ack(saved.getId(),
+                        saved.getChatRoomId(), saved.getClientMessageId(), AckStatus.PERSISTED)))
+                .onErrorResume(DuplicateKeyException.class, error ->
+                        // Redis 선점을 우회한 재전송 (unique 인덱스에서 걸림)
+                        chatService.findByClientMessageId(chatMessage.getSenderId(), chatMessage.getClientMessageId())
+                                .flatMap(existing -> sendToSession(sessionId, WebSocketMessage.ack(existing.getId(),
+                                        existing.getChatRoomId(), existing.getClientMessageId(), AckStatus.DUPLICATE))))
+                .onErrorResume(error -> {
+                    log.error("Failed to persist message: id={}", chatMessage.getId(), error);
+                    return chatService.releaseClientMessageId(chatMessage)
+                            .then(sendToSession(sessionId, WebSocketMessage.ack(chatMessage.getId(),
+                                    chatMessage.getChatRoomId(), chatMessage.getClientMessageId(), AckStatus.FAILED)));
+                });
+    }
+
+    /**
+     * 2단계: 수신자 확인 → 로컬 전달 / 푸시 → Redis 발행
+     *
+     * 발행 명령은 호출 즉시 내보내서 (같은 연결 위에서) 채팅방 내 순서를 유지한다.
+     *
+     * @return 발행 완료 신호
+     */
+    private Mono<Void> deliverMessage(ChatRoom chatRoom, String senderId, WebSocketMessage response) {
+        String chatRoomId = chatRoom.getId();
+
+        if (chatRoom.isGroup()) {
+            // 그룹: 이 노드의 구독자에게만 조각별로 전달 (다른 노드는 발행본을 받아 각자 전달)
+            // 오프라인 참여자 푸시는 참여자 수에 비례하므로 메인 백엔드에 맡김
+            localDeliveryCache.markDelivered(response.getId());
+            deliverToGroup(chatRoomId, senderId, response);
+            return publish(chatRoomId, response);
+        }
+
+        String receiverId = chatRoom.getOtherUserId(senderId);
+
+        // 3단계: 수신자 온라인 확인
+        Connection receiver = registry.user(receiverId);
+
+        if (receiver == null || !receiver.isOpen()) {
+            // 🔔 오프라인 → 푸시 알림 전송
+            log.info("Receiver {} is offline, sending push notification", receiverId);
+            sendPushNotification(receiverId, response);
+        } else {
+            // ⚡ 같은 서버에 접속 중 → Redis 왕복 없이 바로 전달
+            // (발행 전에 기록해야 Redis 사본을 확실히 걸러냄)
+            localDeliveryCache.markDelivered(response.getId());
+            send(receiver, response);
+            log.debug("Message delivered locally to receiver: {}", receiverId);
+        }
+
+        return publish(chatRoomId, response);
+    }
+
+    private Mono<Void> publish(String chatRoomId, WebSocketMessage response) {
+        // 변경 스트림 모드: 저장된 메시지가 스트림으로 다른 서버에 전달되므로 발행하지 않음
+        if (changeStreamDelivery.isEnabled()) {
+            return Mono.empty();
+        }
+
+        // 4단계: Redis Pub/Sub으로 발행 (다른 서버의 수신자 대비)
+        CompletableFuture<Long> published = chatService.publishMessage(chatRoomId, response)
+                .doOnSuccess(count -> {
+                    tracer.record(response, MessageTracer.PUBLISHED);
+                    log.debug("Message published to Redis: room={}", chatRoomId);
                 })
-                .then();
+                .toFuture();
+        return Mono.fromFuture(published).then();
+    }
+
+    /**
+     * 그룹 채팅방의 이 노드 구독자 전체에게 전달 (발신자 제외)
+     *
+     * 호출 스레드는 조각 수만큼 작업을 넘기기만 하고, 세션별 전송은 조각 워커에서 한다.
+     */
+    private void deliverToGroup(String chatRoomId, String senderId, WebSocketMessage message) {
+        RoomSubscribers subscribers = roomSubscriptions.get(chatRoomId);
+        if (subscribers == null) {
+            return;
+        }
+        long sender = ConnectionRegistry.parseUserId(senderId);
+        fanout.deliver(subscribers, connection -> {
+            if (connection.userId() == sender) {
+                return;
+            }
+            if (connection.isOpen()) {
+                send(connection, message);
+            }
+        });
     }
 
     /**
-     * Redis에서 메시지 수신 시 처리
+     * Redis(또는 변경 스트림)에서 메시지 수신 시 처리
      * 
      * 단일 서버 환경:
      * - 발신자: Optimistic UI (서버 응답 불필요)
-     * - 수신자: 이 메서드에서 메시지 수신
+     * - 수신자: handleChatMessage 에서 이미 직접 전달 → 여기서는 중복 제거만
      * 
      * 다중 서버 환경 (미래):
      * - 다른 서버의 메시지도 Redis를 통해 수신
@@ -215,23 +719,36 @@ public class ChatWebSocketHandler implements WebSocketHandler {
 
         // CHAT 메시지 처리
         if (message.getType() == MessageType.CHAT) {
+            // 이 서버에서 이미 전달한 메시지 (직접 전달 / 먼저 도착한 같은 발행본) → 중복 전송 방지
+            if (localDeliveryCache.alreadyDelivered(message.getId())) {
+                log.debug("Skipping duplicate copy of delivered message: {}", message.getId());
+                return;
+            }
+            tracer.record(message, MessageTracer.RECEIVED);
+
             String senderId = message.getSenderId();
             
-            // 채팅방 정보 조회하여 수신자에게만 전송
-            chatService.getChatRoom(chatRoomId)
-                .subscribe(chatRoom -> {
-                    String receiverId = chatRoom.getOtherUserId(senderId);
-                    
-                    // 수신자에게만 메시지 포워딩 (발신자는 Optimistic UI로 이미 봄)
-                    WebSocketSession receiverSession = sessions.get(receiverId);
-                    
-                    if (receiverSession != null && receiverSession.isOpen()) {
-                        sendToSession(receiverSession.getId(), message).subscribe();
-                        log.debug("Message forwarded to receiver: {}", receiverId);
-                    } else {
-                        log.debug("Receiver {} not connected (offline or other server)", receiverId);
-                    }
-                }, error -> {
+            // 채팅방 정보 조회하여 수신자에게만 전송 (채팅방 내 순서 유지를 위해 순차 처리)
+            roomExecutor.submit(chatRoomId, () -> chatService.getRoutingRoom(chatRoomId)
+                    .doOnNext(chatRoom -> {
+                        if (chatRoom.isGroup()) {
+                            deliverToGroup(chatRoomId, senderId, message);
+                            return;
+                        }
+
+                        String receiverId = chatRoom.getOtherUserId(senderId);
+
+                        // 수신자에게만 메시지 포워딩 (발신자는 Optimistic UI로 이미 봄)
+                        Connection receiver = registry.user(receiverId);
+
+                        if (receiver != null && receiver.isOpen()) {
+                            send(receiver, message);
+                            log.debug("Message forwarded to receiver: {}", receiverId);
+                        } else {
+                            log.debug("Receiver {} not connected (offline or other server)", receiverId);
+                        }
+                    }))
+                .subscribe(null, error -> {
                     log.error("Failed to find chat room: {}", chatRoomId, error);
                 });
             return;
@@ -239,23 +756,62 @@ public class ChatWebSocketHandler implements WebSocketHandler {
         
         // PRESENCE 메시지는 온라인 구독자에게만 전송
         if (message.getType() == MessageType.PRESENCE) {
-            Set<String> subscribers = roomSubscriptions.get(chatRoomId);
+            RoomSubscribers subscribers = roomSubscriptions.get(chatRoomId);
             if (subscribers != null && !subscribers.isEmpty()) {
-                subscribers.forEach(userId -> {
+                long self = ConnectionRegistry.parseUserId(message.getUserId());
+                subscribers.forEach(connection -> {
                     // 본인은 제외
-                    if (message.getUserId() != null && userId.equals(message.getUserId())) {
+                    if (self >= 0 && connection.userId() == self) {
                         return;
                     }
-                    
-                    WebSocketSession session = sessions.get(userId);
-                    if (session != null && session.isOpen()) {
-                        sendToSession(session.getId(), message).subscribe();
+
+                    if (connection.isOpen()) {
+                        send(connection, message);
                     }
                 });
             }
+            return;
+        }
+
+        // 그룹 참여자 삭제 → 이 노드에 있는 그 사용자의 구독 해제 + 알림
+        if (message.getType() == MessageType.MEMBER_REMOVED) {
+            membershipService.evict(chatRoomId, message.getUserId());
+            evictMember(chatRoomId, message);
+        }
+    }
+
+    // 삭제된 참여자의 연결을 채팅방에서 빼고 MEMBER_REMOVED 를 보냄 (이후 발신은 참여자 확인에서 거절됨)
+    private void evictMember(String chatRoomId, WebSocketMessage message) {
+        long removed = ConnectionRegistry.parseUserId(message.getUserId());
+        RoomSubscribers subscribers = roomSubscriptions.get(chatRoomId);
+        if (removed < 0 || subscribers == null) {
+            return;
+        }
+        List<Connection> evicted = new ArrayList<>();
+        subscribers.forEach(connection -> {
+            if (connection.userId() == removed) {
+                evicted.add(connection);
+            }
+        });
+        for (Connection connection : evicted) {
+            unsubscribe(chatRoomId, connection);
+            if (connection.isOpen()) {
+                send(connection, message);
+            }
+            log.info("Member removed, subscription evicted: userId={}, chatRoomId={}, sessionId={}",
+                    removed, chatRoomId, connection.sessionId());
         }
     }
     
+    /**
+     * Redis 로 발행하지 못한 메시지를 이 노드 구독자에게 직접 전달 (Redis 장애 시)
+     *
+     * 이미 직접 전달한 CHAT 은 걸러지고, 여기서 전달한 것도 기록되므로 복구 후 재생된 사본이 돌아와도 한 번만 전달된다.
+     */
+    private void deliverDegraded(String chatRoomId, WebSocketMessage message) {
+        handleRedisMessage(chatRoomId, message);
+    }
+
     /**
      * 푸시 알림 전송 (구현 필요)
      */
@@ -272,80 +828,155 @@ public class ChatWebSocketHandler implements WebSocketHandler {
     private Mono<Void> broadcastToChatRoom(String chatRoomId,
                                            WebSocketMessage message,
                                            String excludeUserId) {
-        Set<String> subscribers = roomSubscriptions.get(chatRoomId);
+        RoomSubscribers subscribers = roomSubscriptions.get(chatRoomId);
 
         if (subscribers == null || subscribers.isEmpty()) {
             log.debug("No subscribers for chatRoomId={}", chatRoomId);
             return Mono.empty();
         }
 
-        return Flux.fromIterable(subscribers)
-                .filter(userId -> excludeUserId == null || !userId.equals(excludeUserId))
-                .flatMap(userId -> {
-                    WebSocketSession session = sessions.get(userId);
-                    if (session != null && session.isOpen()) {
-                        return sendToSession(session.getId(), message);
-                    }
-                    return Mono.empty();
-                })
-                .then();
+        long excluded = ConnectionRegistry.parseUserId(excludeUserId);
+        subscribers.forEach(connection -> {
+            if ((excluded < 0 || connection.userId() != excluded) && connection.isOpen()) {
+                send(connection, message);
+            }
+        });
+        return Mono.empty();
     }
 
     /**
      * 특정 세션에 메시지 전송
      */
     private Mono<Void> sendToSession(String sessionId, WebSocketMessage message) {
-        Sinks.Many<WebSocketMessage> sink = sessionSinks.get(sessionId);
+        Connection connection = registry.connection(sessionId);
 
-        if (sink != null) {
-            Sinks.EmitResult result = sink.tryEmitNext(message);
-            if (result.isFailure()) {
-                log.warn("Failed to emit message to session {}: {}", sessionId, result);
-            }
-            return Mono.empty();
+        if (connection != null) {
+            send(connection, message);
         } else {
-            log.warn("Sink not found for sessionId={}", sessionId);
-            return Mono.empty();
+            log.warn("Outbox not found for sessionId={}", sessionId);
+        }
+        return Mono.empty();
+    }
+
+    /**
+     * 연결의 송신 큐에 추가
+     */
+    private void send(Connection connection, WebSocketMessage message) {
+        tracer.record(message, MessageTracer.ENQUEUED, connection.sessionId());
+        if (!connection.outbox().offer(message)) {
+            log.debug("Outbox closed or full for session {}", connection.sessionId());
+        }
+    }
+
+    /**
+     * 열린 연결 ID 목록
+     */
+    public Set<String> getConnectionIds() {
+        return registry.sessionIds();
+    }
+
+    public int getConnectionCount() {
+        return registry.size();
+    }
+
+    /**
+     * SUBSCRIBE 한 사용자 세션 수
+     */
+    public int getSessionCount() {
+        return registry.userCount();
+    }
+
+    /**
+     * 이 노드에 구독자가 있는 채팅방 수
+     */
+    public int getSubscribedRoomCount() {
+        return roomSubscriptions.size();
+    }
+
+    public int getOutboxCount() {
+        // 송신 큐는 연결마다 하나
+        return registry.size();
+    }
+
+    /**
+     * 송신이 가장 많이 밀린 세션 (backlog-threshold 이상인 세션만 대상)
+     */
+    public List<SessionBacklog> getTopBacklogs(int limit) {
+        return backlogged.stream()
+                .map(outbox -> new SessionBacklog(outbox.sessionId(), outbox.backlog()))
+                .sorted(Comparator.comparingInt(SessionBacklog::backlog).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public record SessionBacklog(String sessionId, int backlog) {
+    }
+
+    /**
+     * 드레인: RECONNECT 안내 후 송신 큐를 닫음 → 남은 메시지를 다 보낸 뒤 연결 종료
+     *
+     * @return 대상 세션이 아직 열려 있었는지
+     */
+    public boolean drainSession(String sessionId, Duration reconnectAfter) {
+        Connection connection = registry.connection(sessionId);
+        if (connection == null) {
+            return false;
         }
+        SessionOutbox outbox = connection.outbox();
+
+        // 송신 큐가 스레드 간 순서를 맞춰 주므로 재시도 불필요
+        outbox.offer(WebSocketMessage.reconnect(reconnectAfter.toMillis()));
+        outbox.complete();
+        return true;
     }
 
     /**
-     * 연결 해제 처리
+     * 남은 연결 강제 종료 (드레인 시간 초과 시)
+     */
+    public Mono<Void> closeAllSessions() {
+        return Flux.fromIterable(registry.connections())
+                .flatMap(connection -> connection.session().close(CloseStatus.SERVICE_RESTARTED)
+                        .onErrorResume(error -> Mono.empty()))
+                .then();
+    }
+
+    /**
+     * 연결 해제 처리 (연결이 들어가 있던 채팅방에서만 빠짐)
      */
     private void handleDisconnect(String sessionId) {
-        // 해당 세션의 userId 찾기
-        String disconnectedUserId = sessions.entrySet().stream()
-                .filter(entry -> entry.getValue().getId().equals(sessionId))
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElse(null);
-
-        if (disconnectedUserId != null) {
-            // 세션 제거 (오프라인 처리)
-            sessions.remove(disconnectedUserId);
-
-            // 모든 채팅방 구독에서 제거
-            roomSubscriptions.values().forEach(subscribers ->
-                    subscribers.remove(disconnectedUserId)
-            );
-
-            log.info("User disconnected: userId={}", disconnectedUserId);
-
-            // 구독 중이던 채팅방들에 오프라인 알림
-            roomSubscriptions.forEach((chatRoomId, subscribers) -> {
-                if (!subscribers.isEmpty()) {
-                    WebSocketMessage presenceMsg = WebSocketMessage.presence(disconnectedUserId, false);
-                    chatService.publishMessage(chatRoomId, presenceMsg).subscribe();
+        Connection connection = registry.close(sessionId);
+
+        if (connection != null) {
+            // 모든 채팅방 구독에서 제거 (오프라인 알림은 1:1 채팅방만)
+            List<String> leftRooms = new ArrayList<>();
+            for (RoomSubscribers room : connection.close()) {
+                if (unsubscribe(room.roomId(), connection)) {
+                    leftRooms.add(room.roomId());
                 }
-            });
-        }
+            }
 
-        // Sink 정리
-        Sinks.Many<WebSocketMessage> sink = sessionSinks.remove(sessionId);
-        if (sink != null) {
-            sink.tryEmitComplete();
+            // 같은 사용자의 다른 연결이 남아 있으면 아직 온라인
+            if (!leftRooms.isEmpty() && connection.userId() >= 0 && registry.user(connection.userId()) == null) {
+                String disconnectedUserId = Long.toString(connection.userId());
+                log.info("User disconnected: userId={}", disconnectedUserId);
+
+                // 구독 중이던 채팅방들에 오프라인 알림
+                WebSocketMessage presenceMsg = WebSocketMessage.presence(disconnectedUserId, false);
+                leftRooms.forEach(chatRoomId ->
+                        chatService.publishMessage(chatRoomId, presenceMsg).subscribe());
+            }
+
+            // 송신 큐 정리
+            connection.outbox().dispose();
         }
 
+        rateLimiter.release(sessionId);
+
         log.info("Session cleaned up: sessionId={}", sessionId);
     }
+
+    // 클라이언트로 나가는 WebSocketMessage 에서 뺄 필드 (BATCH 안의 메시지에도 적용)
+    @JsonIgnoreProperties({"trace"})
+    private interface ClientFrame {
+    }
 }
@@ -0,0 +1,127 @@
+package com.example.chat.handler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket 송신 압축 지표
+ *
+ * - chat.ws.compression.frames{result=compressed|skipped}: 압축/건너뛴 프레임 수
+ * - chat.ws.compression.bytes{stage=raw|compressed}: 압축 전후 바이트
+ * - chat.ws.compression.ratio: 압축 후/전 크기 비율 (작을수록 효과 큼)
+ * - chat.ws.compression.time: 프레임당 압축 소요 시간 (이벤트 루프 스레드)
+ */
+@Component
+@Slf4j
+public class CompressionMetrics {
+
+    private static final String PROBE_RAW = "chat.compressionProbe.raw";
+    private static final String PROBE_COMPRESSED = "chat.compressionProbe.compressed";
+
+    private final Counter compressedFrames;
+    private final Counter skippedFrames;
+    private final Counter rawBytes;
+    private final Counter compressedBytes;
+    private final DistributionSummary ratio;
+    private final Timer time;
+
+    public CompressionMetrics(MeterRegistry meterRegistry) {
+        this.compressedFrames = meterRegistry.counter("chat.ws.compression.frames", "result", "compressed");
+        this.skippedFrames = meterRegistry.counter("chat.ws.compression.frames", "result", "skipped");
+        this.rawBytes = meterRegistry.counter("chat.ws.compression.bytes", "stage", "raw");
+        this.compressedBytes = meterRegistry.counter("chat.ws.compression.bytes", "stage", "compressed");
+        this.ratio = DistributionSummary.builder("chat.ws.compression.ratio")
+                .publishPercentiles(0.5, 0.9)
+                .register(meterRegistry);
+        this.time = Timer.builder("chat.ws.compression.time")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 핸드셰이크 후 압축 인코더 양쪽에 측정 핸들러 설치 (압축이 협상되지 않았으면 무시)
+     */
+    public void instrument(Channel channel) {
+        ChannelPipeline pipeline = channel.pipeline();
+        String encoderName = null;
+        for (Map.Entry<String, ChannelHandler> entry : pipeline) {
+            if (entry.getValue() instanceof WebSocketExtensionEncoder) {
+                encoderName = entry.getKey();
+                break;
+            }
+        }
+        if (encoderName == null || pipeline.get(PROBE_RAW) != null) {
+            return;
+        }
+
+        Probe probe = new Probe();
+        // 송신은 tail → head 방향: raw 측정 → 인코더 → compressed 측정
+        pipeline.addAfter(encoderName, PROBE_RAW, probe.raw);
+        pipeline.addBefore(encoderName, PROBE_COMPRESSED, probe.compressed);
+        log.debug("Compression metrics installed: channel={}", channel.id());
+    }
+
+    private void record(int raw, int compressed, long elapsedNanos) {
+        compressedFrames.increment();
+        rawBytes.increment(raw);
+        compressedBytes.increment(compressed);
+        ratio.record((double) compressed / raw);
+        time.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // 채널당 하나, 이벤트 루프 스레드에서만 접근
+    private final class Probe {
+
+        private int compressedSize = -1;
+
+        private final ChannelOutboundHandlerAdapter raw = new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                if (!(msg instanceof TextWebSocketFrame || msg instanceof BinaryWebSocketFrame)) {
+                    ctx.write(msg, promise);
+                    return;
+                }
+
+                int rawSize = ((WebSocketFrame) msg).content().readableBytes();
+                compressedSize = -1;
+                long start = System.nanoTime();
+                ctx.write(msg, promise);
+                long elapsed = System.nanoTime() - start;
+
+                if (compressedSize >= 0 && rawSize > 0) {
+                    record(rawSize, compressedSize, elapsed);
+                } else {
+                    skippedFrames.increment();
+                }
+            }
+        };
+
+        private final ChannelOutboundHandlerAdapter compressed = new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                if (msg instanceof WebSocketFrame frame && (frame.rsv() & WebSocketExtension.RSV1) != 0) {
+                    compressedSize = frame.content().readableBytes();
+                }
+                ctx.write(msg, promise);
+            }
+        };
+    }
+}
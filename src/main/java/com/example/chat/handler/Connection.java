@@ -0,0 +1,90 @@
+package com.example.chat.handler;
+
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 이 노드의 WebSocket 연결 하나 (세션, 송신 큐, 구독 중인 채팅방)
+ *
+ * 구독 채팅방은 RoomSubscribers 참조 배열로 들고 있어서, 연결이 끊기면 전체 채팅방을 훑지 않고
+ * 자기가 들어간 채팅방에서만 빠진다. 채팅방 ID 문자열은 RoomSubscribers 의 것 하나를 같이 쓴다.
+ */
+final class Connection {
+
+    private static final RoomSubscribers[] NO_ROOMS = new RoomSubscribers[0];
+
+    private final WebSocketSession session;
+    private final SessionOutbox outbox;
+
+    // JWT 의 userId (핸드셰이크 속성), 없으면 -1
+    private final long userId;
+
+    // 구독 채팅방 (this 로 잠금) - 대부분 몇 개뿐이라 배열로 보관
+    private RoomSubscribers[] rooms = NO_ROOMS;
+    private int roomCount;
+    private boolean closed;
+
+    Connection(WebSocketSession session, SessionOutbox outbox, long userId) {
+        this.session = session;
+        this.outbox = outbox;
+        this.userId = userId;
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    String sessionId() {
+        return session.getId();
+    }
+
+    SessionOutbox outbox() {
+        return outbox;
+    }
+
+    long userId() {
+        return userId;
+    }
+
+    boolean isOpen() {
+        return session.isOpen();
+    }
+
+    /**
+     * 구독 채팅방 추가 - 이미 닫힌 연결이면 false (정리 이후 늦게 도착한 SUBSCRIBE)
+     */
+    synchronized boolean addRoom(RoomSubscribers room) {
+        if (closed) {
+            return false;
+        }
+        if (roomCount == rooms.length) {
+            rooms = Arrays.copyOf(rooms, Math.max(4, roomCount * 2));
+        }
+        rooms[roomCount++] = room;
+        return true;
+    }
+
+    synchronized void removeRoom(RoomSubscribers room) {
+        for (int i = 0; i < roomCount; i++) {
+            if (rooms[i] == room) {
+                rooms[i] = rooms[--roomCount];
+                rooms[roomCount] = null;
+                return;
+            }
+        }
+    }
+
+    synchronized int roomCount() {
+        return roomCount;
+    }
+
+    /**
+     * 연결 종료 표시 + 그 시점의 구독 채팅방 (이후 addRoom 은 거절)
+     */
+    synchronized List<RoomSubscribers> close() {
+        closed = true;
+        return List.of(Arrays.copyOf(rooms, roomCount));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.DrainProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 종료 시 WebSocket 연결 드레인
+ *
+ * 1. 새 핸드셰이크 거절 (503)
+ * 2. RECONNECT 프레임으로 재접속 대기 시간(jitter) 안내
+ * 3. 송신 큐를 비운 뒤 연결 종료
+ * 4. 위 과정을 웨이브 단위로 나눠 진행 → 남은 서버로의 동시 재접속 폭주 방지
+ *
+ * 웨이브 간격은 종료 단계 예산(spring.lifecycle.timeout-per-shutdown-phase)에서 flush-timeout 을 뺀 시간을
+ * 웨이브 수로 나눠 정한다 (chat.drain.wave-interval 을 지정하면 그 값이 상한).
+ *
+ * 웹 서버/Redis 구독보다 먼저 멈추도록 가장 높은 phase 로 동작한다.
+ */
+@Component
+@Slf4j
+public class ConnectionDrainer implements SmartLifecycle {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    // 예산 중 남겨 둘 여유 (마지막 웨이브 처리, 콜백 호출)
+    private static final Duration SHUTDOWN_MARGIN = Duration.ofSeconds(1);
+
+    private final ChatWebSocketHandler chatWebSocketHandler;
+    private final DrainProperties properties;
+    private final Duration shutdownTimeout;
+
+    public ConnectionDrainer(
+            ChatWebSocketHandler chatWebSocketHandler,
+            DrainProperties properties,
+            @Value("${spring.lifecycle.timeout-per-shutdown-phase:30s}") Duration shutdownTimeout
+    ) {
+        this.chatWebSocketHandler = chatWebSocketHandler;
+        this.properties = properties;
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    private volatile boolean running;
+    private volatile boolean draining;
+
+    /**
+     * 드레인 중이면 새 WebSocket 연결을 받지 않는다
+     */
+    public boolean isDraining() {
+        return draining;
+    }
+
+    @Override
+    public void start() {
+        draining = false;
+        running = true;
+    }
+
+    /**
+     * 콜백 없이 멈출 때 (직접 호출) - 드레인이 끝나거나 종료 예산이 지날 때까지 대기
+     */
+    @Override
+    public void stop() {
+        CountDownLatch done = new CountDownLatch(1);
+        stop(done::countDown);
+        try {
+            if (!done.await(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("WebSocket drain did not finish within {}", shutdownTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        draining = true;
+
+        List<String> sessionIds = new ArrayList<>(chatWebSocketHandler.getConnectionIds());
+        // 같은 웨이브에 특정 채팅방/사용자가 몰리지 않도록 섞음
+        Collections.shuffle(sessionIds);
+        int waveSize = Math.max(1, properties.getWaveSize());
+        int waves = (sessionIds.size() + waveSize - 1) / waveSize;
+        Duration interval = waveInterval(waves);
+        log.info("Draining {} WebSocket sessions (waves={}, wave size={}, interval={})",
+                sessionIds.size(), waves, waveSize, interval);
+
+        Flux.fromIterable(sessionIds)
+                .buffer(waveSize)
+                .index()
+                .concatMap(wave -> Mono.delay(wave.getT1() == 0 ? Duration.ZERO : interval)
+                        .doOnNext(tick -> drainWave(wave.getT1(), wave.getT2())))
+                .then(awaitFlushed())
+                .doFinally(signal -> {
+                    running = false;
+                    callback.run();
+                })
+                .subscribe(null, error -> log.error("WebSocket drain failed", error));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 웨이브 간격 = (종료 예산 - flush-timeout - 여유) / 웨이브 수, 설정된 wave-interval 이 있으면 그 이하
+     */
+    Duration waveInterval(int waves) {
+        if (waves <= 1) {
+            return Duration.ZERO;
+        }
+        Duration available = shutdownTimeout.minus(properties.getFlushTimeout()).minus(SHUTDOWN_MARGIN);
+        Duration derived = available.isNegative() ? Duration.ZERO : available.dividedBy(waves);
+        Duration configured = properties.getWaveInterval();
+        return configured != null && configured.compareTo(derived) < 0 ? configured : derived;
+    }
+
+    private void drainWave(long index, List<String> sessionIds) {
+        int drained = 0;
+        for (String sessionId : sessionIds) {
+            if (chatWebSocketHandler.drainSession(sessionId, nextReconnectDelay())) {
+                drained++;
+            }
+        }
+        log.info("Drain wave {}: {} sessions asked to reconnect", index + 1, drained);
+    }
+
+    /**
+     * 남은 세션이 스스로 닫히길 기다리고, 시간 초과 시 강제 종료
+     */
+    private Mono<Void> awaitFlushed() {
+        return Flux.interval(Duration.ZERO, POLL_INTERVAL)
+                .filter(tick -> chatWebSocketHandler.getConnectionCount() == 0)
+                .next()
+                .then()
+                .timeout(properties.getFlushTimeout(), Mono.defer(() -> {
+                    log.warn("Drain flush timed out, closing {} remaining sessions",
+                            chatWebSocketHandler.getConnectionCount());
+                    return chatWebSocketHandler.closeAllSessions();
+                }))
+                .doOnSuccess(v -> log.info("WebSocket drain completed"));
+    }
+
+    private Duration nextReconnectDelay() {
+        long min = properties.getReconnectDelayMin().toMillis();
+        long max = Math.max(min, properties.getReconnectDelayMax().toMillis());
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(min, max + 1));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.chat.handler;
+
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이 노드의 WebSocket 연결 등록부
+ *
+ * 연결마다 Connection 하나만 만들고 두 가지 키로 찾는다.
+ * - 세션 ID → 연결: 드레인, 세션 ID 로 보내는 응답
+ * - userId → 연결: SUBSCRIBE 한 사용자 (온라인 판단, 1:1 수신자 조회) - long 키 해시
+ */
+final class ConnectionRegistry {
+
+    private final Map<String, Connection> bySession = new ConcurrentHashMap<>();
+    private final LongConnectionMap byUser = new LongConnectionMap();
+
+    Connection open(WebSocketSession session, SessionOutbox outbox, long userId) {
+        Connection connection = new Connection(session, outbox, userId);
+        bySession.put(session.getId(), connection);
+        return connection;
+    }
+
+    Connection connection(String sessionId) {
+        return bySession.get(sessionId);
+    }
+
+    /**
+     * 사용자의 현재 연결로 등록 (같은 사용자의 이전 연결은 조회 대상에서 빠짐)
+     */
+    void bindUser(Connection connection) {
+        if (connection.userId() >= 0) {
+            byUser.put(connection.userId(), connection);
+        }
+    }
+
+    Connection user(long userId) {
+        return userId < 0 ? null : byUser.get(userId);
+    }
+
+    /**
+     * 채팅방/메시지에 담긴 문자열 userId 로 조회 (숫자가 아니면 이 노드에 없는 것으로 봄)
+     */
+    Connection user(String userId) {
+        return user(parseUserId(userId));
+    }
+
+    /**
+     * 등록 해제 - userId 쪽은 아직 이 연결을 가리킬 때만 지움 (재접속한 새 연결은 유지)
+     *
+     * @return 해제된 연결 (이미 해제됐으면 null)
+     */
+    Connection close(String sessionId) {
+        Connection connection = bySession.remove(sessionId);
+        if (connection != null && connection.userId() >= 0) {
+            byUser.remove(connection.userId(), connection);
+        }
+        return connection;
+    }
+
+    Set<String> sessionIds() {
+        return bySession.keySet();
+    }
+
+    Collection<Connection> connections() {
+        return bySession.values();
+    }
+
+    int size() {
+        return bySession.size();
+    }
+
+    int userCount() {
+        return byUser.size();
+    }
+
+    /**
+     * 10진 숫자 userId → long (null, 빈 문자열, 숫자 아닌 문자, 범위 초과면 -1) - 예외/박싱 없이
+     */
+    static long parseUserId(String userId) {
+        if (userId == null || userId.isEmpty() || userId.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < userId.length(); i++) {
+            char c = userId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
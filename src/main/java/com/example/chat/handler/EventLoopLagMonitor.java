@@ -0,0 +1,108 @@
+package com.example.chat.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 서버 이벤트 루프별 지연 측정
+ *
+ * 1초마다 각 이벤트 루프에 빈 작업을 넣고 실제로 실행되기까지 걸린 시간을 잰다.
+ * 루프가 블로킹 호출이나 긴 작업에 묶여 있으면 이 값이 커진다.
+ */
+@Component
+@Slf4j
+public class EventLoopLagMonitor {
+
+    private final ObjectProvider<ReactorResourceFactory> resourceFactory;
+    private final MeterRegistry meterRegistry;
+
+    private volatile List<EventExecutor> loops;
+    private volatile AtomicLongArray lastLagNanos;
+    private volatile AtomicLongArray maxLagNanos;  // 마지막 조회 이후 최대
+    private List<Timer> timers;
+
+    public EventLoopLagMonitor(ObjectProvider<ReactorResourceFactory> resourceFactory, MeterRegistry meterRegistry) {
+        this.resourceFactory = resourceFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelay = 1_000)
+    public void probe() {
+        List<EventExecutor> current = loops();
+        for (int i = 0; i < current.size(); i++) {
+            int index = i;
+            long scheduledAt = System.nanoTime();
+            try {
+                current.get(i).execute(() -> {
+                    long lag = System.nanoTime() - scheduledAt;
+                    lastLagNanos.set(index, lag);
+                    maxLagNanos.accumulateAndGet(index, lag, Math::max);
+                    timers.get(index).record(lag, TimeUnit.NANOSECONDS);
+                });
+            } catch (Exception e) {
+                // 종료 중인 루프
+                log.debug("Failed to probe event loop {}", index, e);
+            }
+        }
+    }
+
+    /**
+     * 루프별 최근 지연과 마지막 조회 이후 최대 지연
+     */
+    public List<LoopLag> snapshot() {
+        List<EventExecutor> current = loops();
+        List<LoopLag> result = new ArrayList<>(current.size());
+        for (int i = 0; i < current.size(); i++) {
+            result.add(new LoopLag(i, lastLagNanos.get(i) / 1_000, maxLagNanos.getAndSet(i, 0) / 1_000));
+        }
+        return result;
+    }
+
+    // 서버가 뜬 뒤에 처음 쓸 때 가져옴 (같은 전역 LoopResources 의 서버용 루프)
+    private List<EventExecutor> loops() {
+        List<EventExecutor> current = loops;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (loops == null) {
+                ReactorResourceFactory factory = resourceFactory.getIfAvailable();
+                LoopResources resources = factory != null ? factory.getLoopResources() : HttpResources.get();
+                EventLoopGroup group = resources.onServer(LoopResources.DEFAULT_NATIVE);
+
+                List<EventExecutor> found = new ArrayList<>();
+                group.forEach(found::add);
+                List<Timer> created = new ArrayList<>(found.size());
+                for (int i = 0; i < found.size(); i++) {
+                    created.add(Timer.builder("chat.eventloop.lag")
+                            .tag("loop", String.valueOf(i))
+                            .description("Delay before a task submitted to a server event loop runs")
+                            .publishPercentiles(0.99)
+                            .register(meterRegistry));
+                }
+                timers = created;
+                lastLagNanos = new AtomicLongArray(found.size());
+                maxLagNanos = new AtomicLongArray(found.size());
+                loops = found;
+            }
+            return loops;
+        }
+    }
+
+    public record LoopLag(int loop, long lastMicros, long maxMicros) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.InboundRateLimitProperties;
+import com.example.chat.config.InboundRateLimitProperties.Limit;
+import com.example.chat.model.MessageType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 세션별 / 사용자별 수신 프레임 토큰 버킷 제한
+ *
+ * 세션 버킷은 연결 종료 시 정리하고, 사용자 버킷은 일정 시간 사용이 없으면 정리한다.
+ */
+@Component
+@Slf4j
+public class InboundRateLimiter {
+
+    private static final long USER_BUCKET_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final InboundRateLimitProperties properties;
+
+    // sessionId -> 타입별 버킷
+    private final Map<String, Map<LimitType, TokenBucket>> sessionBuckets = new ConcurrentHashMap<>();
+
+    // userId -> 타입별 버킷
+    private final Map<Object, Map<LimitType, TokenBucket>> userBuckets = new ConcurrentHashMap<>();
+
+    private final Map<LimitType, Counter> sessionThrottled = new EnumMap<>(LimitType.class);
+    private final Map<LimitType, Counter> userThrottled = new EnumMap<>(LimitType.class);
+    private final LongAdder throttledTotal = new LongAdder();
+
+    public InboundRateLimiter(InboundRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (LimitType type : LimitType.values()) {
+            sessionThrottled.put(type, throttledCounter(meterRegistry, "session", type));
+            userThrottled.put(type, throttledCounter(meterRegistry, "user", type));
+        }
+    }
+
+    /**
+     * 수신 프레임 1개를 파싱 전에 세션 버킷(OTHER)에서 먼저 차감
+     *
+     * 해석되지 않거나 너무 큰 프레임도 파싱 비용을 치르기 전에 제한에 걸리도록 한다.
+     * 파싱된 뒤에는 tryAcquire 로 실제 타입에 맞게 다시 분류한다.
+     */
+    public boolean tryAcquireFrame(String sessionId) {
+        if (!sessionBucket(sessionId, LimitType.OTHER).tryConsume()) {
+            sessionThrottled.get(LimitType.OTHER).increment();
+            throttledTotal.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 파싱된 프레임 처리 허용 여부 (세션 → 사용자 순으로 확인)
+     *
+     * tryAcquireFrame 이 이미 세션 OTHER 토큰을 가져갔으므로, CHAT / SUBSCRIBE 면 그 토큰을 돌려주고
+     * 해당 타입 버킷에서 다시 차감한다.
+     *
+     * @param userId JWT 에서 꺼낸 사용자 ID (없으면 세션 제한만 적용)
+     */
+    public boolean tryAcquire(String sessionId, Object userId, MessageType messageType) {
+        LimitType type = LimitType.of(messageType);
+        Limit limit = limitOf(type);
+
+        if (type != LimitType.OTHER) {
+            sessionBucket(sessionId, LimitType.OTHER).refund();
+            if (!sessionBucket(sessionId, type).tryConsume()) {
+                sessionThrottled.get(type).increment();
+                throttledTotal.increment();
+                return false;
+            }
+        }
+
+        if (userId == null) {
+            return true;
+        }
+
+        TokenBucket userBucket = userBuckets
+                .computeIfAbsent(userId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, k -> new TokenBucket(limit.getUserBurst(), limit.getUserRate()));
+        if (!userBucket.tryConsume()) {
+            userThrottled.get(type).increment();
+            throttledTotal.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 연결 종료 시 세션 버킷 정리
+     */
+    public void release(String sessionId) {
+        sessionBuckets.remove(sessionId);
+    }
+
+    public int getMaxConcurrency() {
+        return properties.getMaxConcurrency();
+    }
+
+    public InboundRateLimitProperties.ViolationAction getViolationAction() {
+        return properties.getViolationAction();
+    }
+
+    public long getThrottledTotal() {
+        return throttledTotal.sum();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleUserBuckets() {
+        long threshold = System.nanoTime() - USER_BUCKET_IDLE_NANOS;
+        // nanoTime 은 부호가 넘어갈 수 있으므로 뺄셈 결과로 비교
+        userBuckets.values().removeIf(buckets -> buckets.values().stream()
+                .allMatch(bucket -> bucket.getLastUsedNanos() - threshold < 0));
+    }
+
+    private TokenBucket sessionBucket(String sessionId, LimitType type) {
+        Limit limit = limitOf(type);
+        return sessionBuckets
+                .computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, k -> new TokenBucket(limit.getSessionBurst(), limit.getSessionRate()));
+    }
+
+    private Limit limitOf(LimitType type) {
+        return switch (type) {
+            case CHAT -> properties.getChat();
+            case SUBSCRIBE -> properties.getSubscribe();
+            case OTHER -> properties.getOther();
+        };
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String scope, LimitType type) {
+        return Counter.builder("chat.inbound.throttled")
+                .description("Inbound WebSocket frames rejected by rate limit")
+                .tag("scope", scope)
+                .tag("type", type.name())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 제한 단위 (CHAT / SUBSCRIBE 외에는 하나로 묶음)
+     */
+    enum LimitType {
+        CHAT, SUBSCRIBE, OTHER;
+
+        static LimitType of(MessageType messageType) {
+            if (messageType == MessageType.CHAT) {
+                return CHAT;
+            }
+            if (messageType == MessageType.SUBSCRIBE) {
+                return SUBSCRIBE;
+            }
+            return OTHER;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.WebSocketKeepaliveProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 세션 유휴 검사용 해시 타이머 휠
+ *
+ * 세션마다 예약 작업을 만들지 않고, 각 세션을 다음 검사 시각의 칸에 넣어 두었다가 그 칸 차례에만 본다.
+ * - 수신 시: 마지막 수신 시각만 갱신 (휠은 건드리지 않음)
+ * - 칸 차례: 그동안 수신이 있었으면 (마지막 수신 + ping-interval) 칸으로 옮기고,
+ *   없으면 ping → pong-timeout 뒤에도 없으면 만료 콜백
+ * - 해제: 표시만 하고 칸 차례에 버림
+ *
+ * 한 tick 에 보는 세션 수는 대략 전체 × tick / ping-interval 이라 연결 수가 많아도 일정하게 나뉜다.
+ * 휠 한 바퀴가 ping-interval, pong-timeout 보다 길어서 세션은 항상 한 바퀴 안에 다시 검사된다.
+ */
+@Component
+@Slf4j
+public class KeepaliveWheel {
+
+    private final boolean enabled;
+    private final long tickNanos;
+    private final long pingIntervalNanos;
+    private final long pongTimeoutNanos;
+
+    private final Queue<Handle>[] wheel;
+    private final int mask;
+    private final long startedAt = System.nanoTime();
+
+    // 휠 스레드만 증가 (다른 스레드는 읽기만)
+    private volatile long currentTick;
+
+    private final AtomicInteger tracked = new AtomicInteger();
+    private final Counter pings;
+    private final Counter expired;
+
+    private final Scheduler scheduler;
+    private final Disposable ticker;
+
+    @SuppressWarnings("unchecked")
+    public KeepaliveWheel(WebSocketKeepaliveProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.tickNanos = Math.max(1, properties.getTick().toNanos());
+        this.pingIntervalNanos = properties.getPingInterval().toNanos();
+        this.pongTimeoutNanos = properties.getPongTimeout().toNanos();
+
+        long span = Math.max(pingIntervalNanos, pongTimeoutNanos) / tickNanos + 2;
+        int size = Integer.highestOneBit((int) Math.min(span, 1 << 20) - 1) << 1;
+        this.wheel = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+
+        Gauge.builder("chat.ws.keepalive.sessions", tracked, AtomicInteger::get)
+                .description("Sessions tracked by the keepalive timer wheel")
+                .register(meterRegistry);
+        this.pings = Counter.builder("chat.ws.keepalive.pings")
+                .description("Ping frames sent to idle sessions")
+                .register(meterRegistry);
+        this.expired = Counter.builder("chat.ws.keepalive.expired")
+                .description("Sessions closed for not answering a ping")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.scheduler = Schedulers.newSingle("ws-keepalive", true);
+            this.ticker = scheduler.schedulePeriodically(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+            log.info("WebSocket keepalive enabled (ping-interval={}, pong-timeout={}, wheel={} slots)",
+                    properties.getPingInterval(), properties.getPongTimeout(), size);
+        } else {
+            this.scheduler = null;
+            this.ticker = null;
+        }
+    }
+
+    /**
+     * 세션 등록 - 꺼져 있으면 아무것도 하지 않는 핸들
+     *
+     * @param ping   ping 프레임 전송 (휠 스레드에서 호출 → 바로 넘기기만 할 것)
+     * @param expire 응답 없음 → 연결 종료 (한 번만 호출)
+     */
+    public Handle register(Runnable ping, Runnable expire) {
+        Handle handle = new Handle(ping, expire, now());
+        if (enabled) {
+            tracked.incrementAndGet();
+            place(handle, handle.lastActivity + pingIntervalNanos);
+        }
+        return handle;
+    }
+
+    private void tick() {
+        try {
+            long tick = currentTick + 1;
+            Queue<Handle> slot = wheel[(int) (tick & mask)];
+            currentTick = tick;
+
+            long now = now();
+            Handle handle;
+            // 이번 칸에서 꺼낸 세션은 항상 뒤쪽 칸으로 옮기므로 같은 칸을 다시 돌지 않음
+            while ((handle = slot.poll()) != null) {
+                check(handle, now);
+            }
+        } catch (Exception e) {
+            log.error("Keepalive tick failed", e);
+        }
+    }
+
+    private void check(Handle handle, long now) {
+        if (handle.cancelled) {
+            return;
+        }
+        long lastActivity = handle.lastActivity;
+        long idle = now - lastActivity;
+
+        if (idle < pingIntervalNanos) {
+            handle.pingSentAt = 0;
+            place(handle, lastActivity + pingIntervalNanos);
+            return;
+        }
+
+        if (handle.pingSentAt == 0 || handle.pingSentAt < lastActivity) {
+            handle.pingSentAt = now;
+            pings.increment();
+            run(handle.ping);
+            place(handle, now + pongTimeoutNanos);
+            return;
+        }
+
+        if (now - handle.pingSentAt >= pongTimeoutNanos) {
+            handle.cancel();
+            expired.increment();
+            run(handle.expire);
+            return;
+        }
+        place(handle, handle.pingSentAt + pongTimeoutNanos);
+    }
+
+    private void place(Handle handle, long deadline) {
+        long tick = currentTick;
+        long ticks = Math.max(1, (deadline - startedAt + tickNanos - 1) / tickNanos - tick);
+        wheel[(int) ((tick + Math.min(ticks, mask)) & mask)].offer(handle);
+    }
+
+    private static void run(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("Keepalive callback failed", e);
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (ticker != null) {
+            ticker.dispose();
+            scheduler.dispose();
+        }
+    }
+
+    /**
+     * 세션 하나의 keepalive 상태
+     */
+    public final class Handle {
+
+        private final Runnable ping;
+        private final Runnable expire;
+        private volatile long lastActivity;
+        private volatile boolean cancelled;
+        private long pingSentAt;  // 휠 스레드 전용
+
+        private Handle(Runnable ping, Runnable expire, long now) {
+            this.ping = ping;
+            this.expire = expire;
+            this.lastActivity = now;
+        }
+
+        /**
+         * 수신 프레임이 있을 때마다 호출 (pong 포함)
+         */
+        public void touch() {
+            lastActivity = now();
+        }
+
+        /**
+         * 연결 종료 시 해제 (휠에서는 칸 차례에 빠짐)
+         */
+        public synchronized void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                if (enabled) {
+                    tracked.decrementAndGet();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.chat.handler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 같은 노드에서 이미 전달한 메시지 ID 기록
+ *
+ * 발신자/수신자가 같은 서버에 붙어 있으면 Redis 왕복 없이 바로 수신자 Sink로 보내고,
+ * 뒤늦게 Redis 에서 돌아오는 같은 메시지는 여기서 걸러낸다.
+ * Redis 로 받은 메시지도 기록해 두어, 같은 메시지가 두 번 발행돼도 (발행 시간 초과 후
+ * Lettuce 가 재연결하며 늦게 보낸 원본 + 복구 후 재생본) 한 번만 전달한다.
+ */
+@Component
+@Slf4j
+public class LocalDeliveryCache {
+
+    // 중복 사본이 올 수 있는 기간 (chat.redis.failover.replay-max-age 기본값과 같음) 이후 정리
+    private static final long RETENTION_MILLIS = 60_000;
+
+    // 이 이상이면 새 수신 기록은 남기지 않음 (중복 제거보다 힙을 우선)
+    private static final int MAX_ENTRIES = 1_000_000;
+
+    // messageId -> 로컬 전달 시각
+    private final Map<String, Long> delivered = new ConcurrentHashMap<>();
+
+    /**
+     * 로컬 전달 기록 (Redis 발행 전에 호출해야 사본을 확실히 걸러냄)
+     */
+    public void markDelivered(String messageId) {
+        if (messageId != null) {
+            delivered.put(messageId, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Redis 사본 도착 시 호출 - 이미 이 노드에서 전달한 메시지면 true, 처음이면 기록하고 false
+     */
+    public boolean alreadyDelivered(String messageId) {
+        if (messageId == null) {
+            return false;
+        }
+        if (delivered.size() >= MAX_ENTRIES) {
+            return delivered.containsKey(messageId);
+        }
+        return delivered.putIfAbsent(messageId, System.currentTimeMillis()) != null;
+    }
+
+    public int size() {
+        return delivered.size();
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - RETENTION_MILLIS;
+        int before = delivered.size();
+        delivered.values().removeIf(deliveredAt -> deliveredAt < threshold);
+        int evicted = before - delivered.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} stale local delivery records", evicted);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.chat.handler;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * userId(long) → Connection 해시 (박싱된 Long / 문자열 키 없이)
+ *
+ * 조각마다 개방 주소(선형 탐사) 배열 하나와 StampedLock 을 둔다.
+ * 조회는 낙관적 읽기로 잠금 없이 하고, 그 사이 쓰기가 있었으면 읽기 잠금으로 다시 읽는다.
+ * 항목 하나가 키 8바이트 + 참조 하나라서 ConcurrentHashMap 노드(+ 문자열 키)보다 훨씬 작다.
+ */
+final class LongConnectionMap {
+
+    private static final int SEGMENTS = 64;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    LongConnectionMap() {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    Connection get(long key) {
+        int hash = mix(key);
+        return segments[hash & (SEGMENTS - 1)].get(key, hash);
+    }
+
+    /**
+     * @return 이전 연결 (없으면 null)
+     */
+    Connection put(long key, Connection value) {
+        int hash = mix(key);
+        return segments[hash & (SEGMENTS - 1)].put(key, hash, value);
+    }
+
+    /**
+     * 지금 값이 expected 일 때만 제거 (재접속한 새 연결을 지우지 않도록)
+     */
+    boolean remove(long key, Connection expected) {
+        int hash = mix(key);
+        return segments[hash & (SEGMENTS - 1)].remove(key, hash, expected);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    // murmur3 fmix64 - 연속된 userId 도 조각/슬롯에 고르게 퍼지도록
+    private static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    // 키와 값 배열을 한 번에 바꿔 끼우기 위한 묶음 (낙관적 읽기가 서로 다른 세대의 배열을 섞어 보지 않도록)
+    private record Table(long[] keys, Connection[] values) {
+
+        Table(int capacity) {
+            this(new long[capacity], new Connection[capacity]);
+        }
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+        private volatile int size;
+
+        Connection get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            Connection value = find(table, key, hash);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        Connection put(long key, int hash, Connection value) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int mask = current.keys.length - 1;
+                // 조각 선택에 쓴 하위 비트는 빼고 슬롯 위치를 정함
+                for (int i = (hash >>> 6) & mask; ; i = (i + 1) & mask) {
+                    Connection existing = current.values[i];
+                    if (existing == null) {
+                        current.keys[i] = key;
+                        current.values[i] = value;
+                        if (++size * 4 > current.keys.length * 3) {
+                            table = resize(current);
+                        }
+                        return null;
+                    }
+                    if (current.keys[i] == key) {
+                        current.values[i] = value;
+                        return existing;
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        boolean remove(long key, int hash, Connection expected) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                long[] keys = current.keys;
+                Connection[] values = current.values;
+                int mask = keys.length - 1;
+                int i = (hash >>> 6) & mask;
+                while (values[i] != null && keys[i] != key) {
+                    i = (i + 1) & mask;
+                }
+                if (values[i] != expected || values[i] == null) {
+                    return false;
+                }
+                // 뒤쪽 항목을 당겨 빈칸 없이 유지 (삭제 표시 없이 탐사가 끊기지 않도록)
+                int gap = i;
+                for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                    int home = (mix(keys[j]) >>> 6) & mask;
+                    if (((j - home) & mask) >= ((j - gap) & mask)) {
+                        keys[gap] = keys[j];
+                        values[gap] = values[j];
+                        gap = j;
+                    }
+                }
+                values[gap] = null;
+                size--;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private static Connection find(Table current, long key, int hash) {
+            long[] keys = current.keys;
+            Connection[] values = current.values;
+            int mask = keys.length - 1;
+            // 쓰기와 겹친 낙관적 읽기가 끝없이 돌지 않도록 한 바퀴까지만
+            for (int i = (hash >>> 6) & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++) {
+                Connection value = values[i];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[i] == key) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        private static Table resize(Table current) {
+            Table next = new Table(current.keys.length * 2);
+            int mask = next.keys.length - 1;
+            for (int i = 0; i < current.keys.length; i++) {
+                Connection value = current.values[i];
+                if (value == null) {
+                    continue;
+                }
+                long key = current.keys[i];
+                int j = (mix(key) >>> 6) & mask;
+                while (next.values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                next.keys[j] = key;
+                next.values[j] = value;
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.FanoutProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 그룹 채팅방 전달 분할기
+ *
+ * 구독자 조각마다 전용 워커(이벤트 루프 수만큼)에 전달 작업 하나씩만 넘기므로,
+ * 메시지를 받은 스레드(채팅방 순차 구간)의 비용은 참여자 수와 상관없이 조각 수에 비례한다.
+ * 조각 i 는 항상 워커 i 에서 FIFO 로 실행되어 사용자별 순서가 유지된다.
+ *
+ * 노드 간 분할은 전달 경로가 맡는다: 각 노드는 발행본을 받아 자기 노드의 구독자에게만 나눠 보낸다.
+ */
+@Component
+@Slf4j
+public class RoomFanout {
+
+    private final Scheduler.Worker[] workers;
+    private final DistributionSummary recipients;
+    private final Timer shardTime;
+
+    public RoomFanout(FanoutProperties properties, MeterRegistry meterRegistry) {
+        int shards = properties.getShards() > 0
+                ? properties.getShards()
+                : Runtime.getRuntime().availableProcessors();
+        this.workers = new Scheduler.Worker[shards];
+        for (int i = 0; i < shards; i++) {
+            workers[i] = Schedulers.parallel().createWorker();
+        }
+
+        this.recipients = DistributionSummary.builder("chat.fanout.recipients")
+                .description("Local subscribers per group room delivery")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.shardTime = Timer.builder("chat.fanout.shard")
+                .description("Time to hand one message to one shard of a group room")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        log.info("Room fan-out initialized: shards={}", shards);
+    }
+
+    /**
+     * 채팅방별 구독자 집합 생성 (조각 수를 워커 수에 맞춤)
+     */
+    RoomSubscribers newSubscribers(String roomId) {
+        return new RoomSubscribers(roomId, workers.length);
+    }
+
+    /**
+     * 조각별 워커에서 구독 연결마다 action 실행 (호출 스레드는 작업 제출만)
+     */
+    void deliver(RoomSubscribers subscribers, Consumer<Connection> action) {
+        recipients.record(subscribers.size());
+        for (int i = 0; i < subscribers.shardCount(); i++) {
+            Set<Connection> shard = subscribers.shard(i);
+            if (shard.isEmpty()) {
+                continue;
+            }
+            workers[i].schedule(() -> shardTime.record(() -> shard.forEach(action)));
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (Scheduler.Worker worker : workers) {
+            worker.dispose();
+        }
+    }
+}
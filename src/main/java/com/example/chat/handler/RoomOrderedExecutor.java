@@ -0,0 +1,80 @@
+package com.example.chat.handler;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 채팅방 단위 순차 실행기
+ *
+ * 같은 채팅방의 작업은 제출 순서대로 하나씩, 다른 채팅방끼리는 병렬로 실행된다.
+ * 대기 중인 작업이 없는 채팅방은 맵에서 제거되므로 방 개수만큼 상태가 남지 않는다.
+ */
+@Component
+public class RoomOrderedExecutor {
+
+    private final Map<String, RoomQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 작업 제출 - 반환된 Mono 를 구독하는 시점에 대기열에 들어간다
+     */
+    public <T> Mono<T> submit(String chatRoomId, Supplier<Mono<T>> task) {
+        return Mono.create(sink -> {
+            Runnable runnable = () -> Mono.defer(task)
+                    .doFinally(signal -> complete(chatRoomId))
+                    .subscribe(sink::success, sink::error, sink::success);
+
+            boolean[] idle = new boolean[1];
+            queues.compute(chatRoomId, (key, queue) -> {
+                if (queue == null) {
+                    queue = new RoomQueue();
+                }
+                idle[0] = queue.pending++ == 0;
+                if (!idle[0]) {
+                    queue.tasks.offer(runnable);
+                }
+                return queue;
+            });
+
+            // 대기 중인 작업이 없으면 호출 스레드에서 바로 실행
+            if (idle[0]) {
+                runnable.run();
+            }
+        });
+    }
+
+    /**
+     * 현재 대기/실행 중인 작업이 있는 채팅방 수
+     */
+    public int activeRooms() {
+        return queues.size();
+    }
+
+    private void complete(String chatRoomId) {
+        Runnable[] next = new Runnable[1];
+        queues.computeIfPresent(chatRoomId, (key, queue) -> {
+            if (--queue.pending == 0) {
+                return null;
+            }
+            next[0] = queue.tasks.poll();
+            return queue;
+        });
+
+        // 동기 완료가 이어져도 스택이 쌓이지 않도록 다음 작업은 스케줄러로 넘김
+        if (next[0] != null) {
+            Schedulers.parallel().schedule(next[0]);
+        }
+    }
+
+    // compute() 의 키 잠금 안에서만 접근
+    private static final class RoomQueue {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private int pending;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.IntrospectionProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 채팅방별 메시지 비율 상위 N 근사 집계 (Space-Saving)
+ *
+ * 최대 tracked-rooms 개 채팅방만 세고, 자리가 없으면 가장 적게 센 채팅방을 밀어내고 그 수에서 이어 센다.
+ * 실제 상위 채팅방은 빠지지 않으며 각 수치는 최대 error 만큼 부풀려질 수 있다.
+ * rate-window 마다 구간을 넘기고 직전 구간 + 현재 구간으로 비율을 계산한다.
+ * 메모리와 조회 비용이 채팅방 수와 상관없이 고정이다.
+ *
+ * CHAT 마다 불리므로 스레드별 조각(stripe)에 따로 세고 top() 에서 합친다.
+ * 조각 안은 같은 수끼리 묶은 버킷 목록(Stream-Summary)이라 증가와 밀어내기가 O(1) 이다.
+ */
+@Component
+public class RoomRateTracker {
+
+    private final int capacity;
+    private final long windowNanos;
+    private final long origin = System.nanoTime();
+    private final Stripe[] stripes;
+
+    public RoomRateTracker(IntrospectionProperties properties) {
+        this.capacity = Math.max(1, properties.getTrackedRooms());
+        this.windowNanos = properties.getRateWindow().toNanos();
+
+        // 코어 수 이상 2의 거듭제곱 - 이벤트 루프 스레드끼리는 거의 겹치지 않음
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * 메시지 1건 기록
+     */
+    public void record(String chatRoomId) {
+        long window = windowOf(System.nanoTime());
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        synchronized (stripe) {
+            stripe.rotate(window);
+            stripe.current.increment(chatRoomId);
+        }
+    }
+
+    /**
+     * 메시지 비율 상위 채팅방
+     */
+    public List<RoomRate> top(int limit) {
+        long now = System.nanoTime();
+        long window = windowOf(now);
+
+        // 조각마다 두 구간을 합쳐서 더함 - 어느 조각에 없는 채팅방은 그 조각에서 최대 floor 건이었을 수 있으므로
+        // 수치와 error 에 floor 를 더해 "부풀려졌을 수는 있어도 모자라지 않음" 을 유지
+        List<Map<String, long[]>> snapshots = new ArrayList<>(stripes.length);
+        long[] floors = new long[stripes.length];
+        boolean hasPrevious = false;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[i];
+            Map<String, long[]> counts = new HashMap<>();
+            synchronized (stripe) {
+                stripe.rotate(window);
+                hasPrevious |= !stripe.previous.counts.isEmpty();
+                stripe.previous.addTo(counts);
+                stripe.current.addTo(counts);
+                floors[i] = stripe.previous.floor() + stripe.current.floor();
+            }
+            snapshots.add(counts);
+        }
+
+        Map<String, long[]> merged = new HashMap<>();
+        for (int i = 0; i < snapshots.size(); i++) {
+            for (Map.Entry<String, long[]> entry : snapshots.get(i).entrySet()) {
+                long[] total = merged.get(entry.getKey());
+                if (total == null) {
+                    total = new long[2];
+                    for (int j = 0; j < snapshots.size(); j++) {
+                        if (!snapshots.get(j).containsKey(entry.getKey())) {
+                            total[0] += floors[j];
+                            total[1] += floors[j];
+                        }
+                    }
+                    merged.put(entry.getKey(), total);
+                }
+                total[0] += entry.getValue()[0];
+                total[1] += entry.getValue()[1];
+            }
+        }
+
+        double seconds = (now - origin - window * windowNanos + (hasPrevious ? windowNanos : 0)) / 1e9;
+        return merged.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> entry) -> entry.getValue()[0]).reversed())
+                .limit(limit)
+                .map(entry -> new RoomRate(entry.getKey(), entry.getValue()[0] / Math.max(seconds, 1e-3),
+                        entry.getValue()[0], entry.getValue()[1]))
+                .toList();
+    }
+
+    // 구간은 모든 조각이 같은 경계를 쓰도록 시작 시각 기준 번호로 나눔
+    private long windowOf(long now) {
+        return (now - origin) / windowNanos;
+    }
+
+    /**
+     * @param messagesPerSecond 근사 비율
+     * @param error             수치가 부풀려졌을 수 있는 최대 건수
+     */
+    public record RoomRate(String chatRoomId, double messagesPerSecond, long messages, long error) {
+    }
+
+    // 스레드 조각 하나 (자기 모니터로 보호)
+    private final class Stripe {
+
+        private Window current = new Window();
+        private Window previous = new Window();
+        private long window;
+
+        private void rotate(long now) {
+            if (now == window) {
+                return;
+            }
+            // 한 구간 넘게 조용했으면 직전 구간도 비움
+            previous = now == window + 1 ? current : new Window();
+            current = new Window();
+            window = now;
+        }
+    }
+
+    // Space-Saving 한 구간 - 같은 수의 카운터를 버킷 하나에 묶고 버킷은 수 오름차순 연결 목록
+    private final class Window {
+
+        private final Map<String, Counter> counts = new HashMap<>();
+        private Bucket lowest;
+
+        private void increment(String chatRoomId) {
+            Counter counter = counts.get(chatRoomId);
+            if (counter != null) {
+                promote(counter);
+                return;
+            }
+            if (counts.size() < capacity) {
+                counter = new Counter(chatRoomId, 0);
+                counts.put(chatRoomId, counter);
+                attach(counter, bucketAfter(null, 1));
+                return;
+            }
+            // 가장 적게 센 채팅방 자리를 넘겨받아 그 수에서 이어 셈
+            Counter evicted = lowest.head;
+            counts.remove(evicted.chatRoomId);
+            Bucket bucket = evicted.bucket;
+            detach(evicted);
+            counter = new Counter(chatRoomId, bucket.count);
+            counts.put(chatRoomId, counter);
+            attach(counter, bucket.head == null ? unlinkAndNext(bucket, bucket.count + 1) : bucketAfter(bucket, bucket.count + 1));
+        }
+
+        private void promote(Counter counter) {
+            Bucket bucket = counter.bucket;
+            long next = bucket.count + 1;
+            detach(counter);
+            attach(counter, bucket.head == null ? unlinkAndNext(bucket, next) : bucketAfter(bucket, next));
+        }
+
+        // 비어 버린 버킷 자리에 count 버킷을 찾거나 만들고 빈 버킷은 목록에서 뺌
+        private Bucket unlinkAndNext(Bucket empty, long count) {
+            Bucket target = bucketAfter(empty, count);
+            Bucket prev = empty.prev;
+            Bucket next = empty.next;
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                lowest = next;
+            }
+            next.prev = prev;
+            return target;
+        }
+
+        // after 바로 다음이 count 버킷이면 그것, 아니면 새로 끼워 넣음 (after == null 이면 맨 앞)
+        private Bucket bucketAfter(Bucket after, long count) {
+            Bucket next = after == null ? lowest : after.next;
+            if (next != null && next.count == count) {
+                return next;
+            }
+            Bucket bucket = new Bucket(count);
+            bucket.prev = after;
+            bucket.next = next;
+            if (next != null) {
+                next.prev = bucket;
+            }
+            if (after != null) {
+                after.next = bucket;
+            } else {
+                lowest = bucket;
+            }
+            return bucket;
+        }
+
+        private void attach(Counter counter, Bucket bucket) {
+            counter.bucket = bucket;
+            counter.prev = null;
+            counter.next = bucket.head;
+            if (bucket.head != null) {
+                bucket.head.prev = counter;
+            }
+            bucket.head = counter;
+        }
+
+        private void detach(Counter counter) {
+            Bucket bucket = counter.bucket;
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                bucket.head = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+        }
+
+        // 가득 찼을 때 세지 않은 채팅방이 가졌을 수 있는 최대 수
+        private long floor() {
+            return counts.size() < capacity || lowest == null ? 0 : lowest.count;
+        }
+
+        private void addTo(Map<String, long[]> sums) {
+            counts.forEach((chatRoomId, counter) -> {
+                long[] sum = sums.computeIfAbsent(chatRoomId, key -> new long[2]);
+                sum[0] += counter.bucket.count;
+                sum[1] += counter.error;
+            });
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long count;
+        private Counter head;
+        private Bucket prev;
+        private Bucket next;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private static final class Counter {
+
+        private final String chatRoomId;
+        private final long error;
+        private Bucket bucket;
+        private Counter prev;
+        private Counter next;
+
+        private Counter(String chatRoomId, long error) {
+            this.chatRoomId = chatRoomId;
+            this.error = error;
+        }
+    }
+}
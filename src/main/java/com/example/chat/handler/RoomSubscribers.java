@@ -0,0 +1,112 @@
+package com.example.chat.handler;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * 이 노드에서 채팅방 하나를 구독 중인 연결 (userId 해시로 조각을 나눠 보관)
+ *
+ * 같은 사용자는 항상 같은 조각에 들어가므로, 조각별로 순서대로 전달하면 사용자별 메시지 순서가 유지된다.
+ * 연결을 직접 들고 있어서 전달할 때 사용자 조회가 필요 없다.
+ *
+ * 조각은 처음 들어오는 연결이 있을 때 만들고 비면 버린다. 대부분인 1:1 / 소규모 채팅방은
+ * 참여자 수만큼의 조각만 들고 있게 된다 (조각 수만큼 미리 만들지 않음).
+ */
+final class RoomSubscribers implements Iterable<Connection> {
+
+    // 채팅방 ID (맵 키와 같은 인스턴스 - 연결들은 이 객체를 통해 같은 문자열을 공유)
+    private final String roomId;
+
+    // 변경은 synchronized 안에서만, 읽기(전달)는 잠금 없이
+    private final AtomicReferenceArray<Set<Connection>> shards;
+
+    // 그룹 채팅방 여부 (첫 SUBSCRIBE 에서 채팅방을 조회한 뒤 표시)
+    private volatile boolean group;
+
+    RoomSubscribers(String roomId, int shardCount) {
+        this.roomId = roomId;
+        this.shards = new AtomicReferenceArray<>(shardCount);
+    }
+
+    String roomId() {
+        return roomId;
+    }
+
+    void markGroup() {
+        group = true;
+    }
+
+    boolean isGroup() {
+        return group;
+    }
+
+    synchronized boolean add(Connection connection) {
+        int index = shardOf(connection);
+        Set<Connection> shard = shards.get(index);
+        if (shard == null) {
+            shard = ConcurrentHashMap.newKeySet();
+            shards.set(index, shard);
+        }
+        return shard.add(connection);
+    }
+
+    synchronized boolean remove(Connection connection) {
+        int index = shardOf(connection);
+        Set<Connection> shard = shards.get(index);
+        if (shard == null || !shard.remove(connection)) {
+            return false;
+        }
+        if (shard.isEmpty()) {
+            shards.set(index, null);
+        }
+        return true;
+    }
+
+    boolean isEmpty() {
+        for (int i = 0; i < shards.length(); i++) {
+            Set<Connection> shard = shards.get(i);
+            if (shard != null && !shard.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        int size = 0;
+        for (int i = 0; i < shards.length(); i++) {
+            Set<Connection> shard = shards.get(i);
+            if (shard != null) {
+                size += shard.size();
+            }
+        }
+        return size;
+    }
+
+    int shardCount() {
+        return shards.length();
+    }
+
+    /**
+     * 조각 i 의 연결 (아직 만들어지지 않았으면 빈 집합)
+     */
+    Set<Connection> shard(int index) {
+        Set<Connection> shard = shards.get(index);
+        return shard != null ? shard : Set.of();
+    }
+
+    @Override
+    public Iterator<Connection> iterator() {
+        return IntStream.range(0, shards.length())
+                .mapToObj(this::shard)
+                .flatMap(Set::stream)
+                .iterator();
+    }
+
+    private int shardOf(Connection connection) {
+        return Math.floorMod(Long.hashCode(connection.userId()), shards.length());
+    }
+}
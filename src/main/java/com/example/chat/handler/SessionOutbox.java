@@ -0,0 +1,207 @@
+package com.example.chat.handler;
+
+import com.example.chat.model.WebSocketMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 세션 하나의 송신 큐
+ *
+ * 어느 스레드에서든 offer 할 수 있고, 실제 전송은 세션 전용 워커에서 한 번에 하나씩 큐를 비우며 한다.
+ * 프레임은 소켓 쪽 요청(demand)이 있을 때만 큐에서 꺼내므로, 소켓이 쓰기 불가로 요청을 멈춘 동안
+ * 쌓인 메시지가 backlog 이며, 묶음을 허용한 세션이면 backlog 전체(최대 maxBatch)를 프레임 하나로 보낸다.
+ * - 한가할 때: 큐에 1건뿐이므로 지금처럼 메시지당 프레임 1개
+ * - 몰릴 때: 소켓이 밀린 만큼 묶음이 커져 프레임/flush 수가 줄어듦
+ *
+ * 밀린 메시지 수를 세고, backlogThreshold 를 넘으면 backlogged 집합에 올린다 (느린 소비자 조회는 이 집합만 봄).
+ * maxQueued 를 넘으면 메시지를 버리고 onOverflow 를 한 번 호출한다 (핸들러가 연결을 닫음).
+ */
+final class SessionOutbox {
+
+    /**
+     * 프로토콜 ping 프레임 자리 (frames() 에서 같은 참조로 구분)
+     */
+    static final List<WebSocketMessage> PING = List.of();
+
+    private final Queue<WebSocketMessage> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Scheduler.Worker worker = Schedulers.parallel().createWorker();
+
+    // 워커에서만 emit (frames() 구독 전에는 null)
+    private volatile FluxSink<List<WebSocketMessage>> sink;
+
+    private final String sessionId;
+    private final int maxBatch;
+    private final Set<SessionOutbox> backlogged;
+    private final int backlogThreshold;
+    private final int maxQueued;
+    private final Runnable onOverflow;
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    private volatile boolean completed;
+    private volatile boolean disposed;
+    private volatile boolean pingRequested;
+    private boolean terminated;
+
+    /**
+     * @param maxBatch         프레임 하나에 담을 최대 메시지 수 (1이면 묶지 않음)
+     * @param backlogged       밀린 세션 집합 (핸들러 공용)
+     * @param backlogThreshold 집합에 올릴 밀린 메시지 수
+     * @param maxQueued        송신 큐 상한 (넘으면 버리고 onOverflow)
+     * @param onOverflow       상한을 처음 넘었을 때 호출 (offer 한 스레드에서)
+     */
+    SessionOutbox(String sessionId, int maxBatch, Set<SessionOutbox> backlogged, int backlogThreshold,
+                  int maxQueued, Runnable onOverflow) {
+        this.sessionId = sessionId;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.backlogged = backlogged;
+        this.backlogThreshold = Math.max(1, backlogThreshold);
+        this.maxQueued = Math.max(1, maxQueued);
+        this.onOverflow = onOverflow;
+    }
+
+    /**
+     * 송신 큐에 추가 - 이미 닫혔거나 상한을 넘었으면 false
+     */
+    boolean offer(WebSocketMessage message) {
+        if (completed) {
+            return false;
+        }
+        int queued = backlog.incrementAndGet();
+        if (queued > maxQueued) {
+            backlog.decrementAndGet();
+            if (overflowed.compareAndSet(false, true)) {
+                onOverflow.run();
+            }
+            return false;
+        }
+        queue.offer(message);
+        if (queued == backlogThreshold) {
+            backlogged.add(this);
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * ping 프레임 전송 요청 (같은 워커에서 내보내므로 메시지 프레임과 섞여도 안전)
+     */
+    void ping() {
+        if (!completed) {
+            pingRequested = true;
+            schedule();
+        }
+    }
+
+    /**
+     * 남은 메시지를 다 보낸 뒤 프레임 스트림 종료
+     */
+    void complete() {
+        completed = true;
+        schedule();
+    }
+
+    /**
+     * 연결 종료 후 정리 (대기 중인 메시지는 버림) - 정리와 스트림 종료는 워커에서
+     */
+    void dispose() {
+        completed = true;
+        disposed = true;
+        schedule();
+    }
+
+    /**
+     * 프레임 단위 메시지 묶음 (보통 1건, backlog 가 있으면 여러 건, PING 이면 ping 프레임)
+     *
+     * 한 번만 구독한다 (세션 송신 스트림).
+     */
+    Flux<List<WebSocketMessage>> frames() {
+        return Flux.create(sink -> {
+            this.sink = sink;
+            // 요청이 들어오면 (소켓이 다시 쓰기 가능해지면) 밀린 메시지를 꺼냄
+            sink.onRequest(n -> schedule());
+            schedule();
+        });
+    }
+
+    String sessionId() {
+        return sessionId;
+    }
+
+    /**
+     * 아직 소켓에 넘기지 못한 메시지 수
+     */
+    int backlog() {
+        return backlog.get();
+    }
+
+    private void taken(int messages) {
+        if (backlog.addAndGet(-messages) < backlogThreshold) {
+            backlogged.remove(this);
+        }
+    }
+
+    private void schedule() {
+        if (wip.getAndIncrement() == 0) {
+            worker.schedule(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            if (disposed) {
+                // wip 를 돌려놓지 않음 → 이후 schedule() 은 워커에 아무것도 넣지 않음
+                queue.clear();
+                backlogged.remove(this);
+                terminate();
+                worker.dispose();
+                return;
+            }
+            FluxSink<List<WebSocketMessage>> current = sink;
+            if (current != null) {
+                emit(current);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // 요청 수만큼만 큐에서 꺼내 내보냄 (요청이 없으면 큐에 남아 다음 묶음에 합쳐짐)
+    private void emit(FluxSink<List<WebSocketMessage>> current) {
+        if (pingRequested && current.requestedFromDownstream() > 0) {
+            pingRequested = false;
+            current.next(PING);
+        }
+        while (current.requestedFromDownstream() > 0 && !queue.isEmpty()) {
+            List<WebSocketMessage> batch = new ArrayList<>(Math.min(maxBatch, backlog.get()));
+            WebSocketMessage message;
+            while (batch.size() < maxBatch && (message = queue.poll()) != null) {
+                batch.add(message);
+            }
+            taken(batch.size());
+            current.next(batch);
+        }
+        if (completed && queue.isEmpty()) {
+            terminate();
+        }
+    }
+
+    // 구독 전이면 아무것도 하지 않음 (구독 후 다음 drain 에서 다시 확인)
+    private void terminate() {
+        FluxSink<List<WebSocketMessage>> current = sink;
+        if (!terminated && current != null) {
+            terminated = true;
+            current.complete();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.chat.handler;
+
+/**
+ * 토큰 버킷 (capacity 만큼 버스트 허용, 초당 refillPerSecond 개 충전)
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private volatile long lastUsedNanos;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastUsedNanos = lastRefillNanos;
+    }
+
+    public synchronized boolean tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+        lastUsedNanos = now;
+
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 잘못 분류해서 가져간 토큰 1개 반환 (capacity 를 넘지 않음)
+     */
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1.0);
+    }
+
+    public long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.chat.model;
+
+public enum AckStatus {
+    PERSISTED,   // MongoDB 저장 완료
+    DUPLICATE,   // 같은 clientMessageId 재전송 (기존 메시지 ID로 응답, 재전달 안 함)
+    FAILED       // 저장 실패 (같은 clientMessageId로 재전송 가능)
+}
@@ -0,0 +1,39 @@
+package com.example.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.regex.Pattern;
+
+/**
+ * 첨부 파일 메타데이터 (attachments 컬렉션, 내용은 로컬 파일)
+ *
+ * ID 가 내용의 SHA-256 이라 같은 파일은 몇 번을 올려도 한 건만 저장된다.
+ */
+@Document(collection = "attachments")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Attachment {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    @Id
+    private String id;  // SHA-256 (소문자 hex)
+
+    private long size;
+    private String contentType;
+    private String uploaderId;  // 처음 올린 사용자
+    private Instant createdAt;
+
+    // 경로로 쓰이므로 형식이 맞는 해시만 허용
+    public static boolean isValidId(String id) {
+        return id != null && ID_PATTERN.matcher(id).matches();
+    }
+}
@@ -5,12 +5,22 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.List;
 
 @Document(collection = "messages")
+@CompoundIndexes({
+        @CompoundIndex(name = "sender_client_msg_idx", def = "{'senderId': 1, 'clientMessageId': 1}",
+                unique = true, partialFilter = "{'clientMessageId': {$exists: true}}"),
+        @CompoundIndex(name = "room_seq_idx", def = "{'chatRoomId': 1, 'seq': 1}"),
+        // 채팅방 안 검색용 텍스트 인덱스 ($text 쿼리에 chatRoomId 동등 조건 필수)
+        @CompoundIndex(name = "room_content_text_idx", def = "{'chatRoomId': 1, 'content': 'text'}")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,11 +28,15 @@ import java.time.Instant;
 public class ChatMessage {
 
     @Id
-    private String id;
+    private String id;  // 수신 시점에 서버가 ObjectId 발급
+
+    private String clientMessageId;  // 클라이언트 멱등성 키 (재전송 시 동일)
 
     @Indexed
     private String chatRoomId;
 
+    private Long seq;  // 채팅방 내 단조 증가 순번 (Redis INCR)
+
     private String senderId;
     private String senderName;  // 테스트용 (실제론 User 서비스에서 가져와야 함)
 
@@ -30,6 +44,8 @@ public class ChatMessage {
 
     private String content;
 
+    private List<String> attachments;  // 첨부 ID (내용 SHA-256)
+
     @Indexed
     private Instant timestamp;
 
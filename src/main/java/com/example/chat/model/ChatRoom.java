@@ -1,17 +1,20 @@
 package com.example.chat.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "chat_rooms")
-@CompoundIndex(name = "user1_user2_idx", def = "{'user1Id': 1, 'user2Id': 1}", unique = true)
+// 그룹 채팅방에는 user1Id/user2Id 가 없으므로 sparse (없는 문서끼리 충돌하지 않도록)
+@CompoundIndex(name = "user1_user2_idx", def = "{'user1Id': 1, 'user2Id': 1}", unique = true, sparse = true)
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,15 +24,24 @@ public class ChatRoom {
     @Id
     private String id;
 
+    private Kind kind;  // 없으면 DIRECT (기존 문서)
+
+    // DIRECT 전용
     private String user1Id;
     private String user2Id;
 
+    // GROUP 전용 (참여자 목록은 room_members 컬렉션에 따로 저장)
+    private String name;
+    private Long memberCount;
+
     // 기존 백엔드의 매칭 정보
     private Long matchId;  // MySQL의 matches 테이블 ID
     private String matchType;  // "SWIPE" or "RANDOM_AI"
 
     private String lastMessage;
-    private Instant lastMessageAt;
+    @Indexed
+    private Instant lastMessageAt;  // 시작 워밍업에서 최근 활동 채팅방 조회
+    private Long lastSeq;  // 마지막 메시지 순번
 
     private Instant createdAt;
     private boolean isActive;  // 채팅방 활성화 상태
@@ -43,13 +55,23 @@ public class ChatRoom {
         return "match_" + matchId;
     }
 
-    // 상대방 ID 가져오기
+    @JsonIgnore
+    public boolean isGroup() {
+        return kind == Kind.GROUP;
+    }
+
+    // 상대방 ID 가져오기 (DIRECT 전용)
     public String getOtherUserId(String myUserId) {
         return user1Id.equals(myUserId) ? user2Id : user1Id;
     }
 
-    // 참가자인지 확인
+    // 참가자인지 확인 (DIRECT 전용 - GROUP 은 RoomMembershipService.isMember)
     public boolean isParticipant(String userId) {
-        return user1Id.equals(userId) || user2Id.equals(userId);
+        return userId.equals(user1Id) || userId.equals(user2Id);
+    }
+
+    public enum Kind {
+        DIRECT,  // 1:1 매칭 채팅방
+        GROUP    // 그룹 데이트/이벤트 (50~5000명)
     }
 }
\ No newline at end of file
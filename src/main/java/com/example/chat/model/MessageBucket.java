@@ -0,0 +1,113 @@
+package com.example.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 채팅방별 메시지 묶음 문서 (chat.storage.mode=bucket)
+ *
+ * 메시지 N건(또는 일정 시간)을 한 문서에 $push 로 쌓아서
+ * 인덱스 크기가 전체 메시지 수가 아니라 버킷 수에 비례하게 한다.
+ */
+@Document(collection = "message_buckets")
+@CompoundIndexes({
+        @CompoundIndex(name = "room_start_idx", def = "{'chatRoomId': 1, 'start': -1}"),
+        @CompoundIndex(name = "room_end_idx", def = "{'chatRoomId': 1, 'end': -1}"),
+        @CompoundIndex(name = "room_content_text_idx", def = "{'chatRoomId': 1, 'messages.content': 'text'}")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageBucket {
+
+    @Id
+    private String id;
+
+    private String chatRoomId;
+
+    // 버킷이 덮는 구간 [start, end] - 늦게 도착한 메시지가 들어오면 start 가 앞당겨지므로 버킷끼리 겹칠 수 있다
+    private Instant start;  // 가장 이른 메시지 시각 (새 메시지를 받을 버킷 판단 기준)
+    private Instant end;    // 가장 늦은 메시지 시각 (최근 메시지 조회 순서 기준)
+
+    private int count;
+    private Long lastSeq;   // 버킷 안 최대 순번 (afterSeq 조회 시 버킷 거르기용)
+
+    private List<Entry> messages;
+
+    /**
+     * 버킷 안 메시지를 ChatMessage 로 변환 (저장 순서 그대로)
+     */
+    public List<ChatMessage> toChatMessages() {
+        if (messages == null) {
+            return List.of();
+        }
+        return messages.stream().map(entry -> entry.toChatMessage(chatRoomId)).toList();
+    }
+
+    /**
+     * 버킷 안의 메시지 한 건
+     *
+     * ChatMessage 를 그대로 넣으면 필드의 @Indexed 가 messages.* 멀티키 인덱스로 따라 붙으므로 별도 타입으로 둔다.
+     * (chatRoomId 는 버킷에 한 번만 저장)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String id;
+        private String clientMessageId;
+        private Long seq;
+        private String senderId;
+        private String senderName;
+        private MessageType type;
+        private String content;
+        private List<String> attachments;
+        private Instant timestamp;
+        private Instant readAt;
+        private Boolean deleted;
+
+        public static Entry from(ChatMessage message) {
+            return Entry.builder()
+                    .id(message.getId())
+                    .clientMessageId(message.getClientMessageId())
+                    .seq(message.getSeq())
+                    .senderId(message.getSenderId())
+                    .senderName(message.getSenderName())
+                    .type(message.getType())
+                    .content(message.getContent())
+                    .attachments(message.getAttachments())
+                    .timestamp(message.getTimestamp())
+                    .readAt(message.getReadAt())
+                    .deleted(message.getDeleted())
+                    .build();
+        }
+
+        public ChatMessage toChatMessage(String chatRoomId) {
+            return ChatMessage.builder()
+                    .id(id)
+                    .clientMessageId(clientMessageId)
+                    .chatRoomId(chatRoomId)
+                    .seq(seq)
+                    .senderId(senderId)
+                    .senderName(senderName)
+                    .type(type)
+                    .content(content)
+                    .attachments(attachments)
+                    .timestamp(timestamp)
+                    .readAt(readAt)
+                    .deleted(deleted)
+                    .build();
+        }
+    }
+}
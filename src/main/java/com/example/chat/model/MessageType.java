@@ -2,7 +2,14 @@ package com.example.chat.model;
 
 public enum MessageType {
     CHAT,        // 일반 채팅 메시지
-    SUBSCRIBE,   // 채팅방 구독
+    SUBSCRIBE,   // 채팅방 구독 (chatRoomIds 로 여러 채팅방을 한 번에)
+    SUBSCRIBED,  // 여러 채팅방 구독 결과 + 상대 접속 현황
     PRESENCE,    // 온라인 상태 변경
+    ACK,         // 저장 완료 확인 (발신자 전용)
+    RECONNECT,   // 서버 종료 예정 → 안내된 시간 뒤 재접속
+    BATCH,       // 송신 대기 메시지 묶음 (핸드셰이크에서 batch=true 로 요청한 클라이언트만)
+    PING,        // 앱 수준 연결 확인 (ping 프레임을 보낼 수 없는 클라이언트용)
+    PONG,        // PING 응답
+    MEMBER_REMOVED, // 그룹 참여자 삭제 → 그 사용자의 구독 해제 (userId)
     ERROR        // 에러
 }
\ No newline at end of file
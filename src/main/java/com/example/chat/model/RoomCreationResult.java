@@ -0,0 +1,32 @@
+package com.example.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 채팅방 생성 결과 (요청 1건당 1개, 요청 순서대로 스트리밍)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomCreationResult {
+
+    private String chatRoomId;
+    private Status status;
+    private String error;  // FAILED 일 때만
+
+    public static RoomCreationResult of(String chatRoomId, Status status) {
+        return new RoomCreationResult(chatRoomId, status, null);
+    }
+
+    public static RoomCreationResult failed(String chatRoomId, String error) {
+        return new RoomCreationResult(chatRoomId, Status.FAILED, error);
+    }
+
+    public enum Status {
+        CREATED,   // 새로 만듦
+        EXISTING,  // 같은 ID 가 이미 있음 (재시도 - 기존 채팅방 유지)
+        FAILED     // 필수 값 누락 또는 같은 사용자 쌍의 다른 채팅방이 이미 있음
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * 그룹 채팅방 참여자 (채팅방 문서와 분리 - 수천 명이어도 채팅방 문서 크기가 그대로)
+ *
+ * _id 를 채팅방 ID + 사용자 ID 로 만들어 같은 참여자를 여러 번 추가해도 한 건만 남는다.
+ */
+@Document(collection = "room_members")
+@CompoundIndex(name = "room_user_idx", def = "{'chatRoomId': 1, 'userId': 1}", unique = true)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomMember {
+
+    @Id
+    private String id;
+
+    private String chatRoomId;
+
+    @Indexed
+    private String userId;  // 사용자별 참여 채팅방 조회용
+
+    private Instant joinedAt;
+
+    public static String id(String chatRoomId, String userId) {
+        return chatRoomId + ":" + userId;
+    }
+
+    public static RoomMember of(String chatRoomId, String userId) {
+        return RoomMember.builder()
+                .id(id(chatRoomId, userId))
+                .chatRoomId(chatRoomId)
+                .userId(userId)
+                .joinedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.chat.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 메시지 추적 컨텍스트 (샘플링된 CHAT 메시지에만 붙어서 Redis 발행본과 함께 노드를 넘어감)
+ *
+ * 각 구간 기록은 ingressAt 기준 경과 시간이다. 노드가 다르면 서버 시계 차이만큼 어긋날 수 있다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TraceContext {
+
+    private String id;
+
+    // 발신 노드가 프레임을 받은 시각
+    private Instant ingressAt;
+
+    // 발신 노드
+    private String node;
+}
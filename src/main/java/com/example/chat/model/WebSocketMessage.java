@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @Builder
@@ -21,12 +22,25 @@ public class WebSocketMessage {
     private String userId;
     private String chatRoomId;
 
+    // SUBSCRIBE (여러 채팅방) / SUBSCRIBED (구독된 채팅방)
+    private List<String> chatRoomIds;
+
+    // SUBSCRIBED 타입
+    private List<String> rejectedRoomIds;  // 없거나 구독 권한이 없는 채팅방
+    private List<String> onlineUserIds;    // 1:1 채팅방 상대 중 지금 접속 중인 사용자
+
     // CHAT 타입
     private String id;
+    private Long seq;  // 채팅방 내 순번 (클라이언트 재정렬 / 누락 감지용)
     private String senderId;
     private String senderName;
     private String content;
     private Instant timestamp;
+    private String clientMessageId;  // 클라이언트 멱등성 키 (CHAT, ACK)
+    private List<String> attachments;  // 첨부 ID (업로드 응답의 SHA-256)
+
+    // ACK 타입
+    private AckStatus status;
 
     // PRESENCE 타입
     private Boolean online;
@@ -34,12 +48,21 @@ public class WebSocketMessage {
     // ERROR 타입
     private String message;
 
+    // RECONNECT 타입 (재접속 전 대기 시간 힌트)
+    private Long reconnectAfterMillis;
+
+    // BATCH 타입 (보낸 순서대로)
+    private List<WebSocketMessage> messages;
+
+    // 구간 추적 (샘플링된 CHAT 만, chat.tracing.*)
+    private TraceContext trace;
+
     // 간편 생성 메서드
-//    public static WebSocketMessage pong() {
-//        return WebSocketMessage.builder()
-//                .type(MessageType.PONG)
-//                .build();
-//    }
+    public static WebSocketMessage pong() {
+        return WebSocketMessage.builder()
+                .type(MessageType.PONG)
+                .build();
+    }
 
     public static WebSocketMessage error(String message) {
         return WebSocketMessage.builder()
@@ -48,6 +71,48 @@ public class WebSocketMessage {
                 .build();
     }
 
+    public static WebSocketMessage ack(String id, String chatRoomId, String clientMessageId, AckStatus status) {
+        return WebSocketMessage.builder()
+                .type(MessageType.ACK)
+                .id(id)
+                .chatRoomId(chatRoomId)
+                .clientMessageId(clientMessageId)
+                .status(status)
+                .build();
+    }
+
+    public static WebSocketMessage subscribed(List<String> chatRoomIds, List<String> rejectedRoomIds,
+                                              List<String> onlineUserIds) {
+        return WebSocketMessage.builder()
+                .type(MessageType.SUBSCRIBED)
+                .chatRoomIds(chatRoomIds)
+                .rejectedRoomIds(rejectedRoomIds)
+                .onlineUserIds(onlineUserIds)
+                .build();
+    }
+
+    public static WebSocketMessage memberRemoved(String chatRoomId, String userId) {
+        return WebSocketMessage.builder()
+                .type(MessageType.MEMBER_REMOVED)
+                .chatRoomId(chatRoomId)
+                .userId(userId)
+                .build();
+    }
+
+    public static WebSocketMessage reconnect(long reconnectAfterMillis) {
+        return WebSocketMessage.builder()
+                .type(MessageType.RECONNECT)
+                .reconnectAfterMillis(reconnectAfterMillis)
+                .build();
+    }
+
+    public static WebSocketMessage batch(List<WebSocketMessage> messages) {
+        return WebSocketMessage.builder()
+                .type(MessageType.BATCH)
+                .messages(messages)
+                .build();
+    }
+
     public static WebSocketMessage presence(String userId, boolean online) {
         return WebSocketMessage.builder()
                 .type(MessageType.PRESENCE)
@@ -60,11 +125,14 @@ public class WebSocketMessage {
         return WebSocketMessage.builder()
                 .type(MessageType.CHAT)
                 .id(chatMessage.getId())
+                .seq(chatMessage.getSeq())
                 .chatRoomId(chatMessage.getChatRoomId())
                 .senderId(chatMessage.getSenderId())
                 .senderName(chatMessage.getSenderName())
                 .content(chatMessage.getContent())
+                .attachments(chatMessage.getAttachments())
                 .timestamp(chatMessage.getTimestamp())
+                .clientMessageId(chatMessage.getClientMessageId())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,211 @@
+package com.example.chat.repository;
+
+import com.example.chat.config.AttachmentProperties;
+import com.example.chat.model.Attachment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 내용 해시(SHA-256) 기반 첨부 파일 저장소
+ *
+ * - 쓰기: 요청 본문 DataBuffer 를 받는 대로 AsynchronousFileChannel 로 임시 파일에 쓰면서 해시 계산,
+ *   끝나면 {root}/{해시 앞 2자}/{해시} 로 이름 변경 (이미 있으면 임시 파일만 지움 → 중복 제거)
+ * - 읽기: 파일 경로만 넘기고 전송은 웹 계층의 zero-copy(FileRegion) 에 맡김
+ *
+ * 파일을 통째로 힙에 올리지 않으므로 업로드 크기와 상관없이 메모리 사용량이 일정하다.
+ * Content-Type 은 허용 목록(chat.attachment.allowed-content-types)에 있을 때만 그대로 두고 나머지는 octet-stream 으로 저장한다.
+ */
+@Repository
+@Slf4j
+public class AttachmentStore {
+
+    private static final String TEMP_DIRECTORY = "tmp";
+
+    private final Path root;
+    private final long maxSize;
+    private final Set<String> allowedContentTypes;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public AttachmentStore(AttachmentProperties properties, ReactiveMongoTemplate mongoTemplate) {
+        this.root = Path.of(properties.getDirectory());
+        this.maxSize = properties.getMaxSize().toBytes();
+        this.allowedContentTypes = Set.copyOf(properties.getAllowedContentTypes());
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * 업로드 본문 저장
+     *
+     * @return 저장된 첨부 (created=false 면 같은 내용이 이미 있었음)
+     */
+    public Mono<Stored> store(Flux<DataBuffer> body, String contentType, String uploaderId) {
+        String type = safeContentType(contentType);
+        return Mono.fromCallable(this::createTempFile)
+                .subscribeOn(Schedulers.boundedElastic())
+                // 성공하면 이미 옮겨져 없음 - 에러와 클라이언트 취소(연결 끊김) 시 남은 임시 파일 정리
+                .flatMap(temp -> writeTemp(body, temp)
+                        .flatMap(written -> commit(temp, written, type, uploaderId))
+                        .doFinally(signal -> deleteQuietly(temp).subscribe()));
+    }
+
+    /**
+     * 허용 목록에 있는 형식이면 그대로 (파라미터 제외), 아니면 application/octet-stream
+     */
+    public String safeContentType(String contentType) {
+        if (contentType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            String type = (mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase();
+            return allowedContentTypes.contains(type) ? type : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+    }
+
+    /**
+     * 첨부 메타데이터 조회
+     */
+    public Mono<Attachment> find(String id) {
+        if (!Attachment.isValidId(id)) {
+            return Mono.empty();
+        }
+        return mongoTemplate.findById(id, Attachment.class);
+    }
+
+    /**
+     * 내용 파일 경로 (존재 여부는 find 로 확인)
+     */
+    public Path path(String id) {
+        return root.resolve(id.substring(0, 2)).resolve(id);
+    }
+
+    private Path createTempFile() throws IOException {
+        Path directory = root.resolve(TEMP_DIRECTORY);
+        Files.createDirectories(directory);
+        return directory.resolve(UUID.randomUUID().toString());
+    }
+
+    // 받는 대로 파일에 쓰고 쓴 버퍼는 바로 해제 - 해시와 크기를 함께 계산
+    private Mono<Written> writeTemp(Flux<DataBuffer> body, Path temp) {
+        MessageDigest digest = sha256();
+        AtomicLong size = new AtomicLong();
+
+        Flux<DataBuffer> hashed = body.handle((buffer, sink) -> {
+            if (size.addAndGet(buffer.readableByteCount()) > maxSize) {
+                DataBufferUtils.release(buffer);
+                sink.error(new DataBufferLimitException("Attachment exceeds " + maxSize + " bytes"));
+                return;
+            }
+            // 읽기 위치를 옮기지 않는 뷰로 해시 → 같은 버퍼를 그대로 파일에 씀
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                while (iterator.hasNext()) {
+                    ByteBuffer chunk = iterator.next();
+                    digest.update(chunk);
+                }
+            }
+            sink.next(buffer);
+        });
+
+        return Flux.using(
+                        () -> AsynchronousFileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW),
+                        channel -> DataBufferUtils.write(hashed, channel).doOnNext(DataBufferUtils::release),
+                        this::closeQuietly)
+                .then(Mono.fromCallable(() -> new Written(HexFormat.of().formatHex(digest.digest()), size.get())));
+    }
+
+    // 내용 파일을 제자리로 옮기고 메타데이터 upsert (둘 다 이미 있으면 그대로)
+    private Mono<Stored> commit(Path temp, Written written, String contentType, String uploaderId) {
+        Mono<Boolean> moved = Mono.fromCallable(() -> {
+                    Path target = path(written.id());
+                    if (Files.exists(target)) {
+                        Files.delete(temp);
+                        return false;
+                    }
+                    Files.createDirectories(target.getParent());
+                    // 동시에 같은 내용이 올라와도 내용이 같으므로 어느 쪽이 이겨도 됨
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                    return true;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+
+        Update update = new Update()
+                .setOnInsert("size", written.size())
+                .setOnInsert("contentType", contentType)
+                .setOnInsert("uploaderId", uploaderId)
+                .setOnInsert("createdAt", Instant.now());
+
+        return moved.flatMap(created -> mongoTemplate.findAndModify(
+                                Query.query(Criteria.where("_id").is(written.id())), update,
+                                FindAndModifyOptions.options().upsert(true).returnNew(true), Attachment.class)
+                        .map(attachment -> new Stored(attachment, created)))
+                .doOnNext(stored -> log.info("Attachment stored: id={}, size={}, created={}",
+                        written.id(), written.size(), stored.created()));
+    }
+
+    private Mono<Void> deleteQuietly(Path temp) {
+        return Mono.fromRunnable(() -> {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException e) {
+                        log.warn("Failed to delete temp attachment {}", temp, e);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private void closeQuietly(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close attachment channel", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Written(String id, long size) {
+    }
+
+    /**
+     * 저장 결과 - created=false 면 중복 (기존 파일 재사용)
+     */
+    public record Stored(Attachment attachment, boolean created) {
+    }
+}
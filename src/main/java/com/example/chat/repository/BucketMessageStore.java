@@ -0,0 +1,231 @@
+package com.example.chat.repository;
+
+import com.example.chat.config.MessageStorageProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.MessageBucket;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 채팅방별 버킷 문서에 메시지를 묶어서 저장 (message_buckets 컬렉션)
+ *
+ * - 쓰기: 열린 버킷(개수/시간 여유 있는 최신 버킷)에 $push, 없으면 새 버킷 insert
+ * - 읽기: 최신 버킷부터 필요한 만큼만 읽고 버킷 안에서 정렬
+ *   (늦게 도착한 메시지 때문에 버킷 구간이 겹칠 수 있어, 최근 조회는 end 순으로 읽으며 병합)
+ *
+ * 멱등성은 Redis 접수 단계(admitMessage)에 맡긴다.
+ * (배열 원소에는 문서 간 unique 인덱스를 안전하게 걸 수 없음)
+ */
+@Repository
+@ConditionalOnProperty(name = "chat.storage.mode", havingValue = "bucket")
+public class BucketMessageStore implements MessageStore {
+
+    // 조회 시 한 번에 가져올 버킷 수 (버킷 하나에 최대 maxMessages 건)
+    private static final int CURSOR_BATCH_SIZE = 2;
+
+    // 검색 시 관련도 상위 버킷만 펼쳐 본다
+    private static final int SEARCH_BUCKETS = 20;
+
+    private static final Comparator<ChatMessage> NEWEST_FIRST =
+            Comparator.comparing(ChatMessage::getTimestamp)
+                    .thenComparing(ChatMessage::getId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .reversed();
+
+    // 최근 조회 병합의 끝 표시 (end 가 없으므로 남은 메시지를 모두 내보냄)
+    private static final MessageBucket NO_MORE_BUCKETS = new MessageBucket();
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MessageStorageProperties.Bucket properties;
+
+    public BucketMessageStore(ReactiveMongoTemplate mongoTemplate, MessageStorageProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = properties.getBucket();
+    }
+
+    @Override
+    public Mono<ChatMessage> insert(ChatMessage message) {
+        Query openBucket = Query.query(Criteria.where("chatRoomId").is(message.getChatRoomId())
+                        .and("count").lt(properties.getMaxMessages())
+                        .and("start").gt(message.getTimestamp().minus(properties.getMaxSpan())))
+                .with(Sort.by(Sort.Direction.DESC, "start"));
+
+        Update append = new Update()
+                .push("messages", MessageBucket.Entry.from(message))
+                .inc("count", 1)
+                .min("start", message.getTimestamp())
+                .max("end", message.getTimestamp());
+        if (message.getSeq() != null) {
+            append.max("lastSeq", message.getSeq());
+        }
+
+        return mongoTemplate.findAndModify(openBucket, append, FindAndModifyOptions.none(), MessageBucket.class)
+                // 열린 버킷이 없으면 새로 만듦 (동시에 두 개가 생겨도 조회에는 문제 없음)
+                .switchIfEmpty(Mono.defer(() -> mongoTemplate.insert(newBucket(message))))
+                .thenReturn(message);
+    }
+
+    @Override
+    public Mono<ChatMessage> findByClientMessageId(String senderId, String clientMessageId) {
+        Query query = Query.query(Criteria.where("messages").elemMatch(
+                Criteria.where("senderId").is(senderId).and("clientMessageId").is(clientMessageId)));
+
+        return mongoTemplate.findOne(query, MessageBucket.class)
+                .flatMapIterable(MessageBucket::toChatMessages)
+                .filter(message -> senderId.equals(message.getSenderId())
+                        && clientMessageId.equals(message.getClientMessageId()))
+                .next();
+    }
+
+    /**
+     * before 이전 메시지를 최신순으로 limit 건
+     *
+     * 버킷 구간 [start, end] 가 겹칠 수 있으므로 (늦게 도착한 메시지) end 내림차순으로 버킷을 읽으면서,
+     * 다음 버킷의 end 보다 늦은 메시지만 내보낸다 (남은 버킷에는 그보다 늦은 메시지가 없음).
+     */
+    @Override
+    public Flux<ChatMessage> findLatest(String chatRoomId, Instant before, int limit) {
+        Criteria criteria = Criteria.where("chatRoomId").is(chatRoomId);
+        if (before != null) {
+            criteria = criteria.and("start").lt(before);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "end"))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        return Flux.defer(() -> {
+            PriorityQueue<ChatMessage> pending = new PriorityQueue<>(NEWEST_FIRST);
+            return mongoTemplate.find(query, MessageBucket.class)
+                    .concatWith(Mono.just(NO_MORE_BUCKETS))
+                    .concatMapIterable(bucket -> {
+                        Instant bound = bucket.getEnd();
+                        List<ChatMessage> ready = new ArrayList<>();
+                        while (!pending.isEmpty() && (bound == null || pending.peek().getTimestamp().isAfter(bound))) {
+                            ready.add(pending.poll());
+                        }
+                        bucket.toChatMessages().stream()
+                                .filter(message -> before == null || message.getTimestamp().isBefore(before))
+                                .forEach(pending::add);
+                        return ready;
+                    })
+                    .take(limit);
+        });
+    }
+
+    @Override
+    public Flux<ChatMessage> findAfterSeq(String chatRoomId, long afterSeq, int limit) {
+        Query query = Query.query(Criteria.where("chatRoomId").is(chatRoomId).and("lastSeq").gt(afterSeq))
+                .with(Sort.by(Sort.Direction.ASC, "start"))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        return mongoTemplate.find(query, MessageBucket.class)
+                .concatMapIterable(bucket -> sorted(bucket.toChatMessages().stream()
+                                .filter(message -> message.getSeq() != null && message.getSeq() > afterSeq)
+                                .toList(),
+                        Comparator.comparing(ChatMessage::getSeq)))
+                .take(limit);
+    }
+
+    // 텍스트 인덱스는 버킷 단위로 점수를 매기므로 상위 버킷을 펼쳐 메시지별로 다시 점수를 매김
+    @Override
+    public Flux<ChatMessage> search(String chatRoomId, String query, int limit) {
+        List<String> terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("\\s+"))
+                .map(term -> term.replace("\"", ""))
+                .filter(term -> !term.isEmpty() && !term.startsWith("-"))
+                .toList();
+        if (terms.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query))
+                .sortByScore()
+                .addCriteria(Criteria.where("chatRoomId").is(chatRoomId))
+                .limit(SEARCH_BUCKETS);
+
+        Comparator<Map.Entry<ChatMessage, Integer>> order = Map.Entry.<ChatMessage, Integer>comparingByValue().reversed()
+                .thenComparing(entry -> entry.getKey().getTimestamp(), Comparator.reverseOrder());
+
+        return mongoTemplate.find(textQuery, MessageBucket.class)
+                .flatMapIterable(MessageBucket::toChatMessages)
+                .filter(message -> !Boolean.TRUE.equals(message.getDeleted()) && message.getContent() != null)
+                .map(message -> Map.entry(message, matchCount(message.getContent(), terms)))
+                .filter(entry -> entry.getValue() > 0)
+                .sort(order)
+                .take(limit)
+                .map(Map.Entry::getKey);
+    }
+
+    @Override
+    public Flux<String> findArchivableRooms(Instant cutoff) {
+        Query query = Query.query(Criteria.where("end").lt(cutoff));
+        return mongoTemplate.findDistinct(query, "chatRoomId", MessageBucket.class, String.class);
+    }
+
+    // 버킷 단위로 보관 (마지막 메시지가 cutoff 이전인 버킷만)
+    @Override
+    public Flux<ChatMessage> findArchivable(String chatRoomId, Instant cutoff) {
+        Query query = Query.query(Criteria.where("chatRoomId").is(chatRoomId).and("end").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "start"))
+                .cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        return mongoTemplate.find(query, MessageBucket.class)
+                .concatMapIterable(bucket -> sorted(bucket.toChatMessages(),
+                        Comparator.comparing(ChatMessage::getTimestamp)));
+    }
+
+    @Override
+    public Mono<Long> deleteArchived(String chatRoomId, Instant upTo) {
+        Query query = Query.query(Criteria.where("chatRoomId").is(chatRoomId).and("end").lte(upTo));
+        return mongoTemplate.remove(query, MessageBucket.class).map(DeleteResult::getDeletedCount);
+    }
+
+    private MessageBucket newBucket(ChatMessage message) {
+        return MessageBucket.builder()
+                .id(new ObjectId().toHexString())
+                .chatRoomId(message.getChatRoomId())
+                .start(message.getTimestamp())
+                .end(message.getTimestamp())
+                .count(1)
+                .lastSeq(message.getSeq())
+                .messages(new ArrayList<>(List.of(MessageBucket.Entry.from(message))))
+                .build();
+    }
+
+    private static int matchCount(String content, List<String> terms) {
+        String lower = content.toLowerCase(Locale.ROOT);
+        int count = 0;
+        for (String term : terms) {
+            for (int i = lower.indexOf(term); i >= 0; i = lower.indexOf(term, i + term.length())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 저장이 병렬로 끝나므로 버킷 안 순서는 도착순 → 조회 시 다시 정렬
+    private static List<ChatMessage> sorted(List<ChatMessage> messages, Comparator<ChatMessage> order) {
+        List<ChatMessage> copy = new ArrayList<>(messages);
+        copy.sort(order);
+        return copy;
+    }
+}
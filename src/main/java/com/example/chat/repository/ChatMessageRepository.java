@@ -13,6 +13,22 @@ public interface ChatMessageRepository extends ReactiveMongoRepository<ChatMessa
     // 채팅방의 메시지 조회 (최신순)
     Flux<ChatMessage> findByChatRoomIdOrderByTimestampDesc(String chatRoomId, Pageable pageable);
 
+    // 특정 시각 이전의 메시지 조회 (최신순, 이전 페이지)
+    Flux<ChatMessage> findByChatRoomIdAndTimestampBeforeOrderByTimestampDesc(
+            String chatRoomId, java.time.Instant before, Pageable pageable);
+
+    // 보관 대상 메시지 조회 (시간 오름차순)
+    Flux<ChatMessage> findByChatRoomIdAndTimestampBeforeOrderByTimestampAsc(String chatRoomId, java.time.Instant cutoff);
+
+    // 보관을 마친 메시지 삭제
+    Mono<Long> deleteByChatRoomIdAndTimestampLessThanEqual(String chatRoomId, java.time.Instant upTo);
+
+    // 클라이언트 멱등성 키로 조회 (재전송 판별)
+    Mono<ChatMessage> findBySenderIdAndClientMessageId(String senderId, String clientMessageId);
+
+    // 특정 순번 이후의 메시지 조회 (누락 구간 채우기)
+    Flux<ChatMessage> findByChatRoomIdAndSeqGreaterThanOrderBySeqAsc(String chatRoomId, Long seq, Pageable pageable);
+
     // 채팅방의 메시지 개수
     Mono<Long> countByChatRoomId(String chatRoomId);
 
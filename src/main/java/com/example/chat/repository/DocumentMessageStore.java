@@ -0,0 +1,81 @@
+package com.example.chat.repository;
+
+import com.example.chat.model.ChatMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * 메시지 1건 = 문서 1개 (messages 컬렉션, 기본값)
+ */
+@Repository
+@ConditionalOnProperty(name = "chat.storage.mode", havingValue = "document", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DocumentMessageStore implements MessageStore {
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<ChatMessage> insert(ChatMessage message) {
+        return chatMessageRepository.insert(message);
+    }
+
+    @Override
+    public Mono<ChatMessage> findByClientMessageId(String senderId, String clientMessageId) {
+        return chatMessageRepository.findBySenderIdAndClientMessageId(senderId, clientMessageId);
+    }
+
+    @Override
+    public Flux<ChatMessage> findLatest(String chatRoomId, Instant before, int limit) {
+        PageRequest pageRequest = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "timestamp"));
+        if (before != null) {
+            return chatMessageRepository
+                    .findByChatRoomIdAndTimestampBeforeOrderByTimestampDesc(chatRoomId, before, pageRequest);
+        }
+        return chatMessageRepository.findByChatRoomIdOrderByTimestampDesc(chatRoomId, pageRequest);
+    }
+
+    @Override
+    public Flux<ChatMessage> findAfterSeq(String chatRoomId, long afterSeq, int limit) {
+        return chatMessageRepository
+                .findByChatRoomIdAndSeqGreaterThanOrderBySeqAsc(chatRoomId, afterSeq, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public Flux<ChatMessage> search(String chatRoomId, String query, int limit) {
+        Query textQuery = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(query))
+                .sortByScore()
+                .addCriteria(Criteria.where("chatRoomId").is(chatRoomId).and("deleted").ne(true))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .limit(limit);
+        return mongoTemplate.find(textQuery, ChatMessage.class);
+    }
+
+    @Override
+    public Flux<String> findArchivableRooms(Instant cutoff) {
+        Query query = Query.query(Criteria.where("timestamp").lt(cutoff));
+        return mongoTemplate.findDistinct(query, "chatRoomId", ChatMessage.class, String.class);
+    }
+
+    @Override
+    public Flux<ChatMessage> findArchivable(String chatRoomId, Instant cutoff) {
+        return chatMessageRepository.findByChatRoomIdAndTimestampBeforeOrderByTimestampAsc(chatRoomId, cutoff);
+    }
+
+    @Override
+    public Mono<Long> deleteArchived(String chatRoomId, Instant upTo) {
+        return chatMessageRepository.deleteByChatRoomIdAndTimestampLessThanEqual(chatRoomId, upTo);
+    }
+}
@@ -0,0 +1,568 @@
+package com.example.chat.repository;
+
+import com.example.chat.config.ArchiveProperties;
+import com.example.chat.model.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 오래된 메시지 보관소 (로컬 압축 세그먼트 파일)
+ *
+ * 채팅방별 디렉터리에 {첫 메시지 ms}-{마지막 메시지 ms}.seg / .idx 쌍으로 저장한다.
+ * - .seg: 메시지 N건(JSON 줄)을 Deflate 로 압축한 블록을 이어 붙인 파일
+ * - .idx: 블록마다 항목 1개 (minTs, maxTs, offset, length, rawLength, count) 인 희소 인덱스
+ *
+ * 세그먼트는 한 번 쓰면 바뀌지 않는다 (임시 파일에 쓰고 fsync 후 이름 변경).
+ * 읽을 때는 .seg 를 읽기 전용으로 mmap 해서 필요한 블록만 풀어 본다.
+ *
+ * 세그먼트 목록은 최근 읽은 채팅방 cachedRooms 개까지만 들고 있고(LRU), 밀려난 채팅방의 매핑은 해제한다.
+ * 보관본이 있는 채팅방은 루트 디렉터리 목록으로 알고 있으므로(주기적으로 다시 읽음)
+ * 보관본이 없는 채팅방은 디스크를 보지 않고 바로 넘어간다.
+ */
+@Repository
+@Slf4j
+public class MessageArchive {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int INDEX_MAGIC = 0x43484958;  // "CHIX"
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_BYTES = 8;
+    private static final int INDEX_ENTRY_BYTES = 36;
+
+    private final Path root;
+    private final ObjectMapper objectMapper;
+    private final int cachedRooms;
+
+    // 채팅방 → 세그먼트 목록 (접근 순서 LRU, 처음 읽을 때 디렉터리에서 로드, 새 세그먼트는 커밋 시 추가)
+    private final LinkedHashMap<String, List<Segment>> segments = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<Segment>> eldest) {
+            if (size() <= cachedRooms) {
+                return false;
+            }
+            eldest.getValue().forEach(Segment::retire);
+            return true;
+        }
+    };
+
+    // 보관 디렉터리가 있는 채팅방 (루트 목록 + 이 노드에서 커밋한 채팅방)
+    private volatile Set<String> archivedRooms;
+
+    public MessageArchive(ArchiveProperties properties, ObjectMapper objectMapper) {
+        this.root = Path.of(properties.getDirectory());
+        this.objectMapper = objectMapper;
+        this.cachedRooms = Math.max(1, properties.getCachedRooms());
+        this.archivedRooms = scanRooms();
+    }
+
+    /**
+     * before 이전 보관 메시지가 있을 수 있는지 (블로킹 없음)
+     *
+     * 보관본이 없는 채팅방이면 false, 세그먼트 목록이 캐시에 있으면 가장 오래된 시각과 비교한다.
+     * 캐시에 없으면 읽어 봐야 알 수 있으므로 true.
+     */
+    public boolean mayContain(String chatRoomId, Instant before) {
+        if (!archivedRooms.contains(chatRoomId)) {
+            return false;
+        }
+        List<Segment> cached;
+        synchronized (segments) {
+            cached = segments.get(chatRoomId);
+        }
+        if (cached == null || before == null) {
+            return true;
+        }
+        long beforeMillis = before.toEpochMilli();
+        return cached.stream().anyMatch(segment -> segment.minTs() < beforeMillis);
+    }
+
+    /**
+     * 보관 디렉터리 목록 다시 읽기 (다른 인스턴스가 같은 디렉터리에 보관한 채팅방 반영)
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void rescanRooms() {
+        archivedRooms = scanRooms();
+    }
+
+    /**
+     * 보관된 메시지 중 before 이전 최신 limit 건 (최신순)
+     */
+    public Flux<ChatMessage> findLatest(String chatRoomId, Instant before, int limit) {
+        return Mono.fromCallable(() -> readLatest(chatRoomId, before, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(messages -> messages);
+    }
+
+    /**
+     * 채팅방에서 이미 보관한 마지막 메시지 시각 (없으면 empty)
+     */
+    public Mono<Instant> watermark(String chatRoomId) {
+        return Mono.fromCallable(() -> {
+                    OptionalLong maxTs = segmentsOf(chatRoomId).stream().mapToLong(Segment::maxTs).max();
+                    return maxTs.isPresent() ? Instant.ofEpochMilli(maxTs.getAsLong()) : null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 새 세그먼트 쓰기 시작 (블로킹 I/O - boundedElastic 에서 호출)
+     */
+    public SegmentWriter openWriter(String chatRoomId) throws IOException {
+        Path directory = roomDirectory(chatRoomId);
+        Files.createDirectories(directory);
+        return new SegmentWriter(chatRoomId, directory);
+    }
+
+    private List<ChatMessage> readLatest(String chatRoomId, Instant before, int limit) {
+        long beforeMillis = before == null ? Long.MAX_VALUE : before.toEpochMilli();
+
+        // 모든 세그먼트의 블록을 maxTs 내림차순으로 훑는다 (버킷 방식이면 블록끼리 시간이 겹칠 수 있음)
+        List<BlockRef> blocks = new ArrayList<>();
+        for (Segment segment : segmentsOf(chatRoomId)) {
+            if (segment.minTs() >= beforeMillis) {
+                continue;
+            }
+            for (IndexEntry entry : segment.index()) {
+                if (entry.minTs() <= beforeMillis) {
+                    blocks.add(new BlockRef(segment, entry));
+                }
+            }
+        }
+        blocks.sort(Comparator.comparingLong((BlockRef block) -> block.entry().maxTs()).reversed());
+
+        List<ChatMessage> result = new ArrayList<>();
+        for (BlockRef block : blocks) {
+            // limit 건이 찼고 이 블록이 전부 그보다 오래됐으면 더 볼 필요 없음
+            if (result.size() >= limit && block.entry().maxTs() < result.get(limit - 1).getTimestamp().toEpochMilli()) {
+                break;
+            }
+            for (ChatMessage message : decode(block.segment(), block.entry())) {
+                if (before == null || message.getTimestamp().isBefore(before)) {
+                    result.add(message);
+                }
+            }
+            result.sort(Comparator.comparing(ChatMessage::getTimestamp).reversed());
+        }
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    private List<ChatMessage> decode(Segment segment, IndexEntry entry) {
+        byte[] raw = new byte[entry.rawLength()];
+
+        // 압축 해제하는 동안만 매핑을 잡아 둠 (그 사이 LRU 에서 밀려나도 다 읽은 뒤 해제)
+        ByteBuffer mapped = segment.acquire();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(mapped.slice((int) entry.offset(), entry.length()));
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupted archive block: " + segment.path() + "@" + entry.offset(), e);
+        } finally {
+            inflater.end();
+            segment.release();
+        }
+
+        List<ChatMessage> messages = new ArrayList<>(entry.count());
+        int lineStart = 0;
+        try {
+            for (int i = 0; i < raw.length; i++) {
+                if (raw[i] == '\n') {
+                    messages.add(objectMapper.readValue(raw, lineStart, i - lineStart, ChatMessage.class));
+                    lineStart = i + 1;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return messages;
+    }
+
+    // 보관본이 없는 채팅방은 캐시에 남기지 않음 (디렉터리 목록에 없으면 디스크도 보지 않음)
+    private List<Segment> segmentsOf(String chatRoomId) {
+        if (!archivedRooms.contains(chatRoomId)) {
+            return List.of();
+        }
+        synchronized (segments) {
+            List<Segment> cached = segments.get(chatRoomId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // 디렉터리 I/O 는 잠금 밖에서 - 같은 채팅방을 동시에 읽으면 먼저 넣은 쪽을 씀 (아직 매핑 전이라 버려도 됨)
+        List<Segment> loaded = loadSegments(chatRoomId);
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        synchronized (segments) {
+            List<Segment> cached = segments.putIfAbsent(chatRoomId, loaded);
+            return cached != null ? cached : loaded;
+        }
+    }
+
+    private Set<String> scanRooms() {
+        if (!Files.isDirectory(root)) {
+            return Set.of();
+        }
+        try (Stream<Path> directories = Files.list(root)) {
+            Set<String> rooms = new HashSet<>();
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            for (Path directory : directories.filter(Files::isDirectory).toList()) {
+                try {
+                    rooms.add(new String(decoder.decode(directory.getFileName().toString()), StandardCharsets.UTF_8));
+                } catch (IllegalArgumentException e) {
+                    log.debug("Skipping non-archive directory: {}", directory);
+                }
+            }
+            return Set.copyOf(rooms);
+        } catch (IOException e) {
+            log.warn("Failed to list archive directory {}", root, e);
+            return archivedRooms != null ? archivedRooms : Set.of();
+        }
+    }
+
+    private List<Segment> loadSegments(String chatRoomId) {
+        Path directory = roomDirectory(chatRoomId);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+
+        // .idx 가 있어야 커밋된 세그먼트 (.seg 가 먼저 이름이 바뀌므로)
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Segment> loaded = new ArrayList<>();
+            for (Path indexPath : files.filter(path -> path.toString().endsWith(INDEX_SUFFIX)).toList()) {
+                String name = indexPath.getFileName().toString();
+                Path segmentPath = directory.resolve(name.substring(0, name.length() - INDEX_SUFFIX.length()) + SEGMENT_SUFFIX);
+                if (Files.exists(segmentPath)) {
+                    loaded.add(new Segment(segmentPath, readIndex(indexPath)));
+                }
+            }
+            loaded.sort(Comparator.comparingLong(Segment::minTs));
+            return List.copyOf(loaded);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<IndexEntry> readIndex(Path indexPath) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexPath)).order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < INDEX_HEADER_BYTES || buffer.getInt() != INDEX_MAGIC || buffer.getInt() != INDEX_VERSION) {
+            throw new IOException("Invalid archive index: " + indexPath);
+        }
+
+        List<IndexEntry> entries = new ArrayList<>(buffer.remaining() / INDEX_ENTRY_BYTES);
+        while (buffer.remaining() >= INDEX_ENTRY_BYTES) {
+            entries.add(new IndexEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                    buffer.getInt(), buffer.getInt(), buffer.getInt()));
+        }
+        return List.copyOf(entries);
+    }
+
+    // 채팅방 ID 를 그대로 경로에 쓰지 않도록 URL-safe Base64 로 변환
+    private Path roomDirectory(String chatRoomId) {
+        String name = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(chatRoomId.getBytes(StandardCharsets.UTF_8));
+        return root.resolve(name);
+    }
+
+    // 캐시에 없는 채팅방이면 목록에만 올림 (다음 읽기에서 새 세그먼트까지 디렉터리에서 로드)
+    private void addSegment(String chatRoomId, Segment segment) {
+        synchronized (segments) {
+            List<Segment> current = segments.get(chatRoomId);
+            if (current != null) {
+                List<Segment> updated = new ArrayList<>(current);
+                updated.add(segment);
+                updated.sort(Comparator.comparingLong(Segment::minTs));
+                segments.put(chatRoomId, List.copyOf(updated));
+            }
+        }
+        if (!archivedRooms.contains(chatRoomId)) {
+            Set<String> updated = new HashSet<>(archivedRooms);
+            updated.add(chatRoomId);
+            archivedRooms = Set.copyOf(updated);
+        }
+    }
+
+    /**
+     * 세그먼트 하나를 쓰는 중인 상태 (한 스레드에서 순서대로 append → commit, 마지막에 close)
+     */
+    public final class SegmentWriter implements AutoCloseable {
+
+        private final String chatRoomId;
+        private final Path directory;
+        private final Path segmentTemp;
+        private final Path indexTemp;
+        private final FileChannel channel;
+        private final ByteArrayOutputStream index = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+        private long offset;
+        private long minTs = Long.MAX_VALUE;
+        private long maxTs = Long.MIN_VALUE;
+        private long written;
+        private boolean committed;
+
+        private SegmentWriter(String chatRoomId, Path directory) throws IOException {
+            this.chatRoomId = chatRoomId;
+            this.directory = directory;
+            this.segmentTemp = Files.createTempFile(directory, "segment-", SEGMENT_SUFFIX + TEMP_SUFFIX);
+            this.indexTemp = Files.createTempFile(directory, "segment-", INDEX_SUFFIX + TEMP_SUFFIX);
+            this.channel = FileChannel.open(segmentTemp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            index.writeBytes(ByteBuffer.allocate(INDEX_HEADER_BYTES).putInt(INDEX_MAGIC).putInt(INDEX_VERSION).array());
+        }
+
+        /**
+         * 메시지 묶음을 압축 블록 하나로 추가
+         */
+        public void append(List<ChatMessage> block) throws IOException {
+            if (block.isEmpty()) {
+                return;
+            }
+
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            long blockMin = Long.MAX_VALUE;
+            long blockMax = Long.MIN_VALUE;
+            for (ChatMessage message : block) {
+                raw.writeBytes(objectMapper.writeValueAsBytes(message));
+                raw.write('\n');
+                long ts = message.getTimestamp().toEpochMilli();
+                blockMin = Math.min(blockMin, ts);
+                blockMax = Math.max(blockMax, ts);
+            }
+
+            byte[] compressed = deflate(raw.toByteArray());
+            ByteBuffer buffer = ByteBuffer.wrap(compressed);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            index.writeBytes(ByteBuffer.allocate(INDEX_ENTRY_BYTES)
+                    .putLong(blockMin).putLong(blockMax).putLong(offset)
+                    .putInt(compressed.length).putInt(raw.size()).putInt(block.size())
+                    .array());
+
+            offset += compressed.length;
+            minTs = Math.min(minTs, blockMin);
+            maxTs = Math.max(maxTs, blockMax);
+            written += block.size();
+        }
+
+        /**
+         * fsync 후 세그먼트를 공개 - 쓴 메시지 중 가장 늦은 시각 반환 (쓴 게 없으면 null)
+         */
+        public Instant commit() throws IOException {
+            channel.force(true);
+            channel.close();
+            if (written == 0) {
+                return null;
+            }
+
+            Files.write(indexTemp, index.toByteArray());
+            try (FileChannel indexChannel = FileChannel.open(indexTemp, StandardOpenOption.WRITE)) {
+                indexChannel.force(true);
+            }
+
+            String name = minTs + "-" + maxTs;
+            Path segmentPath = directory.resolve(name + SEGMENT_SUFFIX);
+            Path indexPath = directory.resolve(name + INDEX_SUFFIX);
+            Files.move(segmentTemp, segmentPath, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTemp, indexPath, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+
+            addSegment(chatRoomId, new Segment(segmentPath, readIndex(indexPath)));
+            log.debug("Archived {} messages for room {} into {} ({} bytes)", written, chatRoomId, name, offset);
+            return Instant.ofEpochMilli(maxTs);
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        /**
+         * 커밋하지 않았으면 임시 파일 정리
+         */
+        @Override
+        public void close() {
+            deflater.end();
+            try {
+                channel.close();
+                if (!committed) {
+                    Files.deleteIfExists(segmentTemp);
+                    Files.deleteIfExists(indexTemp);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to clean up archive temp files in {}", directory, e);
+            }
+        }
+
+        private byte[] deflate(byte[] raw) {
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    // 블록 하나의 희소 인덱스 항목 (시각은 epoch ms)
+    private record IndexEntry(long minTs, long maxTs, long offset, int length, int rawLength, int count) {
+    }
+
+    private record BlockRef(Segment segment, IndexEntry entry) {
+    }
+
+    // 커밋된 세그먼트 (.seg 는 처음 읽을 때 mmap, LRU 에서 밀려나면 읽는 스레드가 없을 때 해제)
+    private static final class Segment {
+
+        private final Path path;
+        private final List<IndexEntry> index;
+        private final long minTs;
+        private final long maxTs;
+
+        // this 로 보호
+        private MappedByteBuffer mapped;
+        private int readers;
+        private boolean retired;
+
+        private Segment(Path path, List<IndexEntry> index) {
+            this.path = path;
+            this.index = index;
+            this.minTs = index.stream().mapToLong(IndexEntry::minTs).min().orElse(Long.MAX_VALUE);
+            this.maxTs = index.stream().mapToLong(IndexEntry::maxTs).max().orElse(Long.MIN_VALUE);
+        }
+
+        private Path path() {
+            return path;
+        }
+
+        private List<IndexEntry> index() {
+            return index;
+        }
+
+        private long minTs() {
+            return minTs;
+        }
+
+        private long maxTs() {
+            return maxTs;
+        }
+
+        /**
+         * 매핑을 잡음 (release 와 짝) - 밀려난 뒤에 읽어도 다시 매핑했다가 release 에서 해제
+         */
+        private synchronized MappedByteBuffer acquire() {
+            if (mapped == null) {
+                // 매핑은 채널을 닫아도 유지됨
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            readers++;
+            return mapped;
+        }
+
+        private synchronized void release() {
+            readers--;
+            if (retired && readers == 0) {
+                unmap();
+            }
+        }
+
+        private synchronized void retire() {
+            retired = true;
+            if (readers == 0) {
+                unmap();
+            }
+        }
+
+        private void unmap() {
+            MappedByteBuffer current = mapped;
+            mapped = null;
+            if (current != null) {
+                Unmapper.unmap(current);
+            }
+        }
+    }
+
+    // 매핑 즉시 해제 (Unsafe.invokeCleaner) - 쓸 수 없으면 GC 가 버퍼를 거둘 때 해제됨
+    private static final class Unmapper {
+
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.warn("Archive segments will be unmapped by GC only: {}", e.toString());
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        private static void unmap(MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("Failed to unmap archive segment", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.chat.repository;
+
+import com.example.chat.model.ChatMessage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * 메시지 저장소 (chat.storage.mode 에 따라 문서/버킷 방식 중 하나가 등록됨)
+ */
+public interface MessageStore {
+
+    // 저장 (ID가 이미 발급된 메시지)
+    Mono<ChatMessage> insert(ChatMessage message);
+
+    // 클라이언트 멱등성 키로 조회 (재전송 판별)
+    Mono<ChatMessage> findByClientMessageId(String senderId, String clientMessageId);
+
+    // 채팅방의 최근 메시지 (최신순, before 가 있으면 그 시각 이전만)
+    Flux<ChatMessage> findLatest(String chatRoomId, Instant before, int limit);
+
+    // 특정 순번 이후의 메시지 (순번 오름차순)
+    Flux<ChatMessage> findAfterSeq(String chatRoomId, long afterSeq, int limit);
+
+    // 채팅방 안 텍스트 검색 (관련도순, 같으면 최신순)
+    Flux<ChatMessage> search(String chatRoomId, String query, int limit);
+
+    // 보관 대상: cutoff 이전 메시지가 남아 있는 채팅방
+    Flux<String> findArchivableRooms(Instant cutoff);
+
+    // 보관 대상 메시지 (시간 오름차순)
+    Flux<ChatMessage> findArchivable(String chatRoomId, Instant cutoff);
+
+    // 보관을 마친 메시지 삭제 (upTo 시각까지) - 삭제한 문서 수 반환
+    Mono<Long> deleteArchived(String chatRoomId, Instant upTo);
+}
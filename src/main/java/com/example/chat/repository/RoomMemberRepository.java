@@ -0,0 +1,12 @@
+package com.example.chat.repository;
+
+import com.example.chat.model.RoomMember;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface RoomMemberRepository extends ReactiveMongoRepository<RoomMember, String> {
+
+    Flux<RoomMember> findByChatRoomId(String chatRoomId);
+}
@@ -0,0 +1,250 @@
+package com.example.chat.service;
+
+import com.example.chat.config.DeliveryProperties;
+import com.example.chat.config.MessageStorageProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.WebSocketMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * messages 컬렉션 변경 스트림 기반 메시지 전달 (chat.delivery.mode=change-stream)
+ *
+ * 저장이 유일한 쓰기가 되고, 각 노드는 insert 이벤트를 따라가며 로컬 구독자가 있는 채팅방만 전달한다.
+ * (Redis 발행 실패로 메시지가 조용히 사라지는 일이 없음 - 저장된 메시지는 반드시 스트림에 나타남)
+ *
+ * 마지막으로 처리한 resume token 은 메모리에 두고 스트림이 끊기면 그 지점부터 다시 열며,
+ * 주기적으로 delivery_checkpoints 에 저장해 빠른 재시작 시에도 이어 받는다.
+ * 변경 스트림은 레플리카 셋/샤드 클러스터에서만 동작한다.
+ */
+@Service
+@Slf4j
+public class ChangeStreamDelivery implements SmartLifecycle {
+
+    private static final String COLLECTION = "messages";
+    private static final String CHECKPOINT_COLLECTION = "delivery_checkpoints";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final DeliveryProperties.ChangeStream properties;
+    private final boolean enabled;
+    private final String nodeId;
+
+    private final Counter delivered;
+    private final Counter filtered;
+    private final DistributionSummary batchSize;
+    private final Timer lag;
+
+    private Predicate<String> hasLocalSubscribers = chatRoomId -> false;
+    private RedisMessageSubscriber.MessageHandler messageHandler;
+
+    // 마지막으로 전달까지 마친 이벤트의 resume token
+    private volatile BsonValue resumeToken;
+    private volatile BsonValue checkpointed;
+
+    private Disposable watcher;
+    private Disposable checkpointer;
+    private volatile boolean running;
+
+    public ChangeStreamDelivery(
+            ReactiveMongoTemplate mongoTemplate,
+            DeliveryProperties deliveryProperties,
+            MessageStorageProperties storageProperties,
+            MeterRegistry meterRegistry
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.properties = deliveryProperties.getChangeStream();
+        this.enabled = deliveryProperties.getMode() == DeliveryProperties.Mode.CHANGE_STREAM;
+        this.nodeId = properties.getNodeId().isBlank() ? hostName() : properties.getNodeId();
+
+        if (enabled && storageProperties.getMode() != MessageStorageProperties.Mode.DOCUMENT) {
+            // 버킷 방식은 메시지가 기존 문서의 $push 로 들어가 insert 이벤트가 생기지 않음
+            throw new IllegalStateException("chat.delivery.mode=change-stream requires chat.storage.mode=document");
+        }
+
+        this.delivered = Counter.builder("chat.delivery.changestream.events")
+                .tag("result", "delivered")
+                .description("Change stream inserts handed to local subscribers")
+                .register(meterRegistry);
+        this.filtered = Counter.builder("chat.delivery.changestream.events")
+                .tag("result", "filtered")
+                .description("Change stream inserts for rooms without local subscribers")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("chat.delivery.changestream.batch")
+                .description("Events per change stream batch")
+                .register(meterRegistry);
+        this.lag = RedisMessageSubscriber.deliveryLag(meterRegistry, "change-stream");
+    }
+
+    /**
+     * 변경 스트림 모드 여부
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 메시지 핸들러 등록 (ChatWebSocketHandler)
+     *
+     * @param hasLocalSubscribers 이 노드에 구독자가 있는 채팅방인지
+     */
+    public void setMessageHandler(Predicate<String> hasLocalSubscribers, RedisMessageSubscriber.MessageHandler handler) {
+        this.hasLocalSubscribers = hasLocalSubscribers;
+        this.messageHandler = handler;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        watcher = loadCheckpoint()
+                .doOnNext(token -> resumeToken = token)
+                .thenMany(Flux.defer(this::changeStream)
+                        .bufferTimeout(properties.getBatchSize(), properties.getBatchWindow())
+                        .doOnNext(this::dispatch)
+                        .doOnError(error -> log.error("Change stream on {} failed, resuming from last token",
+                                COLLECTION, error))
+                        // 버퍼까지 감싸서 다시 염 - 전달 못 한 버퍼는 버리고 메모리의 마지막 token 부터 다시 받으므로
+                        // 같은 이벤트가 두 번 전달되지 않음 (이어 받는 동안 잘 돌면 backoff 초기화)
+                        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                                .maxBackoff(Duration.ofSeconds(30))
+                                .transientErrors(true)))
+                .subscribe(
+                        batch -> { },
+                        error -> log.error("Change stream delivery stopped unexpectedly (node={})", nodeId, error));
+        checkpointer = Flux.interval(properties.getCheckpointInterval())
+                .concatMap(tick -> saveCheckpoint())
+                .subscribe();
+        log.info("Change stream delivery started (node={}, resume={})", nodeId, resumeToken != null);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (checkpointer != null) {
+            checkpointer.dispose();
+        }
+        if (watcher != null) {
+            watcher.dispose();
+        }
+        saveCheckpoint().block(Duration.ofSeconds(5));
+        log.info("Change stream delivery stopped (node={})", nodeId);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 연결 드레인(기본 phase)이 끝난 뒤에 멈춤 - 드레인 중인 세션도 끝까지 메시지를 받도록
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    // resume token 이 있으면 그 다음 이벤트부터 (끊긴 동안의 insert 도 빠짐없이)
+    private Flux<ChangeStreamEvent<ChatMessage>> changeStream() {
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(new Document("$match", new Document("operationType", "insert")));
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        return mongoTemplate.changeStream(COLLECTION, options.build(), ChatMessage.class);
+    }
+
+    /**
+     * 배치 하나 전달 - 로컬 구독자가 있는 채팅방만, 채팅방 안에서는 순번순으로
+     * (저장이 병렬이라 스트림 순서가 순번과 다를 수 있음)
+     */
+    private void dispatch(List<ChangeStreamEvent<ChatMessage>> batch) {
+        batchSize.record(batch.size());
+
+        batch.stream()
+                .map(ChangeStreamEvent::getBody)
+                .filter(message -> message != null && message.getChatRoomId() != null)
+                .sorted(Comparator.comparing(ChatMessage::getChatRoomId)
+                        .thenComparing(ChatMessage::getSeq, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .forEach(message -> {
+                    if (messageHandler == null || !hasLocalSubscribers.test(message.getChatRoomId())) {
+                        filtered.increment();
+                        return;
+                    }
+                    if (message.getTimestamp() != null) {
+                        lag.record(Duration.between(message.getTimestamp(), Instant.now()));
+                    }
+                    try {
+                        messageHandler.handleRedisMessage(message.getChatRoomId(), WebSocketMessage.fromChatMessage(message));
+                        delivered.increment();
+                    } catch (Exception e) {
+                        log.error("Failed to deliver change stream message: id={}", message.getId(), e);
+                    }
+                });
+
+        resumeToken = batch.get(batch.size() - 1).getResumeToken();
+    }
+
+    private Mono<BsonValue> loadCheckpoint() {
+        Instant oldest = Instant.now().minus(properties.getCheckpointMaxAge());
+        return mongoTemplate.findById(nodeId, Document.class, CHECKPOINT_COLLECTION)
+                .filter(checkpoint -> checkpoint.getDate("updatedAt") != null
+                        && checkpoint.getDate("updatedAt").toInstant().isAfter(oldest))
+                .map(checkpoint -> (BsonValue) BsonDocument.parse(checkpoint.getString("resumeToken")))
+                .doOnNext(token -> log.info("Resuming change stream from checkpoint (node={})", nodeId))
+                .onErrorResume(error -> {
+                    log.warn("Failed to load change stream checkpoint (node={})", nodeId, error);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> saveCheckpoint() {
+        BsonValue token = resumeToken;
+        if (token == null || token.equals(checkpointed)) {
+            return Mono.empty();
+        }
+        Update update = new Update()
+                .set("resumeToken", token.asDocument().toJson())
+                .set("updatedAt", Instant.now());
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(nodeId)), update, CHECKPOINT_COLLECTION)
+                .doOnSuccess(result -> checkpointed = token)
+                .onErrorResume(error -> {
+                    log.warn("Failed to save change stream checkpoint (node={})", nodeId, error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
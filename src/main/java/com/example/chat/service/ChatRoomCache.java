@@ -0,0 +1,68 @@
+package com.example.chat.service;
+
+import com.example.chat.model.ChatRoom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메시지 전달 경로용 채팅방 캐시
+ *
+ * 전달에 쓰는 필드(kind, user1Id/user2Id)는 생성 후 바뀌지 않으므로 메시지마다 Mongo 를 조회하지 않는다.
+ * (마지막 메시지, 참여자 수처럼 바뀌는 필드가 필요하면 ChatService.getChatRoom 으로 직접 조회)
+ */
+@Component
+@Slf4j
+public class ChatRoomCache {
+
+    private final Map<String, Entry> rooms = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public ChatRoomCache(
+            @Value("${chat.room-cache.ttl:10m}") Duration ttl,
+            @Value("${chat.room-cache.max-size:100000}") int maxSize
+    ) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    public ChatRoom get(String chatRoomId) {
+        Entry entry = rooms.get(chatRoomId);
+        if (entry == null || entry.expiresAt() < System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.room();
+    }
+
+    // 가득 차면 새 항목은 넣지 않음 (다음 정리 주기까지 조회는 Mongo 로)
+    public void put(ChatRoom room) {
+        if (room.getId() == null || (rooms.size() >= maxSize && !rooms.containsKey(room.getId()))) {
+            return;
+        }
+        rooms.put(room.getId(), new Entry(room, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public int size() {
+        return rooms.size();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = rooms.size();
+        rooms.values().removeIf(entry -> entry.expiresAt() < now);
+        int evicted = before - rooms.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired chat rooms", evicted);
+        }
+    }
+
+    private record Entry(ChatRoom room, long expiresAt) {
+    }
+}
@@ -1,20 +1,48 @@
 package com.example.chat.service;
 
+import com.example.chat.config.AttachmentProperties;
+import com.example.chat.config.RedisFailoverProperties;
+import com.example.chat.model.Attachment;
 import com.example.chat.model.ChatMessage;
 import com.example.chat.model.ChatRoom;
 import com.example.chat.model.MessageType;
+import com.example.chat.model.RoomCreationResult;
 import com.example.chat.model.WebSocketMessage;
-import com.example.chat.repository.ChatMessageRepository;
 import com.example.chat.repository.ChatRoomRepository;
+import com.example.chat.repository.MessageArchive;
+import com.example.chat.repository.MessageStore;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,34 +50,191 @@ import java.time.Instant;
 public class ChatService {
 
     private final ChatRoomRepository chatRoomRepository;
-    private final ChatMessageRepository chatMessageRepository;
+    private final ChatRoomCache chatRoomCache;
+    private final MessageStore messageStore;
+    private final MessageArchive messageArchive;
+    private final RoomMembershipService membershipService;
     private final RedisMessagePublisher redisPublisher;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisFailoverProperties failoverProperties;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AttachmentProperties attachmentProperties;
+
+    private static final String IDEMPOTENCY_KEY_PREFIX = "chat:idem:";
+    private static final String SEQUENCE_KEY_PREFIX = "chat:seq:";
+    private static final Duration IDEMPOTENCY_TTL = Duration.ofHours(24);
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int ROOM_BULK_SIZE = 1000;
+
+    // KEYS[1]=순번 키, KEYS[2]=멱등성 키(선택) / ARGV[1]=메시지 ID, ARGV[2]=TTL(초)
+    // 반환: {순번, 메시지 ID} - 재전송이면 {0, 기존 메시지 ID}
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADMIT_SCRIPT = RedisScript.of("""
+            if KEYS[2] then
+              local existing = redis.call('GET', KEYS[2])
+              if existing then return {'0', existing} end
+            end
+            local seq = redis.call('INCR', KEYS[1])
+            if KEYS[2] then redis.call('SET', KEYS[2], ARGV[1], 'EX', tonumber(ARGV[2])) end
+            return {tostring(seq), ARGV[1]}
+            """, List.class);
 
     /**
      * 채팅방 생성 (UUID 지정 - 메인 서버에서 전달)
+     * _id 기준 upsert 한 번으로 처리해 재시도가 동시에 들어와도 하나만 생긴다.
      */
     public Mono<ChatRoom> createChatRoomWithId(String chatRoomId, String user1Id, String user2Id, Long matchId, String matchType) {
-        // ID 정렬
+        ChatRoom newRoom = newChatRoom(chatRoomId, user1Id, user2Id, matchId, matchType);
+
+        return mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(chatRoomId)),
+                        insertOnly(newRoom),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        ChatRoom.class)
+                .doOnSuccess(room -> log.info("ChatRoom created/retrieved with UUID: id={}, matchId={}", chatRoomId, matchId));
+    }
+
+    /**
+     * 그룹 채팅방 생성 + 참여자 추가 (이미 있으면 참여자만 추가)
+     */
+    public Mono<ChatRoom> createGroupRoom(String chatRoomId, String name, List<String> memberIds, String matchType) {
+        ChatRoom newRoom = ChatRoom.builder()
+                .id(chatRoomId)
+                .kind(ChatRoom.Kind.GROUP)
+                .name(name)
+                .matchType(matchType)
+                .memberCount(0L)
+                .createdAt(Instant.now())
+                .isActive(true)
+                .build();
+
+        return mongoTemplate.findAndModify(
+                        Query.query(Criteria.where("_id").is(chatRoomId)),
+                        insertOnly(newRoom),
+                        FindAndModifyOptions.options().upsert(true).returnNew(true),
+                        ChatRoom.class)
+                .flatMap(room -> room.isGroup()
+                        ? membershipService.addMembers(chatRoomId, memberIds).then(getChatRoom(chatRoomId))
+                        : Mono.error(new IllegalStateException("ChatRoom " + chatRoomId + " is not a group room")))
+                .doOnSuccess(room -> log.info("Group ChatRoom created/retrieved: id={}, members={}",
+                        chatRoomId, room.getMemberCount()));
+    }
+
+    /**
+     * 채팅방 일괄 생성 (매칭 작업용)
+     * ROOM_BULK_SIZE 건씩 unordered bulk upsert 로 보내고 요청 순서대로 결과를 흘려보낸다.
+     */
+    public Flux<RoomCreationResult> createChatRooms(Flux<ChatRoom> rooms) {
+        return rooms
+                .buffer(ROOM_BULK_SIZE)
+                .concatMap(this::bulkUpsert);
+    }
+
+    private Flux<RoomCreationResult> bulkUpsert(List<ChatRoom> rooms) {
+        RoomCreationResult[] results = new RoomCreationResult[rooms.size()];
+        List<Integer> positions = new ArrayList<>(rooms.size());  // bulk 연산 순번 → 요청 위치
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatRoom.class);
+
+        for (int i = 0; i < rooms.size(); i++) {
+            ChatRoom room = rooms.get(i);
+            if (isBlank(room.getId()) || isBlank(room.getUser1Id()) || isBlank(room.getUser2Id())) {
+                results[i] = RoomCreationResult.failed(room.getId(), "chatRoomId, user1Id and user2Id are required");
+                continue;
+            }
+            ChatRoom newRoom = newChatRoom(room.getId(), room.getUser1Id(), room.getUser2Id(),
+                    room.getMatchId(), room.getMatchType());
+            bulk.upsert(Query.query(Criteria.where("_id").is(newRoom.getId())), insertOnly(newRoom));
+            positions.add(i);
+        }
+        if (positions.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+
+        return bulk.execute()
+                .map(result -> new BulkOutcome(result, List.<BulkWriteError>of()))
+                // 같은 사용자 쌍 unique 위반 등 일부 실패 - 나머지 결과는 그대로 사용
+                .onErrorResume(error -> {
+                    BulkOutcome partial = partialOutcome(error);
+                    return partial != null ? Mono.just(partial) : Mono.error(error);
+                })
+                .flatMapIterable(outcome -> {
+                    for (int index = 0; index < positions.size(); index++) {
+                        results[positions.get(index)] = RoomCreationResult.of(
+                                rooms.get(positions.get(index)).getId(), RoomCreationResult.Status.EXISTING);
+                    }
+                    for (BulkWriteUpsert upsert : outcome.result().getUpserts()) {
+                        int position = positions.get(upsert.getIndex());
+                        results[position].setStatus(RoomCreationResult.Status.CREATED);
+                    }
+                    for (BulkWriteError error : outcome.errors()) {
+                        int position = positions.get(error.getIndex());
+                        results[position] = RoomCreationResult.failed(rooms.get(position).getId(), error.getMessage());
+                    }
+                    log.info("Bulk room upsert: requested={}, created={}, failed={}",
+                            rooms.size(), outcome.result().getUpserts().size(),
+                            rooms.size() - positions.size() + outcome.errors().size());
+                    return List.of(results);
+                });
+    }
+
+    // ID 정렬 (user1Id < user2Id) 해서 새 채팅방 생성
+    private static ChatRoom newChatRoom(String chatRoomId, String user1Id, String user2Id, Long matchId, String matchType) {
         String sortedUser1 = user1Id.compareTo(user2Id) < 0 ? user1Id : user2Id;
         String sortedUser2 = user1Id.compareTo(user2Id) < 0 ? user2Id : user1Id;
 
-        // 중복 체크 (멱등성 보장)
-        return chatRoomRepository.findById(chatRoomId)
-                .switchIfEmpty(
-                        Mono.defer(() -> {
-                            ChatRoom newRoom = ChatRoom.builder()
-                                    .id(chatRoomId)  // 메인 서버에서 생성한 UUID 사용
-                                    .user1Id(sortedUser1)
-                                    .user2Id(sortedUser2)
-                                    .matchId(matchId)
-                                    .matchType(matchType)
-                                    .createdAt(Instant.now())
-                                    .isActive(true)
-                                    .build();
-                            return chatRoomRepository.save(newRoom);
-                        })
-                )
-                .doOnSuccess(room -> log.info("ChatRoom created/retrieved with UUID: id={}, matchId={}", chatRoomId, matchId));
+        return ChatRoom.builder()
+                .id(chatRoomId)  // 메인 서버에서 생성한 UUID 사용
+                .kind(ChatRoom.Kind.DIRECT)
+                .user1Id(sortedUser1)
+                .user2Id(sortedUser2)
+                .matchId(matchId)
+                .matchType(matchType)
+                .createdAt(Instant.now())
+                .isActive(true)
+                .build();
+    }
+
+    // 이미 있는 채팅방은 건드리지 않음 (멱등성 보장)
+    // 값이 없는 필드는 아예 쓰지 않음 - 그룹 채팅방에 user1Id/user2Id 가 null 로 들어가면 sparse unique 인덱스에서 충돌
+    private static Update insertOnly(ChatRoom room) {
+        Update update = new Update()
+                .setOnInsert("createdAt", room.getCreatedAt())
+                .setOnInsert("isActive", room.isActive());
+        setOnInsertIfPresent(update, "kind", room.getKind());
+        setOnInsertIfPresent(update, "user1Id", room.getUser1Id());
+        setOnInsertIfPresent(update, "user2Id", room.getUser2Id());
+        setOnInsertIfPresent(update, "name", room.getName());
+        setOnInsertIfPresent(update, "memberCount", room.getMemberCount());
+        setOnInsertIfPresent(update, "matchId", room.getMatchId());
+        setOnInsertIfPresent(update, "matchType", room.getMatchType());
+        return update;
+    }
+
+    private static void setOnInsertIfPresent(Update update, String key, Object value) {
+        if (value != null) {
+            update.setOnInsert(key, value);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record BulkOutcome(BulkWriteResult result, List<BulkWriteError> errors) {
+    }
+
+    // 일부만 실패한 bulk 결과 - Spring 이 번역한 예외(중복 키면 DuplicateKeyException)는 원인의 드라이버 예외에서 꺼냄
+    private static BulkOutcome partialOutcome(Throwable error) {
+        if (error instanceof BulkOperationException e) {
+            return new BulkOutcome(e.getResult(), e.getErrors());
+        }
+        Throwable cause = error instanceof DataAccessException ? error.getCause() : error;
+        if (cause instanceof MongoBulkWriteException e) {
+            return new BulkOutcome(e.getWriteResult(), e.getWriteErrors());
+        }
+        return null;
     }
 
     /**
@@ -66,6 +251,7 @@ public class ChatService {
                         Mono.defer(() -> {
                             ChatRoom newRoom = ChatRoom.builder()
                                     .id(ChatRoom.generateRoomId(matchId))  // matchId 기반 ID
+                                    .kind(ChatRoom.Kind.DIRECT)
                                     .user1Id(sortedUser1)
                                     .user2Id(sortedUser2)
                                     .matchId(matchId)
@@ -91,50 +277,250 @@ public class ChatService {
     }
 
     /**
-     * 메시지 저장
+     * 전달 경로용 채팅방 조회 (캐시 우선 - 바뀌지 않는 필드만 사용할 것)
      */
-    public Mono<ChatMessage> saveMessage(WebSocketMessage wsMessage) {
-        ChatMessage chatMessage = ChatMessage.builder()
+    public Mono<ChatRoom> getRoutingRoom(String chatRoomId) {
+        ChatRoom cached = chatRoomCache.get(chatRoomId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return getChatRoom(chatRoomId).doOnNext(chatRoomCache::put);
+    }
+
+    /**
+     * 여러 채팅방 전달 경로용 조회 - 캐시에 없는 것만 $in 쿼리 한 번으로 (없는 채팅방은 결과에서 빠짐)
+     */
+    public Mono<Map<String, ChatRoom>> getRoutingRooms(Collection<String> chatRoomIds) {
+        Map<String, ChatRoom> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String chatRoomId : chatRoomIds) {
+            ChatRoom cached = chatRoomCache.get(chatRoomId);
+            if (cached != null) {
+                found.put(chatRoomId, cached);
+            } else {
+                missing.add(chatRoomId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(missing)), ChatRoom.class)
+                .doOnNext(chatRoomCache::put)
+                .collectList()
+                .map(rooms -> {
+                    rooms.forEach(room -> found.put(room.getId(), room));
+                    return found;
+                });
+    }
+
+    /**
+     * 최근 활동 채팅방을 캐시에 미리 올림 (시작 워밍업) - 올린 수 반환
+     */
+    public Mono<Long> prefetchRecentRooms(int limit) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "lastMessageAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, ChatRoom.class)
+                .doOnNext(chatRoomCache::put)
+                .count();
+    }
+
+    /**
+     * 수신 시점에 메시지 생성 (ID, 타임스탬프를 서버가 즉시 발급)
+     *
+     * ObjectId 는 DB 왕복 없이 만들 수 있으므로 저장과 전달을 동시에 시작할 수 있다.
+     */
+    public ChatMessage newMessage(WebSocketMessage wsMessage) {
+        return ChatMessage.builder()
+                .id(new ObjectId().toHexString())
+                .clientMessageId(wsMessage.getClientMessageId())
                 .chatRoomId(wsMessage.getChatRoomId())
                 .senderId(wsMessage.getSenderId())
                 .senderName(wsMessage.getSenderName())
                 .type(MessageType.CHAT)
                 .content(wsMessage.getContent())
+                .attachments(wsMessage.getAttachments() == null || wsMessage.getAttachments().isEmpty()
+                        ? null
+                        : wsMessage.getAttachments().stream().distinct().toList())
                 .timestamp(Instant.now())
                 .deleted(false)
                 .build();
+    }
+
+    /**
+     * 메시지가 참조하는 첨부가 모두 업로드돼 있는지 확인 (첨부 없는 메시지는 바로 통과)
+     */
+    public Mono<Void> verifyAttachments(ChatMessage message) {
+        List<String> ids = message.getAttachments();
+        if (ids == null || ids.isEmpty()) {
+            return Mono.empty();
+        }
+        if (ids.size() > attachmentProperties.getMaxPerMessage()) {
+            return Mono.error(new IllegalArgumentException(
+                    "Too many attachments (max " + attachmentProperties.getMaxPerMessage() + ")"));
+        }
+        if (!ids.stream().allMatch(Attachment::isValidId)) {
+            return Mono.error(new IllegalArgumentException("Invalid attachment id"));
+        }
+        return mongoTemplate.count(Query.query(Criteria.where("_id").in(ids)), Attachment.class)
+                .flatMap(found -> found == ids.size()
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalArgumentException("Unknown attachment")));
+    }
+
+    /**
+     * 메시지 접수: 멱등성 키 선점 + 채팅방 순번 발급 (Redis Lua 한 번에 원자적으로)
+     *
+     * 재전송이면 순번을 소비하지 않으므로 클라이언트가 가짜 누락을 보지 않는다.
+     * Redis 장애 시에는 순번 없이 접수한다 (MongoDB unique 인덱스가 중복의 최종 방어선).
+     * 발행 차단기가 열려 있으면 스크립트를 부르지 않고, 닫혀 있어도 publish-timeout 까지만 기다린다
+     * (채팅방 순차 구간 안에서 불리므로 응답 없는 Redis 가 채팅방 전체를 멈추지 않도록).
+     *
+     * @return 처음 보는 메시지면 이 메시지의 ID (seq 설정됨), 재전송이면 먼저 접수된 메시지의 ID
+     */
+    public Mono<String> admitMessage(ChatMessage message) {
+        if (failoverProperties.isEnabled() && !circuitBreaker.isClosed()) {
+            return Mono.just(message.getId());
+        }
+
+        List<String> keys = hasClientMessageId(message)
+                ? List.of(sequenceKey(message.getChatRoomId()), idempotencyKey(message))
+                : List.of(sequenceKey(message.getChatRoomId()));
+
+        return redisTemplate.execute(ADMIT_SCRIPT, keys,
+                        List.of(message.getId(), String.valueOf(IDEMPOTENCY_TTL.getSeconds())))
+                .next()
+                .timeout(failoverProperties.getPublishTimeout())
+                .map(result -> {
+                    long seq = Long.parseLong(String.valueOf(result.get(0)));
+                    if (seq == 0) {
+                        return String.valueOf(result.get(1));
+                    }
+                    message.setSeq(seq);
+                    return message.getId();
+                })
+                .onErrorResume(error -> {
+                    log.warn("Failed to admit message {} (no sequence assigned): {}", message.getId(), error.getMessage());
+                    return Mono.just(message.getId());
+                });
+    }
+
+    /**
+     * 멱등성 키 해제 (저장 실패 시 같은 키로 재전송할 수 있도록)
+     */
+    public Mono<Void> releaseClientMessageId(ChatMessage message) {
+        if (!hasClientMessageId(message)) {
+            return Mono.empty();
+        }
+        return redisTemplate.delete(idempotencyKey(message))
+                .onErrorResume(error -> Mono.just(0L))
+                .then();
+    }
+
+    // 클러스터에서도 같은 슬롯에 놓이도록 채팅방 ID를 해시 태그로 사용
+    private String idempotencyKey(ChatMessage message) {
+        return IDEMPOTENCY_KEY_PREFIX + "{" + message.getChatRoomId() + "}:"
+                + message.getSenderId() + ":" + message.getClientMessageId();
+    }
+
+    private String sequenceKey(String chatRoomId) {
+        return SEQUENCE_KEY_PREFIX + "{" + chatRoomId + "}";
+    }
+
+    private boolean hasClientMessageId(ChatMessage message) {
+        return message.getClientMessageId() != null && !message.getClientMessageId().isBlank();
+    }
+
+    /**
+     * 메시지 저장
+     */
+    public Mono<ChatMessage> saveMessage(WebSocketMessage wsMessage) {
+        return saveMessage(newMessage(wsMessage));
+    }
 
-        return chatMessageRepository.save(chatMessage)
+    /**
+     * 메시지 저장 (ID가 이미 발급된 메시지 - insert)
+     */
+    public Mono<ChatMessage> saveMessage(ChatMessage chatMessage) {
+        return messageStore.insert(chatMessage)
                 .flatMap(saved ->
                         // ChatRoom의 마지막 메시지 업데이트
-                        updateLastMessage(saved.getChatRoomId(), saved.getContent())
+                        updateLastMessage(saved)
                                 .thenReturn(saved)
                 )
                 .doOnSuccess(saved -> log.info("Message saved: {}", saved.getId()));
     }
 
+    /**
+     * 같은 멱등성 키로 이미 저장된 메시지 조회
+     */
+    public Mono<ChatMessage> findByClientMessageId(String senderId, String clientMessageId) {
+        return messageStore.findByClientMessageId(senderId, clientMessageId);
+    }
+
     /**
      * ChatRoom의 마지막 메시지 업데이트
+     *
+     * 저장이 병렬로 끝나므로 순번이 더 큰 메시지만 반영한다 (조회 없이 한 번의 update).
      */
-    private Mono<ChatRoom> updateLastMessage(String chatRoomId, String content) {
-        return chatRoomRepository.findById(chatRoomId)
-                .flatMap(room -> {
-                    room.setLastMessage(content);
-                    room.setLastMessageAt(Instant.now());
-                    return chatRoomRepository.save(room);
-                });
+    private Mono<Void> updateLastMessage(ChatMessage message) {
+        Query query = Query.query(Criteria.where("_id").is(message.getChatRoomId()));
+        if (message.getSeq() != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where("lastSeq").lt(message.getSeq()),
+                    Criteria.where("lastSeq").exists(false)));
+        }
+
+        Update update = new Update()
+                .set("lastMessage", message.getContent())
+                .set("lastMessageAt", message.getTimestamp());
+        if (message.getSeq() != null) {
+            update.set("lastSeq", message.getSeq());
+        }
+
+        return mongoTemplate.updateFirst(query, update, ChatRoom.class).then();
     }
 
     /**
-     * 채팅방의 메시지 조회
+     * 채팅방의 메시지 조회 (최신순, before 가 있으면 그 시각 이전 페이지)
+     * Mongo 에서 limit 건을 못 채우면 나머지는 보관 세그먼트에서 이어서 읽는다.
      */
-    public Flux<ChatMessage> getMessages(String chatRoomId, int limit) {
-        PageRequest pageRequest = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "timestamp"));
-        return chatMessageRepository
-                .findByChatRoomIdOrderByTimestampDesc(chatRoomId, pageRequest)
+    public Flux<ChatMessage> getMessages(String chatRoomId, Instant before, int limit) {
+        return messageStore.findLatest(chatRoomId, before, limit)
+                .collectList()
+                .flatMapMany(hot -> {
+                    // 보관본이 없거나 커서 이전 보관 메시지가 없으면 세그먼트를 보지 않음
+                    Instant archivedBefore = hot.isEmpty() ? before : hot.get(hot.size() - 1).getTimestamp();
+                    if (hot.size() >= limit || !messageArchive.mayContain(chatRoomId, archivedBefore)) {
+                        return Flux.fromIterable(hot);
+                    }
+                    // 보관 직후 삭제 전이면 같은 메시지가 양쪽에 있을 수 있음
+                    Set<String> hotIds = hot.stream().map(ChatMessage::getId).collect(Collectors.toSet());
+                    Flux<ChatMessage> archived = messageArchive.findLatest(chatRoomId, archivedBefore, limit)
+                            .filter(message -> !hotIds.contains(message.getId()))
+                            .take(limit - hot.size());
+                    return Flux.concat(Flux.fromIterable(hot), archived);
+                })
                 .doOnComplete(() -> log.debug("Retrieved messages for room: {}", chatRoomId));
     }
 
+    /**
+     * 채팅방 안 메시지 검색 (Mongo 텍스트 인덱스, 관련도순 - 보관된 메시지는 대상 아님)
+     */
+    public Flux<ChatMessage> searchMessages(String chatRoomId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return Flux.empty();
+        }
+        return messageStore.search(chatRoomId, query.strip(), Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    /**
+     * 특정 순번 이후의 메시지 조회 (클라이언트가 누락 구간만 다시 받을 때)
+     */
+    public Flux<ChatMessage> getMessagesAfterSeq(String chatRoomId, long afterSeq, int limit) {
+        return messageStore.findAfterSeq(chatRoomId, afterSeq, limit);
+    }
+
     /**
      * 메시지를 Redis Pub/Sub으로 발행
      */
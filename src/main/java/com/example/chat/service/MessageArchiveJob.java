@@ -0,0 +1,99 @@
+package com.example.chat.service;
+
+import com.example.chat.config.ArchiveProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.repository.MessageArchive;
+import com.example.chat.repository.MessageStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 오래된 메시지 보관 작업 (chat.archive.enabled=true 일 때 chat.archive.cron 주기로 실행)
+ *
+ * 채팅방별로 older-than 이전 메시지를 시간순으로 읽어 세그먼트 하나로 쓰고, 커밋된 뒤에만 Mongo 에서 지운다.
+ * 이미 보관한 시각(watermark) 이하 메시지는 다시 쓰지 않고 지우기만 하므로
+ * 쓰기와 삭제 사이에 중단돼도 다음 실행에서 이어진다.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MessageArchiveJob {
+
+    private final MessageStore messageStore;
+    private final MessageArchive messageArchive;
+    private final ArchiveProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Scheduled(cron = "${chat.archive.cron:0 30 4 * * *}")
+    public void runScheduled() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Message archive still running, skipping this schedule");
+            return;
+        }
+        archive()
+                .doFinally(signal -> running.set(false))
+                .subscribe(
+                        deleted -> log.info("Message archive finished: {} documents removed from Mongo", deleted),
+                        error -> log.error("Message archive failed", error));
+    }
+
+    /**
+     * 전체 보관 - Mongo 에서 지운 문서 수 반환
+     */
+    public Mono<Long> archive() {
+        Instant cutoff = Instant.now().minus(properties.getOlderThan());
+        log.info("Message archive started (cutoff={})", cutoff);
+
+        return messageStore.findArchivableRooms(cutoff)
+                .flatMap(chatRoomId -> archiveRoom(chatRoomId, cutoff), properties.getConcurrency())
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * 채팅방 하나 보관
+     */
+    public Mono<Long> archiveRoom(String chatRoomId, Instant cutoff) {
+        return messageArchive.watermark(chatRoomId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(watermark -> writeSegment(chatRoomId, cutoff, watermark.orElse(null))
+                        .map(Optional::of)
+                        .defaultIfEmpty(watermark))
+                .flatMap(upTo -> upTo
+                        .map(instant -> messageStore.deleteArchived(chatRoomId, instant))
+                        .orElseGet(() -> Mono.just(0L)))
+                .doOnSuccess(deleted -> log.debug("Archived room {}: {} documents removed", chatRoomId, deleted));
+    }
+
+    // watermark 이후 메시지를 새 세그먼트로 - 새 watermark 반환 (쓴 게 없으면 empty)
+    private Mono<Instant> writeSegment(String chatRoomId, Instant cutoff, Instant watermark) {
+        return Mono.using(
+                        () -> messageArchive.openWriter(chatRoomId),
+                        writer -> messageStore.findArchivable(chatRoomId, cutoff)
+                                .filter(message -> watermark == null || isAfter(message, watermark))
+                                .buffer(properties.getBlockMessages())
+                                .publishOn(Schedulers.boundedElastic())
+                                .concatMap(block -> Mono.fromCallable(() -> {
+                                    writer.append(block);
+                                    return block.size();
+                                }))
+                                .then(Mono.fromCallable(writer::commit)),
+                        MessageArchive.SegmentWriter::close)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static boolean isAfter(ChatMessage message, Instant watermark) {
+        return message.getTimestamp().toEpochMilli() > watermark.toEpochMilli();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.chat.service;
+
+import com.example.chat.config.MessageStorageProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.MessageBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * messages → message_buckets 이관 (chat.storage.migration.enabled=true 일 때 시작 시 실행)
+ *
+ * 채팅방별로 시간순으로 읽어 버킷 크기/기간 기준으로 묶는다.
+ * 버킷 ID를 첫 메시지 ID에서 만들기 때문에 중간에 끊겨도 다시 실행하면 같은 결과가 된다.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.storage.migration.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MessageBucketMigration implements ApplicationRunner {
+
+    private static final String BUCKET_ID_PREFIX = "m:";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MessageStorageProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        migrate().subscribe(
+                migrated -> log.info("Message bucket migration finished: {} messages", migrated),
+                error -> log.error("Message bucket migration failed", error));
+    }
+
+    /**
+     * 전체 이관 - 이관한 메시지 수 반환
+     */
+    public Mono<Long> migrate() {
+        log.info("Message bucket migration started (deleteSource={})",
+                properties.getMigration().isDeleteSource());
+
+        return mongoTemplate.findDistinct(new Query(), "chatRoomId", ChatMessage.class, String.class)
+                .flatMap(this::migrateRoom, properties.getMigration().getConcurrency())
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * 채팅방 하나 이관
+     */
+    public Mono<Long> migrateRoom(String chatRoomId) {
+        Query query = Query.query(Criteria.where("chatRoomId").is(chatRoomId))
+                .with(Sort.by(Sort.Direction.ASC, "timestamp"));
+
+        return Flux.defer(() -> {
+                    BucketBoundary boundary = new BucketBoundary(properties.getBucket());
+                    return mongoTemplate.find(query, ChatMessage.class)
+                            .bufferUntil(boundary::startsNewBucket, true);
+                })
+                .concatMap(messages -> mongoTemplate.save(toBucket(chatRoomId, messages))
+                        .then(deleteSource(messages))
+                        .thenReturn((long) messages.size()))
+                .reduce(0L, Long::sum)
+                .doOnSuccess(count -> log.debug("Migrated room {}: {} messages", chatRoomId, count));
+    }
+
+    private MessageBucket toBucket(String chatRoomId, List<ChatMessage> messages) {
+        ChatMessage first = messages.get(0);
+        ChatMessage last = messages.get(messages.size() - 1);
+        Long lastSeq = messages.stream()
+                .map(ChatMessage::getSeq)
+                .filter(Objects::nonNull)
+                .max(Long::compare)
+                .orElse(null);
+
+        return MessageBucket.builder()
+                .id(BUCKET_ID_PREFIX + first.getId())
+                .chatRoomId(chatRoomId)
+                .start(first.getTimestamp())
+                .end(last.getTimestamp())
+                .count(messages.size())
+                .lastSeq(lastSeq)
+                .messages(messages.stream().map(MessageBucket.Entry::from).toList())
+                .build();
+    }
+
+    private Mono<Void> deleteSource(List<ChatMessage> messages) {
+        if (!properties.getMigration().isDeleteSource()) {
+            return Mono.empty();
+        }
+        List<String> ids = messages.stream().map(ChatMessage::getId).toList();
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), ChatMessage.class).then();
+    }
+
+    // 채팅방 하나를 읽는 동안의 버킷 경계 판단 상태
+    private static final class BucketBoundary {
+
+        private final MessageStorageProperties.Bucket limits;
+        private Instant start;
+        private int count;
+
+        private BucketBoundary(MessageStorageProperties.Bucket limits) {
+            this.limits = limits;
+        }
+
+        private boolean startsNewBucket(ChatMessage message) {
+            boolean full = start != null && (count >= limits.getMaxMessages()
+                    || !message.getTimestamp().isBefore(start.plus(limits.getMaxSpan())));
+            if (start == null || full) {
+                start = message.getTimestamp();
+                count = 0;
+            }
+            count++;
+            return full;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.chat.service;
+
+import com.example.chat.config.TracingProperties;
+import com.example.chat.model.TraceContext;
+import com.example.chat.model.WebSocketMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 메시지 구간 추적 (수신 → 순번 발급 → 저장 / 발행 → 다른 노드 수신 → 송신 큐 → 프레임 전송)
+ *
+ * 구간마다 chat.trace 로거에 JSON 한 줄을 남기고, chat.trace.hop 타이머에 수신 후 경과 시간을 기록한다.
+ * 같은 trace id 로 로그를 모으면 노드를 넘나든 메시지 하나의 경로가 된다.
+ */
+@Component
+@Slf4j
+public class MessageTracer {
+
+    private static final Logger events = LoggerFactory.getLogger("chat.trace");
+
+    public static final String INGRESS = "ingress";
+    public static final String ADMITTED = "admitted";
+    public static final String PERSISTED = "persisted";
+    public static final String PUBLISHED = "published";
+    public static final String RECEIVED = "received";
+    public static final String ENQUEUED = "enqueued";
+    public static final String WRITTEN = "written";
+
+    private final TracingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    private final Map<String, Timer> hopTimers = new ConcurrentHashMap<>();
+
+    public MessageTracer(TracingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = properties.getNodeId().isBlank() ? hostName() : properties.getNodeId();
+    }
+
+    /**
+     * 추적 시작 - 샘플링되지 않았으면 null
+     *
+     * @param senderId 발신자 (force-user-ids 에 있으면 항상 추적)
+     */
+    public TraceContext start(Object senderId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        boolean sampled = (senderId != null && properties.getForceUserIds().contains(senderId.toString()))
+                || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        if (!sampled) {
+            return null;
+        }
+        return TraceContext.builder()
+                .id(UUID.randomUUID().toString())
+                .ingressAt(Instant.now())
+                .node(nodeId)
+                .build();
+    }
+
+    /**
+     * 메시지에 붙은 컨텍스트로 구간 기록 (추적 대상이 아니면 아무것도 안 함)
+     */
+    public void record(WebSocketMessage message, String hop) {
+        record(message.getTrace(), hop, message.getChatRoomId(), null);
+    }
+
+    public void record(WebSocketMessage message, String hop, String sessionId) {
+        record(message.getTrace(), hop, message.getChatRoomId(), sessionId);
+    }
+
+    public void record(TraceContext trace, String hop, String chatRoomId, String sessionId) {
+        if (trace == null || trace.getIngressAt() == null) {
+            return;
+        }
+        Duration elapsed = Duration.between(trace.getIngressAt(), Instant.now());
+        hopTimers.computeIfAbsent(hop, key -> Timer.builder("chat.trace.hop")
+                        .tag("hop", key)
+                        .description("Time from ingress on the sending node to each hop of sampled messages")
+                        .publishPercentiles(0.5, 0.99)
+                        .register(meterRegistry))
+                .record(elapsed);
+
+        if (!events.isInfoEnabled()) {
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("trace", trace.getId());
+        event.put("hop", hop);
+        event.put("node", nodeId);
+        event.put("origin", trace.getNode());
+        event.put("room", chatRoomId);
+        if (sessionId != null) {
+            event.put("session", sessionId);
+        }
+        event.put("elapsedMicros", elapsed.toNanos() / 1_000);
+        try {
+            events.info(objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.debug("Failed to write trace event", e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.chat.service;
+
+import com.example.chat.config.RedisFailoverProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Redis 발행 차단기
+ *
+ * CLOSED: 정상 발행. 연속 실패가 failure-threshold 에 닿으면 OPEN.
+ * OPEN: 발행을 시도하지 않음 (로컬 전달 + 재생 버퍼). open-duration 이 지나면 HALF_OPEN 으로 복구 확인.
+ * HALF_OPEN: PING 과 재생이 성공하면 CLOSED, 실패하면 다시 OPEN.
+ */
+@Component
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        HALF_OPEN,
+        OPEN
+    }
+
+    private final RedisFailoverProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();  // 연속 실패 수
+    private volatile long openedAt;
+
+    public RedisCircuitBreaker(RedisFailoverProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("chat.redis.circuit.state", state, current -> current.get().ordinal())
+                .description("Redis publish circuit state (0=closed, 1=half-open, 2=open)")
+                .register(meterRegistry);
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    public boolean isClosed() {
+        return state.get() == State.CLOSED;
+    }
+
+    public void onSuccess() {
+        failures.set(0);
+    }
+
+    public void onFailure() {
+        if (failures.incrementAndGet() >= properties.getFailureThreshold()) {
+            transition(State.CLOSED, State.OPEN);
+        }
+    }
+
+    /**
+     * 열린 지 open-duration 이 지났으면 HALF_OPEN 으로 - 복구 확인을 맡은 호출자만 true
+     */
+    public boolean tryHalfOpen() {
+        return state.get() == State.OPEN
+                && System.nanoTime() - openedAt >= properties.getOpenDuration().toNanos()
+                && transition(State.OPEN, State.HALF_OPEN);
+    }
+
+    /**
+     * 복구 확인 성공 (재생 버퍼가 빈 뒤에 호출)
+     */
+    public void close() {
+        if (transition(State.HALF_OPEN, State.CLOSED)) {
+            failures.set(0);
+        }
+    }
+
+    /**
+     * 복구 확인 실패
+     */
+    public void reopen() {
+        transition(State.HALF_OPEN, State.OPEN);
+    }
+
+    private boolean transition(State from, State to) {
+        if (!state.compareAndSet(from, to)) {
+            return false;
+        }
+        if (to == State.OPEN) {
+            openedAt = System.nanoTime();
+            log.warn("Redis circuit {} -> {} (consecutive failures={}), delivering locally", from, to, failures.get());
+        } else {
+            log.info("Redis circuit {} -> {}", from, to);
+        }
+        Counter.builder("chat.redis.circuit.transitions")
+                .tag("from", from.name().toLowerCase())
+                .tag("to", to.name().toLowerCase())
+                .description("Redis publish circuit state transitions")
+                .register(meterRegistry)
+                .increment();
+        return true;
+    }
+}
@@ -1,37 +1,257 @@
 package com.example.chat.service;
 
+import com.example.chat.config.RedisFailoverProperties;
+import com.example.chat.model.MessageType;
 import com.example.chat.model.WebSocketMessage;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 채팅방 채널 발행
+ *
+ * Redis 발행이 실패하거나 차단기(RedisCircuitBreaker)가 열려 있으면
+ * - 이 노드 구독자에게는 등록된 로컬 핸들러로 바로 전달하고
+ * - CHAT 메시지는 다른 노드를 위해 재생 버퍼에 쌓았다가 Redis 가 돌아오면 순서대로 다시 발행한다.
+ * PRESENCE 는 지난 상태라 재생하지 않는다.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class RedisMessagePublisher {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private static final String CHANNEL_PREFIX = "chat:";
 
+    // 재생 시 한 번에 발행 큐로 넘기는 메시지 수
+    private static final int REPLAY_CHUNK = 256;
+
+    private final RedisPublishBatcher publishBatcher;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final RedisFailoverProperties properties;
     private final ObjectMapper objectMapper;
 
+    // 재생 버퍼 (this 로 잠금)
+    private final Deque<Buffered> replay = new ArrayDeque<>();
+    private final AtomicBoolean replaying = new AtomicBoolean();
 
-    private static final String CHANNEL_PREFIX = "chat:";
+    private final Counter localDelivered;
+    private final Counter replayed;
+    private final Counter droppedOverflow;
+    private final Counter droppedExpired;
+
+    private volatile RedisMessageSubscriber.MessageHandler localHandler;
+
+    public RedisMessagePublisher(
+            RedisPublishBatcher publishBatcher,
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            RedisCircuitBreaker circuitBreaker,
+            RedisFailoverProperties properties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.publishBatcher = publishBatcher;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        this.localDelivered = Counter.builder("chat.redis.degraded.local")
+                .description("Messages delivered only to this node because Redis publish was unavailable")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("chat.redis.replay.published")
+                .description("Buffered messages published after Redis recovered")
+                .register(meterRegistry);
+        this.droppedOverflow = Counter.builder("chat.redis.replay.dropped")
+                .tag("reason", "overflow")
+                .description("Buffered messages dropped before replay")
+                .register(meterRegistry);
+        this.droppedExpired = Counter.builder("chat.redis.replay.dropped")
+                .tag("reason", "expired")
+                .description("Buffered messages dropped before replay")
+                .register(meterRegistry);
+        Gauge.builder("chat.redis.replay.buffered", this, RedisMessagePublisher::getBufferedCount)
+                .description("Messages waiting for Redis to recover")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Redis 로 못 보낸 메시지를 이 노드에서 전달할 핸들러 등록
+     */
+    public void setLocalHandler(RedisMessageSubscriber.MessageHandler handler) {
+        this.localHandler = handler;
+    }
 
     /**
-     * 채팅방에 메시지 발행
+     * 채팅방에 메시지 발행 (트래픽이 많으면 다른 발행과 묶여서 한 번에 flush 됨)
      */
     public Mono<Long> publishMessage(String chatRoomId, WebSocketMessage message) {
         String channel = CHANNEL_PREFIX + chatRoomId;
 
+        if (properties.isEnabled() && !circuitBreaker.isClosed()) {
+            return degrade(chatRoomId, message);
+        }
+
         return Mono.fromCallable(() -> objectMapper.writeValueAsString(message))
-                .flatMap(json -> redisTemplate.convertAndSend(channel, json))
+                .doOnError(error -> log.error("Failed to serialize message for channel {}", channel, error))
+                .onErrorReturn("")
+                .filter(json -> !json.isEmpty())
+                .flatMap(json -> {
+                    if (!properties.isEnabled()) {
+                        return publishBatcher.publish(channel, json)
+                                .doOnError(error -> log.error("Failed to publish message to channel {}", channel, error))
+                                .onErrorReturn(0L);
+                    }
+                    return publishBatcher.publish(channel, json)
+                            .timeout(properties.getPublishTimeout())
+                            .doOnSuccess(count -> circuitBreaker.onSuccess())
+                            .onErrorResume(error -> {
+                                log.error("Failed to publish message to channel {}", channel, error);
+                                circuitBreaker.onFailure();
+                                return degrade(chatRoomId, message);
+                            });
+                })
                 .doOnSuccess(count -> log.debug("Published message to channel {}: {} subscribers", channel, count))
-                .doOnError(error -> log.error("Failed to publish message to channel {}", channel, error))
-                .onErrorReturn(0L);
+                .defaultIfEmpty(0L);
+    }
+
+    public synchronized int getBufferedCount() {
+        return replay.size();
+    }
+
+    /**
+     * 차단기가 열렸으면 복구 확인 (PING → 재생 → CLOSED), 닫혀 있는데 남은 메시지가 있으면 재생
+     */
+    @Scheduled(fixedDelay = 1_000)
+    public void recover() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (circuitBreaker.tryHalfOpen()) {
+            redisTemplate.execute(connection -> connection.ping())
+                    .next()
+                    .timeout(properties.getPublishTimeout())
+                    .subscribe(pong -> {
+                        log.info("Redis reachable again, replaying {} buffered messages", getBufferedCount());
+                        startReplay();
+                    }, error -> {
+                        log.warn("Redis still unavailable: {}", error.toString());
+                        circuitBreaker.reopen();
+                    });
+        } else if (circuitBreaker.isClosed() && getBufferedCount() > 0) {
+            startReplay();
+        }
+    }
+
+    // 로컬 전달 + (CHAT 이면) 재생 버퍼에 보관
+    private Mono<Long> degrade(String chatRoomId, WebSocketMessage message) {
+        RedisMessageSubscriber.MessageHandler handler = localHandler;
+        if (handler != null) {
+            handler.handleRedisMessage(chatRoomId, message);
+            localDelivered.increment();
+        }
+        if (message.getType() == MessageType.CHAT) {
+            buffer(new Buffered(chatRoomId, message, System.nanoTime()));
+        }
+        return Mono.just(0L);
+    }
+
+    private synchronized void buffer(Buffered buffered) {
+        if (replay.size() >= properties.getReplayBufferSize()) {
+            replay.pollFirst();
+            droppedOverflow.increment();
+        }
+        replay.addLast(buffered);
+    }
+
+    private void startReplay() {
+        if (replaying.compareAndSet(false, true)) {
+            replayNext();
+        }
+    }
+
+    // 버퍼 앞에서부터 한 덩어리씩 발행 (덩어리 안에서는 발행 큐에 순서대로 들어감)
+    private void replayNext() {
+        List<Buffered> chunk = takeChunk();
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Buffered> failed = new ArrayList<>();
+        Flux.fromIterable(chunk)
+                .flatMapSequential(buffered -> Mono.fromCallable(() -> objectMapper.writeValueAsString(buffered.message()))
+                        .flatMap(json -> publishBatcher.publish(CHANNEL_PREFIX + buffered.chatRoomId(), json))
+                        .timeout(properties.getPublishTimeout())
+                        .doOnSuccess(count -> replayed.increment())
+                        .onErrorResume(error -> {
+                            synchronized (failed) {
+                                failed.add(buffered);
+                            }
+                            return Mono.empty();
+                        }), chunk.size())
+                .then()
+                .subscribe(null, error -> {
+                    log.error("Replay of buffered messages failed", error);
+                    replaying.set(false);
+                }, () -> {
+                    if (failed.isEmpty()) {
+                        replayNext();
+                        return;
+                    }
+                    log.warn("Replay interrupted, {} messages returned to the buffer", failed.size());
+                    requeue(failed);
+                    if (circuitBreaker.isClosed()) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.reopen();
+                    }
+                    replaying.set(false);
+                });
+    }
+
+    // 다음 덩어리 - 버퍼가 비었으면 같은 잠금 안에서 차단기를 닫아 새 메시지가 재생분을 앞지르지 않게 함
+    private synchronized List<Buffered> takeChunk() {
+        long threshold = System.nanoTime() - properties.getReplayMaxAge().toNanos();
+        List<Buffered> chunk = new ArrayList<>(Math.min(replay.size(), REPLAY_CHUNK));
+        Buffered next;
+        while (chunk.size() < REPLAY_CHUNK && (next = replay.pollFirst()) != null) {
+            if (next.bufferedAt() - threshold < 0) {
+                droppedExpired.increment();
+                continue;
+            }
+            chunk.add(next);
+        }
+        if (chunk.isEmpty()) {
+            circuitBreaker.close();
+            replaying.set(false);
+        }
+        return chunk;
+    }
+
+    // 실패분을 원래 순서대로 버퍼 앞에 되돌림 (한도는 넘기지 않음)
+    private synchronized void requeue(List<Buffered> failed) {
+        failed.sort((a, b) -> Long.compare(a.bufferedAt(), b.bufferedAt()));
+        for (int i = failed.size() - 1; i >= 0; i--) {
+            if (replay.size() >= properties.getReplayBufferSize()) {
+                droppedOverflow.increment();
+                continue;
+            }
+            replay.addFirst(failed.get(i));
+        }
+    }
+
+    private record Buffered(String chatRoomId, WebSocketMessage message, long bufferedAt) {
     }
-}
\ No newline at end of file
+}
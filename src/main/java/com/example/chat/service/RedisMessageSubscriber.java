@@ -1,38 +1,128 @@
 package com.example.chat.service;
 
+import com.example.chat.config.RedisPubSubProperties;
+import com.example.chat.model.MessageType;
 import com.example.chat.model.WebSocketMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
 import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * 채팅방별 Redis 채널 구독
+ *
+ * 단일 노드 Lettuce 클라이언트면 파티션(chat.redis.pubsub.partitions)마다 pub/sub 전용 연결을 하나씩 두고,
+ * 채널은 RedisPartitioner 가 고른 파티션 연결에 올린다 (발행 쪽과 같은 파티션).
+ * (여러 채팅방을 파티션별 SUBSCRIBE 명령 하나로 등록, 재연결 시 Lettuce 가 다시 구독)
+ * 클러스터 클라이언트는 chat.redis.pubsub.sharded=true 일 때 슬롯 주인 노드에 SSUBSCRIBE 하고,
+ * 그 외 구성에서는 채팅방마다 템플릿 listenTo 로 구독한다.
+ *
+ * 파티션 연결은 시작 워밍업(StartupWarmup)에서 미리 연다. 그 전에 구독이 들어오면
+ * 연결은 boundedElastic 에서 열고 (이벤트 루프를 막지 않음) 열린 뒤에 SUBSCRIBE 한다.
+ */
 @Service
 @Slf4j
 public class RedisMessageSubscriber {
 
+    private static final String CHANNEL_PREFIX = "chat:";
+
     private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<LettuceConnectionFactory> connectionFactory;
+    private final RedisPartitioner partitioner;
+    private final boolean sharded;
     private final ObjectMapper objectMapper;
 
-    // 🔥 수정: Disposable로 변경 (구독 취소용)
-    private final Map<String, Disposable> subscriptions = new ConcurrentHashMap<>();
+    // 로컬 구독자가 모두 빠진 뒤 채널을 유지하는 시간 (빠른 재접속 시 재구독 방지)
+    private final Duration linger;
+
+    // 채팅방별 Redis 채널 구독 (compute() 의 키 잠금 안에서만 변경)
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    // 로컬 구독자 없이 해제 대기 중인 채널 수 (channels 를 훑지 않도록 따로 셈)
+    private final AtomicInteger lingering = new AtomicInteger();
 
     // 메시지 핸들러 (ChatWebSocketHandler가 등록)
     private MessageHandler messageHandler;
 
+    // 수신 시각 → 이 노드 도착까지 (노드 간 전달 지연)
+    private final Timer lag;
+
+    // 파티션별 수신 메시지 수
+    private final Counter[] received;
+
+    // 파티션별 pub/sub 연결 (connect 에서 한 번에 엶)
+    private final Link[] links;
+    private volatile boolean connected;
+    private volatile boolean fallback;
+
     public RedisMessageSubscriber(
             ReactiveRedisTemplate<String, String> redisTemplate,
-            ObjectMapper objectMapper
+            ObjectProvider<LettuceConnectionFactory> connectionFactory,
+            RedisPartitioner partitioner,
+            RedisPubSubProperties pubSubProperties,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${chat.redis.channel-linger:30s}") Duration linger
     ) {
         this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.partitioner = partitioner;
+        this.sharded = pubSubProperties.isSharded();
         this.objectMapper = objectMapper;
+        this.linger = linger;
+
+        this.lag = deliveryLag(meterRegistry, "redis");
+
+        this.links = new Link[partitioner.partitions()];
+        this.received = new Counter[links.length];
+        for (int partition = 0; partition < links.length; partition++) {
+            received[partition] = Counter.builder("chat.redis.pubsub.received")
+                    .tag("partition", String.valueOf(partition))
+                    .description("Messages received from Redis Pub/Sub per partition connection")
+                    .register(meterRegistry);
+        }
+
+        Gauge.builder("chat.redis.channels", this, RedisMessageSubscriber::getChannelCount)
+                .description("Redis Pub/Sub channels subscribed by this node")
+                .register(meterRegistry);
+        Gauge.builder("chat.redis.channels.lingering", this, RedisMessageSubscriber::getLingeringCount)
+                .description("Channels with no local subscriber waiting to be released")
+                .register(meterRegistry);
     }
 
     /**
@@ -43,70 +133,260 @@ public class RedisMessageSubscriber {
     }
 
     /**
-     * 채팅방 구독
-     * 
+     * 채팅방 구독 (로컬 구독자 1명 추가)
+     *
      * 단일 서버: 같은 채팅방에 여러 user 입장 시, Redis는 1번만 구독
      * 다중 서버: 각 서버가 독립적으로 구독
      */
-    public Mono<Void> subscribe(String chatRoomId) {
-        String channel = "chat:" + chatRoomId;
+    public void subscribe(String chatRoomId) {
+        if (retain(chatRoomId)) {
+            open(List.of(chatRoomId));
+        }
+    }
+
+    /**
+     * 로컬 구독자 1명 추가 (Redis 명령 없음) - 채널을 새로 열어야 하면 true
+     *
+     * 여러 채팅방을 한 번에 구독할 때는 retain 을 모은 뒤 open 으로 SUBSCRIBE 한 번에 등록한다.
+     */
+    public boolean retain(String chatRoomId) {
+        boolean[] opened = new boolean[1];
+        channels.compute(chatRoomId, (key, channel) -> {
+            if (channel == null) {
+                channel = new Channel();
+                opened[0] = true;
+            } else if (channel.linger != null) {
+                // 해제 대기 중이던 채널 재사용
+                channel.linger.dispose();
+                channel.linger = null;
+                lingering.decrementAndGet();
+                log.debug("Reusing lingering Redis channel: chat:{}", chatRoomId);
+            }
+            channel.refCount++;
+            return channel;
+        });
+        return opened[0];
+    }
+
+    /**
+     * 파티션 pub/sub 연결 열기 (블로킹 연결은 boundedElastic 에서) - 열린 연결 수
+     *
+     * 시작 워밍업에서 부르고, 그 전에 들어온 구독은 open 이 이것을 기다린 뒤 등록한다.
+     */
+    public Mono<Integer> connect() {
+        return Mono.fromCallable(this::connectLinks)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
 
-        // 이미 구독 중이면 스킵 (같은 채팅방의 다른 유저가 입장한 경우)
-        if (subscriptions.containsKey(chatRoomId)) {
-            log.debug("Already subscribed to channel: {} (another user in same room)", channel);
-            return Mono.empty();
+    /**
+     * retain 으로 새로 생긴 채널들을 Redis 에 등록 (공용 연결이면 파티션마다 SUBSCRIBE 명령 하나)
+     */
+    public void open(Collection<String> opened) {
+        if (opened.isEmpty()) {
+            return;
+        }
+        if (connected) {
+            register(opened);
+            return;
         }
 
-        log.info("Starting new Redis subscription for channel: {}", channel);
+        // 연결 전 - 열릴 때까지 재시도한 뒤 그때도 남아 있는 채널만 등록
+        List<String> pending = List.copyOf(opened);
+        connect()
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(retry -> log.warn("Redis pub/sub connections not open yet, retrying: {}",
+                                retry.failure().toString())))
+                .subscribe(links -> register(pending.stream().filter(channels::containsKey).toList()));
+    }
 
-        // 🔥 수정: subscribe() 호출하고 Disposable 저장
-        Disposable disposable = redisTemplate
-                .listenTo(ChannelTopic.of(channel))
-                .doOnNext(message -> {
-                    String payload = message.getMessage();
-                    log.debug("Received message from Redis channel {}: {}", channel, payload);
+    private void register(Collection<String> opened) {
+        if (opened.isEmpty()) {
+            return;
+        }
 
-                    try {
-                        WebSocketMessage wsMessage = objectMapper.readValue(payload, WebSocketMessage.class);
+        if (fallback) {
+            // 채널마다 listenTo (구독 핸들은 채널 상태에 보관)
+            opened.forEach(chatRoomId -> channels.computeIfPresent(chatRoomId, (key, channel) -> {
+                if (channel.subscription == null) {
+                    channel.subscription = listen(chatRoomId);
+                }
+                return channel;
+            }));
+            return;
+        }
 
-                        // 메시지 핸들러에게 전달
-                        if (messageHandler != null) {
-                            messageHandler.handleRedisMessage(chatRoomId, wsMessage);
-                        }
-                    } catch (Exception e) {
-                        log.error("Failed to parse Redis message", e);
-                    }
-                })
-                .doOnError(error -> {
-                    log.error("Error in Redis subscription for channel: {}", channel, error);
-                    // 에러 발생 시 구독 제거
-                    subscriptions.remove(chatRoomId);
-                })
-                .doOnComplete(() -> {
-                    log.info("Redis subscription completed for channel: {}", channel);
-                    subscriptions.remove(chatRoomId);
-                })
-                .subscribe();  // ← 여기서 subscribe() 호출!
+        List<List<String>> byPartition = new ArrayList<>(links.length);
+        for (int partition = 0; partition < links.length; partition++) {
+            byPartition.add(new ArrayList<>());
+        }
+        opened.forEach(chatRoomId -> {
+            String name = CHANNEL_PREFIX + chatRoomId;
+            byPartition.get(partitioner.partitionOf(name)).add(name);
+        });
+        for (int partition = 0; partition < links.length; partition++) {
+            String[] names = byPartition.get(partition).toArray(String[]::new);
+            if (names.length == 0) {
+                continue;
+            }
+            int target = partition;
+            links[partition].subscribe(names).whenComplete((result, error) -> {
+                if (error != null) {
+                    log.error("Failed to subscribe to {} Redis channels (partition={})", names.length, target, error);
+                } else {
+                    log.info("Subscribed to {} Redis channels (partition={})", names.length, target);
+                }
+            });
+        }
+    }
 
-        // Disposable 저장
-        subscriptions.put(chatRoomId, disposable);
-        log.info("Subscribed to Redis channel: {} (subscribers in this server can receive messages)", channel);
+    /**
+     * 채팅방 구독 해제 (로컬 구독자 1명 제거)
+     *
+     * 마지막 구독자가 빠지면 linger 시간 뒤에 실제로 Redis 구독을 끊는다.
+     */
+    public void unsubscribe(String chatRoomId) {
+        channels.computeIfPresent(chatRoomId, (key, channel) -> {
+            if (channel.refCount > 0 && --channel.refCount == 0) {
+                Channel idle = channel;
+                lingering.incrementAndGet();
+                channel.linger = Mono.delay(linger)
+                        .subscribe(tick -> expire(chatRoomId, idle));
+            }
+            return channel;
+        });
+    }
 
-        return Mono.empty();
+    /**
+     * 현재 구독 중인 Redis 채널 수
+     */
+    public int getChannelCount() {
+        return channels.size();
     }
 
     /**
-     * 채팅방 구독 해제
+     * 로컬 구독자 없이 해제 대기 중인 채널 수
      */
-    public Mono<Void> unsubscribe(String chatRoomId) {
-        Disposable disposable = subscriptions.remove(chatRoomId);
+    public long getLingeringCount() {
+        return lingering.get();
+    }
 
-        if (disposable != null && !disposable.isDisposed()) {
-            disposable.dispose();
+    /**
+     * linger 만료 - 그 사이 다시 구독되지 않았으면 Redis 구독 취소
+     */
+    private void expire(String chatRoomId, Channel expected) {
+        channels.computeIfPresent(chatRoomId, (key, channel) -> {
+            if (channel != expected || channel.refCount > 0) {
+                return channel;
+            }
+            release(chatRoomId, channel);
+            lingering.decrementAndGet();
             log.info("Unsubscribed from Redis channel: chat:{}", chatRoomId);
+            return null;
+        });
+    }
+
+    private void release(String chatRoomId, Channel channel) {
+        if (channel.subscription != null) {
+            channel.subscription.dispose();
+            return;
+        }
+        String name = CHANNEL_PREFIX + chatRoomId;
+        Link link = links[partitioner.partitionOf(name)];
+        if (link != null) {
+            link.unsubscribe(name);
+        }
+    }
+
+    // 아직 없는 파티션 연결을 모두 엶 (블로킹 - 이벤트 루프 / Lettuce 콜백에서 부르지 않음)
+    // 공용 연결을 쓸 수 없는 구성이면 fallback (채널별 listenTo)
+    private synchronized int connectLinks() {
+        if (connected) {
+            return fallback ? 0 : links.length;
+        }
+        LettuceConnectionFactory factory = connectionFactory.getIfAvailable();
+        AbstractRedisClient client = factory != null ? factory.getNativeClient() : null;
+        if (client instanceof RedisClient redisClient) {
+            for (int i = 0; i < links.length; i++) {
+                if (links[i] == null) {
+                    links[i] = new PlainLink(redisClient.connectPubSub(StringCodec.UTF8), i);
+                }
+            }
+            log.info("Redis pub/sub connections opened (partitions={})", links.length);
+        } else if (client instanceof RedisClusterClient clusterClient && sharded) {
+            for (int i = 0; i < links.length; i++) {
+                if (links[i] == null) {
+                    links[i] = new ShardedLink(clusterClient, clusterClient.connectPubSub(StringCodec.UTF8), i);
+                }
+            }
+            log.info("Redis sharded pub/sub connections opened (partitions={})", links.length);
+        } else {
+            fallback = true;
+            log.info("Shared Redis pub/sub connection unavailable for this client, subscribing per channel");
+        }
+        connected = true;
+        return fallback ? 0 : links.length;
+    }
+
+    /**
+     * 샤드 Pub/Sub: 슬롯 주인이 바뀐 채널을 새 주인 노드에 다시 SSUBSCRIBE
+     *
+     * 슬롯 이동은 이전 노드가 보내는 sunsubscribe 알림으로 바로 처리하고,
+     * 알림 없이 노드가 사라진 경우(장애 조치)는 이 주기 점검으로 따라잡는다.
+     */
+    @Scheduled(fixedDelay = 10_000)
+    public void resubscribeMoved() {
+        if (!connected) {
+            return;
+        }
+        for (Link link : links) {
+            if (link instanceof ShardedLink shardedLink) {
+                shardedLink.reconcile();
+            }
+        }
+    }
+
+    private Disposable listen(String chatRoomId) {
+        String channel = CHANNEL_PREFIX + chatRoomId;
+
+        return redisTemplate
+                .listenTo(ChannelTopic.of(channel))
+                .doOnNext(message -> dispatch(partitioner.partitionOf(channel), chatRoomId, message.getMessage()))
+                .doOnError(error -> log.error("Error in Redis subscription for channel: {}", channel, error))
+                // 로컬 구독자가 남아 있는 동안은 끊겨도 다시 구독
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    private void dispatch(int partition, String chatRoomId, String payload) {
+        received[partition].increment();
+        log.debug("Received message from Redis channel {}{}: {}", CHANNEL_PREFIX, chatRoomId, payload);
+
+        try {
+            WebSocketMessage wsMessage = objectMapper.readValue(payload, WebSocketMessage.class);
+            if (wsMessage.getType() == MessageType.CHAT && wsMessage.getTimestamp() != null) {
+                lag.record(Duration.between(wsMessage.getTimestamp(), Instant.now()));
+            }
+
+            // 메시지 핸들러에게 전달
+            if (messageHandler != null) {
+                messageHandler.handleRedisMessage(chatRoomId, wsMessage);
+            }
+        } catch (Exception e) {
+            log.error("Failed to parse Redis message", e);
         }
+    }
 
-        return Mono.empty();
+    /**
+     * 노드 간 전달 지연 타이머 (path=redis / change-stream)
+     */
+    static Timer deliveryLag(MeterRegistry meterRegistry, String path) {
+        return Timer.builder("chat.delivery.remote.lag")
+                .tag("path", path)
+                .description("Time from message receipt on the sending node to arrival on this node")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
     }
 
     /**
@@ -114,12 +394,21 @@ public class RedisMessageSubscriber {
      */
     @PreDestroy
     public void destroy() {
-        subscriptions.forEach((chatRoomId, disposable) -> {
-            if (!disposable.isDisposed()) {
-                disposable.dispose();
+        channels.forEach((chatRoomId, channel) -> {
+            if (channel.linger != null) {
+                channel.linger.dispose();
+            }
+            if (channel.subscription != null) {
+                channel.subscription.dispose();
             }
         });
-        subscriptions.clear();
+        channels.clear();
+        for (Link link : links) {
+            if (link != null) {
+                link.close();
+            }
+        }
+        lingering.set(0);
         log.info("All Redis subscriptions cancelled");
     }
 
@@ -130,4 +419,189 @@ public class RedisMessageSubscriber {
     public interface MessageHandler {
         void handleRedisMessage(String chatRoomId, WebSocketMessage message);
     }
-}
\ No newline at end of file
+
+    // 파티션 하나의 pub/sub 연결
+    private interface Link {
+        CompletionStage<Void> subscribe(String... channels);
+
+        void unsubscribe(String channel);
+
+        void close();
+    }
+
+    // 단일 노드 - SUBSCRIBE/UNSUBSCRIBE
+    private final class PlainLink implements Link {
+
+        private final StatefulRedisPubSubConnection<String, String> connection;
+
+        private PlainLink(StatefulRedisPubSubConnection<String, String> connection, int partition) {
+            this.connection = connection;
+            connection.addListener(new RedisPubSubAdapter<>() {
+                @Override
+                public void message(String channel, String message) {
+                    dispatch(partition, channel.substring(CHANNEL_PREFIX.length()), message);
+                }
+            });
+        }
+
+        @Override
+        public CompletionStage<Void> subscribe(String... channels) {
+            return connection.async().subscribe(channels);
+        }
+
+        @Override
+        public void unsubscribe(String channel) {
+            connection.async().unsubscribe(channel);
+        }
+
+        @Override
+        public void close() {
+            connection.close();
+        }
+    }
+
+    /**
+     * 클러스터 샤드 Pub/Sub - 채널 슬롯의 주인 노드 연결에 SSUBSCRIBE/SUNSUBSCRIBE
+     *
+     * SSUBSCRIBE 는 한 명령의 채널이 모두 같은 슬롯이어야 하므로 채널마다 보낸다.
+     * 노드 연결마다 수신 리스너를 한 번씩 직접 붙인다 (클러스터 연결로의 메시지 전파는 쓰지 않음).
+     * 채널마다 구독한 노드를 기억해 두고, 슬롯이 옮겨지면 토폴로지를 새로 읽어 새 주인에게 다시 구독한다.
+     */
+    private final class ShardedLink implements Link {
+
+        // 아직 구독이 확인되지 않은 채널의 노드 자리
+        private static final String PENDING = "";
+
+        private final RedisClusterClient client;
+        private final StatefulRedisClusterPubSubConnection<String, String> connection;
+        private final RedisPubSubAdapter<String, String> listener;
+        private final Set<StatefulRedisPubSubConnection<String, String>> listened = ConcurrentHashMap.newKeySet();
+
+        // 구독 중인 채널 → 구독한 노드 ID
+        private final Map<String, String> owners = new ConcurrentHashMap<>();
+
+        // 우리가 보낸 SUNSUBSCRIBE (응답 알림을 슬롯 이동으로 오인하지 않도록)
+        private final Set<String> leaving = ConcurrentHashMap.newKeySet();
+
+        private ShardedLink(RedisClusterClient client,
+                            StatefulRedisClusterPubSubConnection<String, String> connection, int partition) {
+            this.client = client;
+            this.connection = connection;
+            this.listener = new RedisPubSubAdapter<>() {
+                @Override
+                public void smessage(String channel, String message) {
+                    dispatch(partition, channel.substring(CHANNEL_PREFIX.length()), message);
+                }
+
+                @Override
+                public void sunsubscribed(String channel, long count) {
+                    if (!leaving.remove(channel)) {
+                        moved(channel);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public CompletionStage<Void> subscribe(String... channels) {
+            CompletableFuture<?>[] sent = new CompletableFuture<?>[channels.length];
+            for (int i = 0; i < channels.length; i++) {
+                owners.put(channels[i], PENDING);
+                sent[i] = subscribeOne(channels[i]).toCompletableFuture();
+            }
+            return CompletableFuture.allOf(sent);
+        }
+
+        @Override
+        public void unsubscribe(String channel) {
+            String nodeId = owners.remove(channel);
+            if (nodeId == null || nodeId.equals(PENDING)) {
+                return;
+            }
+            leave(channel, nodeId);
+        }
+
+        @Override
+        public void close() {
+            connection.close();
+        }
+
+        // 슬롯 주인이 바뀐 (또는 구독이 확인되지 않은) 채널 다시 구독
+        void reconcile() {
+            owners.forEach((channel, nodeId) -> {
+                RedisClusterNode owner = connection.getPartitions().getMasterBySlot(SlotHash.getSlot(channel));
+                if (owner == null || !owner.getNodeId().equals(nodeId)) {
+                    resubscribe(channel);
+                }
+            });
+        }
+
+        // 이전 노드가 구독을 끊음 (슬롯 이동) - 토폴로지를 새로 읽고 새 주인에게 구독
+        private void moved(String channel) {
+            if (owners.replace(channel, PENDING) == null) {
+                return;
+            }
+            log.info("Sharded channel {} moved, refreshing cluster topology", channel);
+            client.refreshPartitionsAsync()
+                    .whenComplete((result, error) -> resubscribe(channel));
+        }
+
+        private void resubscribe(String channel) {
+            if (!owners.containsKey(channel)) {
+                return;
+            }
+            subscribeOne(channel).whenComplete((nodeId, error) -> {
+                if (error != null) {
+                    log.warn("Failed to resubscribe sharded channel {}, retrying on next check: {}",
+                            channel, error.toString());
+                } else {
+                    log.info("Resubscribed sharded channel {} on node {}", channel, nodeId);
+                }
+            });
+        }
+
+        // 지금 슬롯 주인에게 SSUBSCRIBE - 성공하면 구독한 노드 ID 기록 (그 사이 해제됐으면 기록하지 않음)
+        private CompletionStage<String> subscribeOne(String channel) {
+            RedisClusterNode owner = connection.getPartitions().getMasterBySlot(SlotHash.getSlot(channel));
+            if (owner == null) {
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("No cluster node owns the slot of " + channel));
+            }
+            String nodeId = owner.getNodeId();
+            return connection.getConnectionAsync(nodeId)
+                    .thenCompose(node -> {
+                        if (listened.add(node)) {
+                            node.addListener(listener);
+                        }
+                        return node.async().ssubscribe(channel);
+                    })
+                    .thenApply(result -> {
+                        if (owners.replace(channel, nodeId) == null) {
+                            // 응답을 기다리는 사이 해제됨 → 바로 끊음
+                            leave(channel, nodeId);
+                        }
+                        return nodeId;
+                    });
+        }
+
+        private void leave(String channel, String nodeId) {
+            leaving.add(channel);
+            connection.getConnectionAsync(nodeId)
+                    .thenCompose(node -> node.async().sunsubscribe(channel))
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            leaving.remove(channel);
+                            log.warn("Failed to unsubscribe sharded channel {} on node {}: {}",
+                                    channel, nodeId, error.toString());
+                        }
+                    });
+        }
+    }
+
+    // 채팅방 하나의 Redis 구독 상태
+    private static final class Channel {
+        private volatile int refCount;
+        private Disposable subscription;  // 채널별 listenTo 로 구독한 경우만
+        private Disposable linger;
+    }
+}
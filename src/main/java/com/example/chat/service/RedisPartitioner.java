@@ -0,0 +1,81 @@
+package com.example.chat.service;
+
+import com.example.chat.config.RedisPubSubProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Redis 채널 → 파티션(발행/구독 연결) 일관 해싱
+ *
+ * 파티션마다 가상 노드를 해시 링에 올리고, 채널 해시 이후 첫 지점의 파티션을 쓴다.
+ * 채팅방 채널은 항상 같은 파티션으로 가므로 채팅방 안의 발행 순서가 유지되고,
+ * 파티션 수를 바꿔도 옮겨가는 채널은 대략 1/N 뿐이다.
+ */
+@Component
+public class RedisPartitioner {
+
+    private final int partitions;
+
+    // 정렬된 링 지점과 각 지점의 파티션 (이진 탐색)
+    private final int[] points;
+    private final int[] owners;
+
+    public RedisPartitioner(RedisPubSubProperties properties) {
+        this.partitions = Math.max(1, properties.getPartitions());
+        int virtualNodes = Math.max(1, properties.getVirtualNodes());
+
+        long[] ring = new long[partitions * virtualNodes];
+        for (int partition = 0; partition < partitions; partition++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                int point = hash("partition-" + partition + "#" + node);
+                // 상위 32비트에 지점, 하위에 파티션 → 한 번의 정렬로 함께 정렬
+                ring[partition * virtualNodes + node] = ((long) point << 32) | partition;
+            }
+        }
+        Arrays.sort(ring);
+
+        this.points = new int[ring.length];
+        this.owners = new int[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            points[i] = (int) (ring[i] >> 32);
+            owners[i] = (int) ring[i];
+        }
+    }
+
+    /**
+     * 파티션 수
+     */
+    public int partitions() {
+        return partitions;
+    }
+
+    /**
+     * 채널이 속한 파티션 (0 ~ partitions-1)
+     */
+    public int partitionOf(String channel) {
+        if (partitions == 1) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(points, hash(channel));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // FNV-1a + murmur3 fmix (String.hashCode 보다 링 위에 고르게 퍼짐)
+    private static int hash(String key) {
+        int h = 0x811c9dc5;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.chat.service;
+
+import com.example.chat.config.RedisPubSubProperties;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Redis PUBLISH 적응형 묶음 전송
+ *
+ * 파티션(chat.redis.pubsub.partitions)마다 전용 Lettuce 연결을 두고, 채널은 RedisPartitioner 로 한 파티션에 고정된다.
+ * 파티션 안에서는 보낸 묶음의 응답을 기다리는 동안(max-in-flight 초과) 들어온 PUBLISH 가 큐에 쌓였다가
+ * 자동 flush 를 끈 채 한 번에 쓰고 flush 한다.
+ * - 한가할 때: 큐가 비어 있으므로 바로 1건씩 전송 (추가 지연 없음)
+ * - 바쁠 때: 묶음 크기가 왕복 시간 × 유입량만큼 자연스럽게 커짐 (최대 max-batch)
+ *
+ * 파티션 큐는 FIFO 이고 채널은 한 파티션에만 가므로 채널별 발행 순서가 그대로 유지된다.
+ * 클러스터 클라이언트는 chat.redis.pubsub.sharded=true 일 때 SPUBLISH 로 묶어 보내고(슬롯 주인 노드로 라우팅),
+ * 그 외 구성에서는 메시지마다 템플릿으로 발행한다.
+ */
+@Component
+@Slf4j
+public class RedisPublishBatcher {
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectProvider<LettuceConnectionFactory> connectionFactory;
+    private final RedisPartitioner partitioner;
+    private final boolean sharded;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final int maxInFlight;
+
+    private final Lane[] lanes;
+
+    private volatile boolean fallback;
+
+    public RedisPublishBatcher(
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            ObjectProvider<LettuceConnectionFactory> connectionFactory,
+            RedisPartitioner partitioner,
+            RedisPubSubProperties pubSubProperties,
+            MeterRegistry meterRegistry,
+            @Value("${chat.redis.publish.batching:true}") boolean enabled,
+            @Value("${chat.redis.publish.max-batch:256}") int maxBatch,
+            @Value("${chat.redis.publish.max-in-flight:1}") int maxInFlight
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.partitioner = partitioner;
+        this.sharded = pubSubProperties.isSharded();
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxInFlight = maxInFlight;
+
+        this.lanes = new Lane[partitioner.partitions()];
+        for (int partition = 0; partition < lanes.length; partition++) {
+            lanes[partition] = new Lane(partition, meterRegistry);
+        }
+    }
+
+    /**
+     * 채널에 발행 - 이 메시지의 PUBLISH 응답(수신 구독자 수)이 오면 완료
+     */
+    public Mono<Long> publish(String channel, String message) {
+        if (!enabled || fallback) {
+            return redisTemplate.convertAndSend(channel, message);
+        }
+        Lane lane = lanes[partitioner.partitionOf(channel)];
+        return Mono.create(sink -> {
+            lane.queue.add(new Pending(channel, message, sink, System.nanoTime()));
+            lane.queued.incrementAndGet();
+            lane.drain();
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (Lane lane : lanes) {
+            Link current = lane.link;
+            if (current != null) {
+                current.connection().close();
+            }
+        }
+    }
+
+    // 아직 없는 파티션 연결을 한 번에 엶 - 연결은 블로킹이라 나중에 Lettuce 응답 콜백 안에서 새로 열지 않도록
+    private synchronized void connectAll() {
+        if (fallback) {
+            return;
+        }
+        LettuceConnectionFactory factory = connectionFactory.getIfAvailable();
+        AbstractRedisClient client = factory != null ? factory.getNativeClient() : null;
+        if (!(client instanceof RedisClient) && !(client instanceof RedisClusterClient && sharded)) {
+            fallback = true;
+            log.info("Redis publish batching unavailable for this client, publishing per message");
+            return;
+        }
+        for (Lane lane : lanes) {
+            if (lane.link != null) {
+                continue;
+            }
+            if (client instanceof RedisClient redisClient) {
+                StatefulRedisConnection<String, String> connection = redisClient.connect(StringCodec.UTF8);
+                lane.link = new Link(connection, connection.async()::publish);
+            } else {
+                StatefulRedisClusterConnection<String, String> connection =
+                        ((RedisClusterClient) client).connect(StringCodec.UTF8);
+                lane.link = new Link(connection, connection.async()::spublish);
+            }
+        }
+        log.info("Redis {}publish batching enabled (partitions={}, max-batch={}, max-in-flight={})",
+                client instanceof RedisClient ? "" : "sharded ", lanes.length, maxBatch, maxInFlight);
+    }
+
+    // 파티션 하나의 발행 큐와 연결
+    private final class Lane {
+
+        private final int partition;
+
+        private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();  // 응답을 기다리는 묶음 수
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final DistributionSummary batchSize;
+        private final Timer queueDelay;
+
+        private volatile Link link;
+
+        private Lane(int partition, MeterRegistry meterRegistry) {
+            this.partition = partition;
+            String tag = String.valueOf(partition);
+            this.batchSize = DistributionSummary.builder("chat.redis.publish.batch")
+                    .tag("partition", tag)
+                    .description("PUBLISH commands written per flush")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            this.queueDelay = Timer.builder("chat.redis.publish.queue")
+                    .tag("partition", tag)
+                    .description("Time a PUBLISH waited in the local queue before being written")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+            Gauge.builder("chat.redis.publish.queued", queued, AtomicInteger::get)
+                    .tag("partition", tag)
+                    .description("PUBLISH commands waiting to be written")
+                    .register(meterRegistry);
+        }
+
+        // 한 번에 한 스레드만 큐를 비움 (자동 flush 토글이 섞이지 않도록)
+        private void drain() {
+            while (true) {
+                if (!draining.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    while (inFlight.get() < maxInFlight && !queue.isEmpty()) {
+                        List<Pending> batch = new ArrayList<>(Math.min(queued.get(), maxBatch));
+                        Pending pending;
+                        while (batch.size() < maxBatch && (pending = queue.poll()) != null) {
+                            batch.add(pending);
+                        }
+                        queued.addAndGet(-batch.size());
+                        write(batch);
+                    }
+                } finally {
+                    draining.set(false);
+                }
+                // 잠금을 놓는 사이에 들어온 항목을 놓치지 않도록 다시 확인
+                if (queue.isEmpty() || inFlight.get() >= maxInFlight) {
+                    return;
+                }
+            }
+        }
+
+        private void write(List<Pending> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Link redis;
+            try {
+                redis = link();
+            } catch (Exception e) {
+                log.error("Failed to open Redis publish connection (partition={})", partition, e);
+                batch.forEach(pending -> pending.sink().error(e));
+                return;
+            }
+            if (redis == null) {
+                // 묶음 전송을 쓸 수 없는 구성 → 템플릿으로
+                batch.forEach(pending -> redisTemplate.convertAndSend(pending.channel(), pending.message())
+                        .subscribe(pending.sink()::success, pending.sink()::error));
+                return;
+            }
+
+            long now = System.nanoTime();
+            batchSize.record(batch.size());
+            batch.forEach(pending -> queueDelay.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+            inFlight.incrementAndGet();
+            AtomicInteger remaining = new AtomicInteger(batch.size());
+            boolean pipelined = batch.size() > 1;
+            if (pipelined) {
+                redis.connection().setAutoFlushCommands(false);
+            }
+            try {
+                for (Pending pending : batch) {
+                    redis.publish().apply(pending.channel(), pending.message()).whenComplete((receivers, error) -> {
+                        if (error != null) {
+                            pending.sink().error(error);
+                        } else {
+                            pending.sink().success(receivers);
+                        }
+                        if (remaining.decrementAndGet() == 0) {
+                            inFlight.decrementAndGet();
+                            drain();
+                        }
+                    });
+                }
+            } finally {
+                if (pipelined) {
+                    redis.connection().flushCommands();
+                    redis.connection().setAutoFlushCommands(true);
+                }
+            }
+        }
+
+        private Link link() {
+            if (link == null && !fallback) {
+                connectAll();
+            }
+            return link;
+        }
+    }
+
+    // 발행 연결과 그 연결의 발행 명령 (PUBLISH 또는 SPUBLISH)
+    private record Link(StatefulConnection<String, String> connection,
+                        BiFunction<String, String, RedisFuture<Long>> publish) {
+    }
+
+    private record Pending(String channel, String message, MonoSink<Long> sink, long enqueuedAt) {
+    }
+}
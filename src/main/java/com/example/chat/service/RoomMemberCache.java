@@ -0,0 +1,75 @@
+package com.example.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 그룹 채팅방 참여 여부 캐시 (RoomMember ID → 참여 여부)
+ *
+ * SUBSCRIBE 와 CHAT 마다 참여자 문서를 조회하지 않도록 결과를 잠시 보관한다.
+ * 참여자 삭제는 모든 노드에 MEMBER_REMOVED 로 알려 바로 지우고,
+ * 다른 노드에서 추가된 참여자의 "비참여" 항목은 TTL 이 지나면 다시 조회된다.
+ */
+@Component
+@Slf4j
+public class RoomMemberCache {
+
+    private final Map<String, Entry> members = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public RoomMemberCache(
+            @Value("${chat.member-cache.ttl:30s}") Duration ttl,
+            @Value("${chat.member-cache.max-size:200000}") int maxSize
+    ) {
+        this.ttlMillis = ttl.toMillis();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return 캐시된 참여 여부 (없거나 만료됐으면 null)
+     */
+    public Boolean get(String memberId) {
+        Entry entry = members.get(memberId);
+        if (entry == null || entry.expiresAt() < System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.member();
+    }
+
+    // 가득 차면 새 항목은 넣지 않음 (다음 정리 주기까지 조회는 Mongo 로)
+    public void put(String memberId, boolean member) {
+        if (members.size() >= maxSize && !members.containsKey(memberId)) {
+            return;
+        }
+        members.put(memberId, new Entry(member, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void evict(String memberId) {
+        members.remove(memberId);
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        int before = members.size();
+        members.values().removeIf(entry -> entry.expiresAt() < now);
+        int evicted = before - members.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired room memberships", evicted);
+        }
+    }
+
+    private record Entry(boolean member, long expiresAt) {
+    }
+}
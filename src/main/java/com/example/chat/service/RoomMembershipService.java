@@ -0,0 +1,156 @@
+package com.example.chat.service;
+
+import com.example.chat.model.ChatRoom;
+import com.example.chat.model.RoomMember;
+import com.example.chat.model.WebSocketMessage;
+import com.example.chat.repository.RoomMemberRepository;
+import com.mongodb.client.result.DeleteResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 그룹 채팅방 참여자 관리 (room_members 컬렉션)
+ *
+ * 참여자 수(memberCount)는 실제로 추가/삭제된 건수만큼 채팅방 문서에 $inc 로 반영한다.
+ * 메시지 전달은 참여자 목록이 아니라 각 노드의 구독자 기준이라 여기서는 조회하지 않는다.
+ * 대신 SUBSCRIBE / CHAT 이 참여자인지 확인하며 (RoomMemberCache), 참여자를 삭제하면
+ * 채팅방 채널에 MEMBER_REMOVED 를 발행해 각 노드가 캐시와 그 사용자의 구독을 정리하게 한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RoomMembershipService {
+
+    private static final int MEMBER_BULK_SIZE = 1000;
+
+    private final RoomMemberRepository memberRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final RoomMemberCache memberCache;
+    private final RedisMessagePublisher redisPublisher;
+
+    /**
+     * 참여자 추가 (이미 있는 참여자는 건너뜀) - 새로 추가된 수 반환
+     */
+    public Mono<Long> addMembers(String chatRoomId, Collection<String> userIds) {
+        return Flux.fromIterable(new LinkedHashSet<>(userIds))
+                .filter(userId -> userId != null && !userId.isBlank())
+                .buffer(MEMBER_BULK_SIZE)
+                .concatMap(batch -> upsertMembers(chatRoomId, batch))
+                .reduce(0L, Long::sum)
+                .doOnSuccess(added -> userIds.forEach(userId -> memberCache.evict(RoomMember.id(chatRoomId, userId))))
+                .flatMap(added -> adjustMemberCount(chatRoomId, added).thenReturn(added))
+                .doOnSuccess(added -> log.info("Members added: chatRoomId={}, added={}", chatRoomId, added));
+    }
+
+    private Mono<Long> upsertMembers(String chatRoomId, List<String> userIds) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomMember.class);
+        for (String userId : userIds) {
+            RoomMember member = RoomMember.of(chatRoomId, userId);
+            bulk.upsert(Query.query(Criteria.where("_id").is(member.getId())), new Update()
+                    .setOnInsert("chatRoomId", member.getChatRoomId())
+                    .setOnInsert("userId", member.getUserId())
+                    .setOnInsert("joinedAt", member.getJoinedAt()));
+        }
+        return bulk.execute().map(result -> (long) result.getUpserts().size());
+    }
+
+    /**
+     * 참여자 삭제 - 실제로 있었는지 반환
+     *
+     * 삭제되면 MEMBER_REMOVED 를 발행해 모든 노드에서 그 사용자의 구독을 끊는다.
+     */
+    public Mono<Boolean> removeMember(String chatRoomId, String userId) {
+        String memberId = RoomMember.id(chatRoomId, userId);
+        return mongoTemplate.remove(Query.query(Criteria.where("_id").is(memberId)), RoomMember.class)
+                .map(DeleteResult::getDeletedCount)
+                .doOnSuccess(removed -> memberCache.evict(memberId))
+                .flatMap(removed -> adjustMemberCount(chatRoomId, -removed).thenReturn(removed > 0))
+                .flatMap(removed -> !removed
+                        ? Mono.just(false)
+                        : redisPublisher.publishMessage(chatRoomId, WebSocketMessage.memberRemoved(chatRoomId, userId))
+                                .thenReturn(true));
+    }
+
+    /**
+     * 다른 노드에서 삭제된 참여자 (MEMBER_REMOVED 수신) - 캐시에서 제거
+     */
+    public void evict(String chatRoomId, String userId) {
+        memberCache.evict(RoomMember.id(chatRoomId, userId));
+    }
+
+    public Flux<RoomMember> getMembers(String chatRoomId) {
+        return memberRepository.findByChatRoomId(chatRoomId);
+    }
+
+    /**
+     * 구독/발신 권한 확인 - GROUP 은 참여자 문서 (캐시), DIRECT 는 두 사용자 중 하나인지
+     */
+    public Mono<Boolean> isMember(ChatRoom chatRoom, String userId) {
+        if (userId == null) {
+            return Mono.just(false);
+        }
+        if (!chatRoom.isGroup()) {
+            return Mono.just(chatRoom.isParticipant(userId));
+        }
+        String memberId = RoomMember.id(chatRoom.getId(), userId);
+        Boolean cached = memberCache.get(memberId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return memberRepository.existsById(memberId)
+                .doOnNext(member -> memberCache.put(memberId, member));
+    }
+
+    /**
+     * 여러 채팅방 구독 권한 확인 - GROUP 참여자 문서는 $in 쿼리 한 번으로
+     *
+     * @return 구독할 수 있는 채팅방 ID
+     */
+    public Mono<Set<String>> allowedRoomIds(Collection<ChatRoom> chatRooms, String userId) {
+        Set<String> allowed = new HashSet<>();
+        List<String> memberIds = new ArrayList<>();
+        for (ChatRoom chatRoom : chatRooms) {
+            if (!chatRoom.isGroup()) {
+                if (chatRoom.isParticipant(userId)) {
+                    allowed.add(chatRoom.getId());
+                }
+            } else {
+                memberIds.add(RoomMember.id(chatRoom.getId(), userId));
+            }
+        }
+        if (memberIds.isEmpty()) {
+            return Mono.just(allowed);
+        }
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(memberIds)), RoomMember.class)
+                .doOnNext(member -> {
+                    allowed.add(member.getChatRoomId());
+                    memberCache.put(member.getId(), true);
+                })
+                .then(Mono.fromSupplier(() -> allowed));
+    }
+
+    private Mono<Void> adjustMemberCount(String chatRoomId, long delta) {
+        if (delta == 0) {
+            return Mono.empty();
+        }
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(chatRoomId)),
+                        new Update().inc("memberCount", delta), ChatRoom.class)
+                .then();
+    }
+}
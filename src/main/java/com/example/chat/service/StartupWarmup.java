@@ -0,0 +1,203 @@
+package com.example.chat.service;
+
+import com.example.chat.config.WarmupProperties;
+import com.example.chat.jwt.JWTUtil;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.WebSocketMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 준비(readiness) 전 워밍업
+ *
+ * ApplicationRunner 가 모두 끝나야 readiness 가 ACCEPTING_TRAFFIC 으로 바뀌므로,
+ * 여기서 끝날 때까지 기다리면 로드밸런서가 차가운 노드로 트래픽을 보내지 않는다.
+ * - mongo: 커넥션 풀 최소 크기만큼 동시에 ping (연결 수립)
+ * - redis: 공용 연결 ping + 발행 전용 연결, 파티션 pub/sub 연결 열기
+ * - rooms: 최근 활동 채팅방을 전달 경로용 캐시에 올림
+ * - codec / jwt: 메시지 JSON 변환과 토큰 검증을 반복해 JIT 컴파일 유도
+ *
+ * 단계가 실패하거나 제한 시간을 넘겨도 시작은 계속한다 (첫 요청이 조금 느릴 뿐).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final String WARMUP_CHANNEL = "chat:warmup";
+
+    private final WarmupProperties properties;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final RedisPublishBatcher publishBatcher;
+    private final RedisMessageSubscriber redisSubscriber;
+    private final ChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final JWTUtil jwtUtil;
+    private final SecretKey secretKey;
+    private final MeterRegistry meterRegistry;
+
+    public StartupWarmup(
+            WarmupProperties properties,
+            ReactiveMongoTemplate mongoTemplate,
+            ReactiveRedisTemplate<String, String> redisTemplate,
+            RedisPublishBatcher publishBatcher,
+            RedisMessageSubscriber redisSubscriber,
+            ChatService chatService,
+            ObjectMapper objectMapper,
+            JWTUtil jwtUtil,
+            @Value("${spring.jwt.secret}") String secret,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        this.redisTemplate = redisTemplate;
+        this.publishBatcher = publishBatcher;
+        this.redisSubscriber = redisSubscriber;
+        this.chatService = chatService;
+        this.objectMapper = objectMapper;
+        this.jwtUtil = jwtUtil;
+        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        log.info("Warm-up started (timeout={})", properties.getTimeout());
+        long start = System.nanoTime();
+
+        try {
+            Flux.concat(
+                            step("mongo", warmMongo()),
+                            step("redis", warmRedis()),
+                            step("rooms", chatService.prefetchRecentRooms(properties.getRecentRooms())),
+                            step("codec", Mono.fromCallable(this::warmCodec).subscribeOn(Schedulers.boundedElastic())),
+                            step("jwt", Mono.fromCallable(this::warmJwt).subscribeOn(Schedulers.boundedElastic())))
+                    .then()
+                    .block(properties.getTimeout());
+        } catch (Exception e) {
+            log.warn("Warm-up did not finish within {}, continuing startup", properties.getTimeout(), e);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        timer("total").record(Duration.ofNanos(elapsed));
+        log.info("Warm-up finished in {} ms", Duration.ofNanos(elapsed).toMillis());
+    }
+
+    // 단계별 소요 시간 기록, 실패해도 다음 단계로
+    private Mono<Void> step(String name, Mono<?> work) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work
+                    .doOnSuccess(result -> {
+                        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                        timer(name).record(elapsed);
+                        log.info("Warm-up {}: {} ({} ms)", name, result, elapsed.toMillis());
+                    })
+                    .onErrorResume(error -> {
+                        log.warn("Warm-up {} failed", name, error);
+                        return Mono.empty();
+                    })
+                    .then();
+        });
+    }
+
+    private Timer timer(String step) {
+        return Timer.builder("chat.warmup")
+                .tag("step", step)
+                .description("Startup warm-up duration before readiness")
+                .register(meterRegistry);
+    }
+
+    // 동시에 보내야 풀이 최소 크기까지 연결을 실제로 연다
+    private Mono<Long> warmMongo() {
+        int connections = Math.max(1, properties.getMongoMinConnections());
+        return Flux.range(0, connections)
+                .flatMap(i -> mongoTemplate.executeCommand(new Document("ping", 1)), connections)
+                .count();
+    }
+
+    private Mono<Long> warmRedis() {
+        return redisTemplate.execute(connection -> connection.ping())
+                .then(publishBatcher.publish(WARMUP_CHANNEL, "ping"))
+                .flatMap(published -> redisSubscriber.connect().thenReturn(published));
+    }
+
+    // 실제 전송 경로와 같은 형태(CHAT 단건, BATCH 묶음, 저장 문서)로 변환 반복
+    private Integer warmCodec() throws Exception {
+        Instant now = Instant.now();
+        ChatMessage chatMessage = ChatMessage.builder()
+                .id("warmup")
+                .chatRoomId("warmup")
+                .senderId("0")
+                .content("warm-up message")
+                .timestamp(now)
+                .seq(1L)
+                .build();
+        WebSocketMessage single = WebSocketMessage.fromChatMessage(chatMessage);
+        List<WebSocketMessage> frames = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            frames.add(single);
+        }
+        WebSocketMessage batch = WebSocketMessage.batch(frames);
+
+        int iterations = properties.getCodecIterations();
+        for (int i = 0; i < iterations; i++) {
+            String json = objectMapper.writeValueAsString(single);
+            objectMapper.readValue(json, WebSocketMessage.class);
+            objectMapper.readValue(objectMapper.writeValueAsString(batch), WebSocketMessage.class);
+            objectMapper.readValue(objectMapper.writeValueAsString(chatMessage), ChatMessage.class);
+        }
+        return iterations;
+    }
+
+    // JWTUtil 은 발행 기능이 없으므로 같은 비밀키로 합성 토큰을 만들어 검증 경로만 반복
+    private Integer warmJwt() {
+        Instant now = Instant.now();
+        String token = Jwts.builder()
+                .claim("userId", 0L)
+                .claim("email", "warmup@localhost")
+                .claim("role", "USER")
+                .claim("category", "accessToken")
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(Duration.ofMinutes(5))))
+                .signWith(secretKey)
+                .compact();
+
+        int iterations = properties.getJwtIterations();
+        for (int i = 0; i < iterations; i++) {
+            if (!jwtUtil.validateToken(token).isValid()) {
+                throw new IllegalStateException("Warm-up token rejected (check spring.jwt.secret)");
+            }
+            jwtUtil.getUserId(token);
+        }
+        return iterations;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.chat.controller;
+
+import com.example.chat.model.ChatMessage;
+import com.example.chat.service.ChatService;
+import com.example.chat.service.PresenceService;
+import com.example.chat.service.RoomMembershipService;
+import com.mongodb.MongoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 메시지 검색 - 텍스트 인덱스가 없을 때 응답
+ */
+class ChatControllerSearchTest {
+
+    private ChatService chatService;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        chatService = mock(ChatService.class);
+        client = WebTestClient.bindToController(new ChatController(
+                chatService, mock(PresenceService.class), mock(RoomMembershipService.class))).build();
+    }
+
+    @Test
+    void missingTextIndexIsServiceUnavailable() {
+        when(chatService.searchMessages(anyString(), anyString(), anyInt())).thenReturn(Flux.error(
+                new UncategorizedMongoDbException("Query failed", new MongoException(27, "text index required for $text query"))));
+
+        client.get().uri("/api/chat/rooms/room-1/search?q=hello")
+                .exchange()
+                .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void otherErrorsAreNotMapped() {
+        when(chatService.searchMessages(anyString(), anyString(), anyInt())).thenReturn(Flux.error(
+                new UncategorizedMongoDbException("Query failed", new MongoException(2, "bad value"))));
+
+        client.get().uri("/api/chat/rooms/room-1/search?q=hello")
+                .exchange()
+                .expectStatus().isEqualTo(500);
+    }
+
+    @Test
+    void resultsAreReturned() {
+        when(chatService.searchMessages("room-1", "hello", 20)).thenReturn(Flux.just(
+                ChatMessage.builder().id("m1").chatRoomId("room-1").content("hello there").build()));
+
+        client.get().uri("/api/chat/rooms/room-1/search?q=hello")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ChatMessage.class).hasSize(1);
+    }
+}
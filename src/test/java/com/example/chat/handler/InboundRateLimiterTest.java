@@ -0,0 +1,60 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.InboundRateLimitProperties;
+import com.example.chat.config.InboundRateLimitProperties.Limit;
+import com.example.chat.model.MessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 수신 프레임 제한 - 파싱 전 차감과 타입별 재분류
+ */
+class InboundRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InboundRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // 충전이 사실상 없도록 (버스트만 확인)
+        InboundRateLimitProperties properties = new InboundRateLimitProperties();
+        properties.setChat(new Limit(0.001, 5, 0.001, 100));
+        properties.setOther(new Limit(0.001, 2, 0.001, 100));
+        rateLimiter = new InboundRateLimiter(properties, meterRegistry);
+    }
+
+    @Test
+    void unparseableFramesAreChargedToOtherBucket() {
+        // 파싱에 실패해서 tryAcquire 까지 가지 않는 프레임
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isTrue();
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isTrue();
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isFalse();
+
+        assertThat(rateLimiter.getThrottledTotal()).isEqualTo(1);
+        assertThat(meterRegistry.get("chat.inbound.throttled")
+                .tag("scope", "session").tag("type", "OTHER").counter().count()).isEqualTo(1.0);
+        // 다른 세션에는 영향 없음
+        assertThat(rateLimiter.tryAcquireFrame("s2")).isTrue();
+    }
+
+    @Test
+    void parsedChatFramesUseChatBucketNotOther() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquireFrame("s1")).isTrue();
+            assertThat(rateLimiter.tryAcquire("s1", 7L, MessageType.CHAT)).isTrue();
+        }
+        // CHAT 버스트 소진 (선점한 OTHER 토큰은 돌려받음)
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isTrue();
+        assertThat(rateLimiter.tryAcquire("s1", 7L, MessageType.CHAT)).isFalse();
+
+        // OTHER 버스트(2)는 그대로 남아 있음
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isTrue();
+        assertThat(rateLimiter.tryAcquire("s1", 7L, MessageType.PING)).isTrue();
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isTrue();
+        assertThat(rateLimiter.tryAcquire("s1", 7L, MessageType.PING)).isTrue();
+        assertThat(rateLimiter.tryAcquireFrame("s1")).isFalse();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.chat.handler;
+
+import com.example.chat.config.WebSocketKeepaliveProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 세션 유휴 검사 타이머 휠 (짧은 tick 으로 실제 시간에서 돌림)
+ */
+class KeepaliveWheelTest {
+
+    private static final Duration PING_INTERVAL = Duration.ofMillis(200);
+    private static final Duration PONG_TIMEOUT = Duration.ofMillis(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger pings = new AtomicInteger();
+    private final AtomicInteger expirations = new AtomicInteger();
+
+    private KeepaliveWheel wheel;
+
+    @AfterEach
+    void tearDown() {
+        if (wheel != null) {
+            wheel.destroy();
+        }
+    }
+
+    @Test
+    void idleSessionIsPingedThenExpiredOnce() throws InterruptedException {
+        wheel = new KeepaliveWheel(properties(true), meterRegistry);
+        wheel.register(pings::incrementAndGet, expirations::incrementAndGet);
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> expirations.get() > 0);
+        assertThat(pings.get()).isEqualTo(1);
+
+        // 만료된 세션은 휠에서 빠지므로 다시 불리지 않음
+        Thread.sleep(PING_INTERVAL.plus(PONG_TIMEOUT).toMillis() * 2);
+        assertThat(expirations.get()).isEqualTo(1);
+        assertThat(pings.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("chat.ws.keepalive.expired").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("chat.ws.keepalive.sessions").gauge().value()).isZero();
+    }
+
+    @Test
+    void activeSessionIsNeverPinged() throws InterruptedException {
+        wheel = new KeepaliveWheel(properties(true), meterRegistry);
+        KeepaliveWheel.Handle handle = wheel.register(pings::incrementAndGet, expirations::incrementAndGet);
+
+        long until = System.nanoTime() + PING_INTERVAL.toNanos() * 3;
+        while (System.nanoTime() < until) {
+            handle.touch();
+            Thread.sleep(20);
+        }
+        assertThat(pings.get()).isZero();
+        assertThat(expirations.get()).isZero();
+    }
+
+    @Test
+    void frameAfterPingKeepsSessionOpen() throws InterruptedException {
+        wheel = new KeepaliveWheel(properties(true), meterRegistry);
+        KeepaliveWheel.Handle handle = wheel.register(pings::incrementAndGet, expirations::incrementAndGet);
+
+        await().atMost(Duration.ofSeconds(3)).until(() -> pings.get() > 0);
+        handle.touch();
+
+        // pong-timeout 이 지나도 ping 이후 수신이 있었으므로 만료되지 않음
+        Thread.sleep(PONG_TIMEOUT.toMillis() * 3 / 2);
+        assertThat(expirations.get()).isZero();
+    }
+
+    @Test
+    void cancelledSessionIsDropped() throws InterruptedException {
+        wheel = new KeepaliveWheel(properties(true), meterRegistry);
+        KeepaliveWheel.Handle handle = wheel.register(pings::incrementAndGet, expirations::incrementAndGet);
+        assertThat(meterRegistry.get("chat.ws.keepalive.sessions").gauge().value()).isEqualTo(1.0);
+
+        handle.cancel();
+        handle.cancel();
+        assertThat(meterRegistry.get("chat.ws.keepalive.sessions").gauge().value()).isZero();
+
+        Thread.sleep(PING_INTERVAL.plus(PONG_TIMEOUT).toMillis() * 2);
+        assertThat(pings.get()).isZero();
+        assertThat(expirations.get()).isZero();
+    }
+
+    @Test
+    void disabledWheelIgnoresSessions() throws InterruptedException {
+        wheel = new KeepaliveWheel(properties(false), meterRegistry);
+        KeepaliveWheel.Handle handle = wheel.register(pings::incrementAndGet, expirations::incrementAndGet);
+        handle.touch();
+
+        Thread.sleep(PING_INTERVAL.plus(PONG_TIMEOUT).toMillis() * 2);
+        assertThat(pings.get()).isZero();
+        assertThat(expirations.get()).isZero();
+        assertThat(meterRegistry.get("chat.ws.keepalive.sessions").gauge().value()).isZero();
+    }
+
+    private static WebSocketKeepaliveProperties properties(boolean enabled) {
+        WebSocketKeepaliveProperties properties = new WebSocketKeepaliveProperties();
+        properties.setEnabled(enabled);
+        properties.setPingInterval(PING_INTERVAL);
+        properties.setPongTimeout(PONG_TIMEOUT);
+        properties.setTick(Duration.ofMillis(10));
+        return properties;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.chat.handler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * userId → Connection 개방 주소 해시
+ */
+class LongConnectionMapTest {
+
+    // 연결은 참조로만 구분하므로 세션 mock 하나를 같이 씀
+    private static final WebSocketSession SESSION = mock(WebSocketSession.class);
+
+    private final LongConnectionMap map = new LongConnectionMap();
+
+    @Test
+    void putReplacesAndReturnsPreviousConnection() {
+        Connection first = connection(42);
+        Connection second = connection(42);
+
+        assertThat(map.put(42, first)).isNull();
+        assertThat(map.put(42, second)).isSameAs(first);
+        assertThat(map.get(42)).isSameAs(second);
+        assertThat(map.get(43)).isNull();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeOnlyWhenCurrentValueIsExpected() {
+        Connection stale = connection(7);
+        Connection reconnected = connection(7);
+        map.put(7, stale);
+        map.put(7, reconnected);
+
+        // 끊긴 옛 연결의 정리가 재접속한 새 연결을 지우면 안 됨
+        assertThat(map.remove(7, stale)).isFalse();
+        assertThat(map.get(7)).isSameAs(reconnected);
+
+        assertThat(map.remove(7, reconnected)).isTrue();
+        assertThat(map.get(7)).isNull();
+        assertThat(map.remove(7, reconnected)).isFalse();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void sequentialKeysSurviveResizeAndRemoval() {
+        int count = 50_000;
+        Connection[] connections = new Connection[count];
+        for (int i = 0; i < count; i++) {
+            connections[i] = connection(1_000_000L + i);
+            map.put(1_000_000L + i, connections[i]);
+        }
+        assertThat(map.size()).isEqualTo(count);
+
+        // 짝수만 지워도 탐사 경로가 끊기지 않아야 함 (삭제 후 당겨 채우기)
+        for (int i = 0; i < count; i += 2) {
+            assertThat(map.remove(1_000_000L + i, connections[i])).isTrue();
+        }
+        for (int i = 0; i < count; i++) {
+            assertThat(map.get(1_000_000L + i)).isSameAs(i % 2 == 0 ? null : connections[i]);
+        }
+        assertThat(map.size()).isEqualTo(count / 2);
+    }
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Map<Long, Connection> expected = new HashMap<>();
+        Random random = new Random(20240611L);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000) - 2_500L;
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                Connection value = connection(key);
+                assertThat(map.put(key, value)).isSameAs(expected.put(key, value));
+            } else if (operation == 1) {
+                Connection current = expected.get(key);
+                Connection target = current != null && random.nextBoolean() ? current : connection(key);
+                boolean removed = current == target;
+                if (removed) {
+                    expected.remove(key);
+                }
+                assertThat(map.remove(key, target)).isEqualTo(removed);
+            } else {
+                assertThat(map.get(key)).isSameAs(expected.get(key));
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isSameAs(value));
+    }
+
+    private static Connection connection(long userId) {
+        return new Connection(SESSION, null, userId);
+    }
+}
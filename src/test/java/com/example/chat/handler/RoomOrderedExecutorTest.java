@@ -0,0 +1,96 @@
+package com.example.chat.handler;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * 채팅방 단위 순차 실행기
+ */
+class RoomOrderedExecutorTest {
+
+    private final RoomOrderedExecutor executor = new RoomOrderedExecutor();
+
+    @Test
+    void tasksOfOneRoomRunOneAtATimeInSubmissionOrder() {
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Random random = new Random(7);
+
+        // flatMap 은 안쪽 Mono 를 순서대로 구독하므로 제출 순서 = i
+        Flux.range(0, 30)
+                .flatMap(i -> {
+                    long delay = random.nextInt(5);
+                    return executor.submit("room-1", () -> Mono.defer(() -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        return Mono.delay(Duration.ofMillis(delay))
+                                .doOnNext(tick -> {
+                                    running.decrementAndGet();
+                                    completed.add(i);
+                                })
+                                .thenReturn(i);
+                    }));
+                }, 30)
+                .then()
+                .block(Duration.ofSeconds(10));
+
+        assertThat(completed).containsExactlyElementsOf(IntStream.range(0, 30).boxed().toList());
+        assertThat(maxRunning.get()).isEqualTo(1);
+        awaitIdle();
+    }
+
+    @Test
+    void differentRoomsDoNotWaitForEachOther() {
+        Sinks.One<String> released = Sinks.one();
+
+        // room-a 작업은 room-b 작업이 끝나야 완료 - 채팅방끼리 순차였다면 멈춤
+        Mono<String> blocked = executor.submit("room-a", released::asMono);
+        Mono<String> releaser = executor.submit("room-b", () -> Mono.fromRunnable(() -> released.tryEmitValue("done"))
+                .thenReturn("released"));
+
+        StepVerifier.create(Flux.merge(blocked, releaser).collectList())
+                .assertNext(results -> assertThat(results).containsExactlyInAnyOrder("done", "released"))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void failedTaskDoesNotBlockTheNextOne() {
+        Mono<String> failing = executor.submit("room-1", () -> Mono.delay(Duration.ofMillis(20))
+                .then(Mono.<String>error(new IllegalStateException("boom"))));
+        Mono<String> next = executor.submit("room-1", () -> Mono.just("next"));
+
+        // next 는 failing 뒤에 대기하다가 실패 후 이어서 실행
+        StepVerifier.create(Flux.merge(failing.onErrorReturn(IllegalStateException.class, "failed"), next))
+                .expectNext("failed", "next")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        awaitIdle();
+    }
+
+    @Test
+    void emptyTaskCompletesWithoutValue() {
+        StepVerifier.create(executor.submit("room-1", Mono::empty))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        awaitIdle();
+    }
+
+    // 대기열 정리(doFinally)는 결과 전달 뒤에 일어남
+    private void awaitIdle() {
+        await().atMost(Duration.ofSeconds(5)).until(() -> executor.activeRooms() == 0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.chat.handler;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 채팅방 구독자 조각 - 필요할 때만 만들고 비면 버림
+ */
+class RoomSubscribersTest {
+
+    private static final WebSocketSession SESSION = mock(WebSocketSession.class);
+
+    private final RoomSubscribers subscribers = new RoomSubscribers("room-1", 8);
+
+    @Test
+    void shardsAreCreatedOnlyForJoinedUsers() {
+        Connection alice = connection(1);
+        Connection bob = connection(2);
+
+        assertThat(subscribers.isEmpty()).isTrue();
+        assertThat(IntStream.range(0, 8).mapToObj(subscribers::shard)).allMatch(shard -> shard.isEmpty());
+
+        assertThat(subscribers.add(alice)).isTrue();
+        assertThat(subscribers.add(alice)).isFalse();
+        assertThat(subscribers.add(bob)).isTrue();
+
+        assertThat(subscribers.size()).isEqualTo(2);
+        assertThat(subscribers.shard(1)).containsExactly(alice);
+        assertThat(subscribers.shard(2)).containsExactly(bob);
+        assertThat(subscribers.shard(3)).isEmpty();
+        assertThat(subscribers).containsExactlyInAnyOrder(alice, bob);
+    }
+
+    @Test
+    void sameUserAlwaysLandsInSameShard() {
+        Connection first = connection(9);
+        Connection second = connection(9);
+        subscribers.add(first);
+        subscribers.add(second);
+
+        // 9 % 8 = 1 → 같은 사용자의 연결은 같은 워커에서 순서대로 전달됨
+        assertThat(subscribers.shard(1)).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void removingLastConnectionEmptiesShard() {
+        Connection alice = connection(1);
+        subscribers.add(alice);
+
+        assertThat(subscribers.remove(connection(1))).isFalse();
+        assertThat(subscribers.remove(alice)).isTrue();
+        assertThat(subscribers.remove(alice)).isFalse();
+        assertThat(subscribers.shard(1)).isEmpty();
+        assertThat(subscribers.isEmpty()).isTrue();
+        assertThat(subscribers.size()).isZero();
+
+        // 비운 뒤에도 다시 들어올 수 있음
+        assertThat(subscribers.add(alice)).isTrue();
+        assertThat(subscribers.shard(1)).containsExactly(alice);
+    }
+
+    private static Connection connection(long userId) {
+        return new Connection(SESSION, null, userId);
+    }
+}
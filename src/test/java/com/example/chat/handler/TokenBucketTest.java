@@ -0,0 +1,72 @@
+package com.example.chat.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 토큰 버킷 - 버스트 허용량과 충전
+ */
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        // 충전이 사실상 없도록 (테스트 중 1개도 차지 않음)
+        TokenBucket bucket = new TokenBucket(3, 0.001);
+
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 10);
+
+        // 두 번 연달아 시도한 뒤에 확인 (사이에 시간이 흐르면 충전됨)
+        boolean first = bucket.tryConsume();
+        boolean second = bucket.tryConsume();
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+
+        // 초당 10개 → 150ms 면 capacity(1) 까지 참
+        Thread.sleep(150);
+        assertThat(bucket.tryConsume()).isTrue();
+    }
+
+    @Test
+    void refillDoesNotExceedCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(2, 10);
+
+        Thread.sleep(300);
+        boolean first = bucket.tryConsume();
+        boolean second = bucket.tryConsume();
+        boolean third = bucket.tryConsume();
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+    }
+
+    @Test
+    void refundReturnsOneTokenUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 0.001);
+
+        assertThat(bucket.tryConsume()).isTrue();
+        bucket.refund();
+        bucket.refund();
+        assertThat(bucket.tryConsume()).isTrue();
+        assertThat(bucket.tryConsume()).isFalse();
+    }
+
+    @Test
+    void rejectedAttemptsStillCountAsUse() {
+        TokenBucket bucket = new TokenBucket(1, 0.001);
+        bucket.tryConsume();
+        long afterFirst = bucket.getLastUsedNanos();
+
+        assertThat(bucket.tryConsume()).isFalse();
+        assertThat(bucket.getLastUsedNanos()).isGreaterThanOrEqualTo(afterFirst);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.chat.repository;
+
+import com.example.chat.config.MessageStorageProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.MessageBucket;
+import com.example.chat.model.MessageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 버킷 저장 방식 - 구간이 겹치는 버킷의 최근 메시지 조회
+ */
+class BucketMessageStoreTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private BucketMessageStore store;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        store = new BucketMessageStore(mongoTemplate, new MessageStorageProperties());
+    }
+
+    @Test
+    void lateMessageInNewerBucketComesBackInTimestampOrder() {
+        // 30초짜리 메시지가 늦게 도착해 [40, 60] 버킷에 들어가면서 start 가 30 으로 앞당겨짐
+        // (Mongo 는 end 내림차순으로 돌려줌)
+        givenBuckets(
+                bucket(30, 40, 50, 60),
+                bucket(10, 20, 35));
+
+        assertThat(ids(store.findLatest("room-1", null, 10)))
+                .containsExactly("m60", "m50", "m40", "m35", "m30", "m20", "m10");
+    }
+
+    @Test
+    void pageStopsOnlyAfterOverlappingBucketsAreMerged() {
+        givenBuckets(
+                bucket(5, 70, 80),
+                bucket(50, 60),
+                bucket(10, 20));
+
+        assertThat(ids(store.findLatest("room-1", null, 4)))
+                .containsExactly("m80", "m70", "m60", "m50");
+        assertThat(ids(store.findLatest("room-1", null, 6)))
+                .containsExactly("m80", "m70", "m60", "m50", "m20", "m10");
+    }
+
+    @Test
+    void beforeCursorSkipsNewerMessagesInsideTheBucket() {
+        givenBuckets(
+                bucket(30, 40, 50, 60),
+                bucket(10, 20, 35));
+
+        assertThat(ids(store.findLatest("room-1", at(45), 3)))
+                .containsExactly("m40", "m35", "m30");
+    }
+
+    private void givenBuckets(MessageBucket... buckets) {
+        when(mongoTemplate.find(any(Query.class), eq(MessageBucket.class))).thenReturn(Flux.fromArray(buckets));
+    }
+
+    private static List<String> ids(Flux<ChatMessage> messages) {
+        return messages.map(ChatMessage::getId).collectList().block();
+    }
+
+    // 저장 순서는 도착순 (시각 순서가 아님)
+    private static MessageBucket bucket(int... seconds) {
+        List<MessageBucket.Entry> entries = new ArrayList<>();
+        for (int second : seconds) {
+            entries.add(MessageBucket.Entry.builder()
+                    .id("m" + second)
+                    .senderId("user-1")
+                    .type(MessageType.CHAT)
+                    .content("message " + second)
+                    .timestamp(at(second))
+                    .build());
+        }
+        return MessageBucket.builder()
+                .id("bucket-" + seconds[0])
+                .chatRoomId("room-1")
+                .start(at(Arrays.stream(seconds).min().getAsInt()))
+                .end(at(Arrays.stream(seconds).max().getAsInt()))
+                .count(seconds.length)
+                .messages(entries)
+                .build();
+    }
+
+    private static Instant at(int second) {
+        return BASE.plusSeconds(second);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.chat.repository;
+
+import com.example.chat.config.ArchiveProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.MessageType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 보관 세그먼트 쓰기 → 읽기 왕복, watermark
+ */
+class MessageArchiveTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private ArchiveProperties properties;
+    private MessageArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ArchiveProperties();
+        properties.setDirectory(directory.toString());
+        archive = new MessageArchive(properties, objectMapper);
+    }
+
+    @Test
+    void writtenMessagesReadBackNewestFirst() throws IOException {
+        List<ChatMessage> messages = messages("room-1", 0, 300);
+        assertThat(write("room-1", messages, 128)).isEqualTo(BASE.plusSeconds(299));
+
+        List<ChatMessage> latest = archive.findLatest("room-1", null, 50).collectList().block();
+        assertThat(latest).extracting(ChatMessage::getId)
+                .containsExactlyElementsOf(newestFirst(messages.subList(250, 300)));
+        assertThat(latest.get(0).getContent()).isEqualTo("message 299");
+        assertThat(latest.get(0).getTimestamp()).isEqualTo(BASE.plusSeconds(299));
+    }
+
+    @Test
+    void beforeCursorPagesAcrossBlocksAndSegments() throws IOException {
+        List<ChatMessage> messages = messages("room-1", 0, 200);
+        write("room-1", messages.subList(0, 100), 32);
+        write("room-1", messages.subList(100, 200), 32);
+
+        // 두 세그먼트 경계에 걸친 페이지 (before 는 포함하지 않음)
+        List<ChatMessage> page = archive.findLatest("room-1", BASE.plusSeconds(120), 40).collectList().block();
+        assertThat(page).extracting(ChatMessage::getId)
+                .containsExactlyElementsOf(newestFirst(messages.subList(80, 120)));
+
+        List<ChatMessage> oldest = archive.findLatest("room-1", BASE.plusSeconds(10), 40).collectList().block();
+        assertThat(oldest).extracting(ChatMessage::getId)
+                .containsExactlyElementsOf(newestFirst(messages.subList(0, 10)));
+    }
+
+    @Test
+    void watermarkIsLatestArchivedTimestamp() throws IOException {
+        assertThat(archive.watermark("room-1").block()).isNull();
+
+        write("room-1", messages("room-1", 0, 10), 4);
+        assertThat(archive.watermark("room-1").block()).isEqualTo(BASE.plusSeconds(9));
+
+        write("room-1", messages("room-1", 10, 20), 4);
+        assertThat(archive.watermark("room-1").block()).isEqualTo(BASE.plusSeconds(19));
+
+        // 다른 채팅방과 섞이지 않음
+        assertThat(archive.watermark("room-2").block()).isNull();
+    }
+
+    @Test
+    void committedSegmentsAreVisibleToNewInstance() throws IOException {
+        List<ChatMessage> messages = messages("room/with:odd chars", 0, 20);
+        write("room/with:odd chars", messages, 8);
+
+        MessageArchive reopened = new MessageArchive(properties, objectMapper);
+        assertThat(reopened.watermark("room/with:odd chars").block()).isEqualTo(BASE.plusSeconds(19));
+        assertThat(reopened.findLatest("room/with:odd chars", null, 100).collectList().block())
+                .extracting(ChatMessage::getId)
+                .containsExactlyElementsOf(newestFirst(messages));
+    }
+
+    @Test
+    void uncommittedWriterLeavesNothingBehind() throws IOException {
+        try (MessageArchive.SegmentWriter writer = archive.openWriter("room-1")) {
+            writer.append(messages("room-1", 0, 10));
+        }
+
+        assertThat(archive.findLatest("room-1", null, 10).collectList().block()).isEmpty();
+        assertThat(archive.watermark("room-1").block()).isNull();
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @Test
+    void mayContainReflectsArchivedRange() throws IOException {
+        assertThat(archive.mayContain("room-1", null)).isFalse();
+
+        write("room-1", messages("room-1", 100, 110), 4);
+        assertThat(archive.mayContain("room-1", null)).isTrue();
+        assertThat(archive.mayContain("room-2", null)).isFalse();
+
+        // 세그먼트 목록이 캐시에 올라온 뒤에는 가장 오래된 시각과 비교
+        archive.findLatest("room-1", null, 1).blockLast();
+        assertThat(archive.mayContain("room-1", BASE.plusSeconds(100))).isFalse();
+        assertThat(archive.mayContain("room-1", BASE.plusSeconds(101))).isTrue();
+    }
+
+    @Test
+    void readsStillWorkAfterRoomsAreEvictedFromCache() throws IOException {
+        properties.setCachedRooms(1);
+        archive = new MessageArchive(properties, objectMapper);
+        write("room-1", messages("room-1", 0, 10), 4);
+        write("room-2", messages("room-2", 0, 10), 4);
+
+        // 번갈아 읽으면 매번 다른 채팅방이 밀려나 매핑이 해제되고 다시 로드됨
+        for (int i = 0; i < 3; i++) {
+            assertThat(archive.findLatest("room-1", null, 3).collectList().block()).hasSize(3);
+            assertThat(archive.findLatest("room-2", null, 3).collectList().block()).hasSize(3);
+        }
+    }
+
+    private Instant write(String chatRoomId, List<ChatMessage> messages, int blockMessages) throws IOException {
+        try (MessageArchive.SegmentWriter writer = archive.openWriter(chatRoomId)) {
+            for (int from = 0; from < messages.size(); from += blockMessages) {
+                writer.append(messages.subList(from, Math.min(messages.size(), from + blockMessages)));
+            }
+            return writer.commit();
+        }
+    }
+
+    private static List<ChatMessage> messages(String chatRoomId, int from, int to) {
+        List<ChatMessage> messages = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            messages.add(ChatMessage.builder()
+                    .id(chatRoomId + "-" + i)
+                    .chatRoomId(chatRoomId)
+                    .seq((long) i + 1)
+                    .senderId("user-" + (i % 3))
+                    .type(MessageType.CHAT)
+                    .content("message " + i)
+                    .timestamp(BASE.plusSeconds(i))
+                    .build());
+        }
+        return messages;
+    }
+
+    private static List<String> newestFirst(List<ChatMessage> messages) {
+        List<String> ids = new ArrayList<>(messages.stream().map(ChatMessage::getId).toList());
+        Collections.reverse(ids);
+        return ids;
+    }
+}
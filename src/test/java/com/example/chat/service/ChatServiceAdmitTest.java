@@ -0,0 +1,114 @@
+package com.example.chat.service;
+
+import com.example.chat.config.AttachmentProperties;
+import com.example.chat.config.RedisFailoverProperties;
+import com.example.chat.model.ChatMessage;
+import com.example.chat.model.MessageType;
+import com.example.chat.repository.ChatRoomRepository;
+import com.example.chat.repository.MessageArchive;
+import com.example.chat.repository.MessageStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 메시지 접수 - Redis 차단기/응답 지연 시 순번 없이 접수
+ */
+class ChatServiceAdmitTest {
+
+    private ReactiveRedisTemplate<String, String> redisTemplate;
+    private RedisCircuitBreaker circuitBreaker;
+    private ChatService chatService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(ReactiveRedisTemplate.class);
+        circuitBreaker = mock(RedisCircuitBreaker.class);
+
+        RedisFailoverProperties properties = new RedisFailoverProperties();
+        properties.setPublishTimeout(Duration.ofSeconds(2));
+
+        chatService = new ChatService(
+                mock(ChatRoomRepository.class),
+                mock(ChatRoomCache.class),
+                mock(MessageStore.class),
+                mock(MessageArchive.class),
+                mock(RoomMembershipService.class),
+                mock(RedisMessagePublisher.class),
+                redisTemplate,
+                circuitBreaker,
+                properties,
+                mock(ReactiveMongoTemplate.class),
+                new AttachmentProperties());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void assignsSequenceWhenRedisAnswers() {
+        when(circuitBreaker.isClosed()).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(7L, "")));
+        ChatMessage message = message();
+
+        StepVerifier.create(chatService.admitMessage(message))
+                .expectNext(message.getId())
+                .verifyComplete();
+        assertThat(message.getSeq()).isEqualTo(7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skipsScriptWhileCircuitIsOpen() {
+        when(circuitBreaker.isClosed()).thenReturn(false);
+        ChatMessage message = message();
+
+        StepVerifier.create(chatService.admitMessage(message))
+                .expectNext(message.getId())
+                .verifyComplete();
+        assertThat(message.getSeq()).isNull();
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void admitsWithoutSequenceWhenRedisDoesNotAnswer() {
+        when(circuitBreaker.isClosed()).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyList())).thenReturn(Flux.never());
+        ChatMessage message = message();
+
+        // publish-timeout(2초) 이 지나면 순번 없이 접수
+        StepVerifier.withVirtualTime(() -> chatService.admitMessage(message))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(1_999))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext(message.getId())
+                .verifyComplete();
+        assertThat(message.getSeq()).isNull();
+    }
+
+    private static ChatMessage message() {
+        return ChatMessage.builder()
+                .id("message-1")
+                .chatRoomId("room-1")
+                .senderId("100")
+                .type(MessageType.CHAT)
+                .content("hello")
+                .build();
+    }
+}
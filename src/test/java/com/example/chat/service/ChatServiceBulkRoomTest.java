@@ -0,0 +1,123 @@
+package com.example.chat.service;
+
+import com.example.chat.config.AttachmentProperties;
+import com.example.chat.config.RedisFailoverProperties;
+import com.example.chat.model.ChatRoom;
+import com.example.chat.model.RoomCreationResult;
+import com.example.chat.repository.ChatRoomRepository;
+import com.example.chat.repository.MessageArchive;
+import com.example.chat.repository.MessageStore;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 채팅방 일괄 생성 - 일부 실패한 bulk 결과 처리
+ */
+class ChatServiceBulkRoomTest {
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private ReactiveBulkOperations bulk;
+    private ChatService chatService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        bulk = mock(ReactiveBulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatRoom.class)).thenReturn(bulk);
+
+        chatService = new ChatService(
+                mock(ChatRoomRepository.class),
+                mock(ChatRoomCache.class),
+                mock(MessageStore.class),
+                mock(MessageArchive.class),
+                mock(RoomMembershipService.class),
+                mock(RedisMessagePublisher.class),
+                mock(ReactiveRedisTemplate.class),
+                mock(RedisCircuitBreaker.class),
+                new RedisFailoverProperties(),
+                mongoTemplate,
+                new AttachmentProperties());
+    }
+
+    @Test
+    void duplicateUserPairFailsOnlyThatRoom() {
+        // 두 번째 요청은 같은 사용자 쌍 (user1_user2_idx 위반) - Spring 이 DuplicateKeyException 으로 번역
+        MongoBulkWriteException cause = bulkWriteException(List.of(new BulkWriteUpsert(0, new BsonString("room-1"))),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key error index: user1_user2_idx",
+                        new BsonDocument(), 1)));
+        when(bulk.execute()).thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key", cause)));
+
+        List<RoomCreationResult> results = chatService.createChatRooms(Flux.just(
+                        room("room-1", "100", "200"),
+                        room("room-2", "200", "100"),
+                        room("room-3", "", "300")))
+                .collectList()
+                .block();
+
+        assertThat(results).extracting(RoomCreationResult::getChatRoomId)
+                .containsExactly("room-1", "room-2", "room-3");
+        assertThat(results).extracting(RoomCreationResult::getStatus).containsExactly(
+                RoomCreationResult.Status.CREATED,
+                RoomCreationResult.Status.FAILED,
+                RoomCreationResult.Status.FAILED);
+        assertThat(results.get(1).getError()).contains("user1_user2_idx");
+    }
+
+    @Test
+    void untranslatedBulkWriteExceptionIsHandledTheSameWay() {
+        MongoBulkWriteException error =
+                bulkWriteException(List.of(), List.of(new BulkWriteError(11000, "duplicate", new BsonDocument(), 0)));
+        when(bulk.execute()).thenReturn(Mono.error(error));
+
+        StepVerifier.create(chatService.createChatRooms(Flux.just(room("room-1", "100", "200"))))
+                .assertNext(result -> assertThat(result.getStatus()).isEqualTo(RoomCreationResult.Status.FAILED))
+                .verifyComplete();
+    }
+
+    @Test
+    void otherErrorsArePropagated() {
+        when(bulk.execute()).thenReturn(Mono.error(new IllegalStateException("connection closed")));
+
+        StepVerifier.create(chatService.createChatRooms(Flux.just(room("room-1", "100", "200"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private static MongoBulkWriteException bulkWriteException(List<BulkWriteUpsert> upserts, List<BulkWriteError> errors) {
+        BulkWriteResult result = mock(BulkWriteResult.class);
+        when(result.getUpserts()).thenReturn(upserts);
+        MongoBulkWriteException exception = mock(MongoBulkWriteException.class);
+        when(exception.getWriteResult()).thenReturn(result);
+        when(exception.getWriteErrors()).thenReturn(errors);
+        return exception;
+    }
+
+    private static ChatRoom room(String id, String user1Id, String user2Id) {
+        return ChatRoom.builder()
+                .id(id)
+                .user1Id(user1Id)
+                .user2Id(user2Id)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.chat.service;
+
+import com.example.chat.config.RedisPubSubProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 채널 → 파티션 일관 해싱
+ */
+class RedisPartitionerTest {
+
+    private static final int CHANNELS = 20_000;
+
+    @Test
+    void singlePartitionAlwaysReturnsZero() {
+        RedisPartitioner partitioner = partitioner(1);
+
+        assertThat(partitioner.partitions()).isEqualTo(1);
+        for (int i = 0; i < 100; i++) {
+            assertThat(partitioner.partitionOf(channel(i))).isZero();
+        }
+    }
+
+    @Test
+    void sameChannelMapsToSamePartitionAcrossInstances() {
+        RedisPartitioner first = partitioner(4);
+        RedisPartitioner second = partitioner(4);
+
+        for (int i = 0; i < 1_000; i++) {
+            int partition = first.partitionOf(channel(i));
+            assertThat(partition).isBetween(0, 3);
+            assertThat(second.partitionOf(channel(i))).isEqualTo(partition);
+        }
+    }
+
+    @Test
+    void channelsSpreadEvenlyAcrossPartitions() {
+        RedisPartitioner partitioner = partitioner(4);
+
+        int[] counts = new int[4];
+        for (int i = 0; i < CHANNELS; i++) {
+            counts[partitioner.partitionOf(channel(i))]++;
+        }
+        // 가상 노드 160개면 기대값(5000)에서 ±20% 안쪽
+        for (int count : counts) {
+            assertThat(count).isBetween(CHANNELS / 4 * 8 / 10, CHANNELS / 4 * 12 / 10);
+        }
+    }
+
+    @Test
+    void addingPartitionOnlyMovesChannelsToTheNewOne() {
+        RedisPartitioner before = partitioner(4);
+        RedisPartitioner after = partitioner(5);
+
+        int moved = 0;
+        for (int i = 0; i < CHANNELS; i++) {
+            int from = before.partitionOf(channel(i));
+            int to = after.partitionOf(channel(i));
+            if (from != to) {
+                moved++;
+                assertThat(to).isEqualTo(4);
+            }
+        }
+        // 대략 1/5 만 옮겨감
+        assertThat(moved).isBetween(CHANNELS / 10, CHANNELS * 3 / 10);
+    }
+
+    private static RedisPartitioner partitioner(int partitions) {
+        RedisPubSubProperties properties = new RedisPubSubProperties();
+        properties.setPartitions(partitions);
+        return new RedisPartitioner(properties);
+    }
+
+    private static String channel(int room) {
+        return "chat:room-" + room;
+    }
+}